@@ -0,0 +1,47 @@
+package neon.benchmarks;
+
+import java.awt.Graphics;
+import java.util.SplittableRandom;
+
+import neon.critical.EngineContext;
+import neon.critical.Game;
+import neon.critical.GameSettings;
+import neon.critical.WindowOption;
+import neon.critical.WindowSettings;
+import neon.physics.Vector2D;
+
+/** A class containing helpers shared by the benchmarks. */
+class BenchmarkUtils {
+  static final int WIDTH = 1280;
+  static final int HEIGHT = 720;
+
+  /**
+   * Creates an engine context for a 1280x720 window without opening the window, so that code which
+   * reads the window settings can run inside {@link EngineContext#execute(Runnable)}.
+   */
+  static EngineContext createContext() {
+    WindowSettings windowSettings =
+        new WindowSettings("Benchmark", WindowOption.NONE, 2, WIDTH, HEIGHT, true);
+    return new EngineContext(new EmptyGame(), new GameSettings(windowSettings, 60, 60, true));
+  }
+
+  /** @return a vector with deterministic pseudo-random coordinates between 0 and 1 */
+  static Vector2D randomVector(long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    return new Vector2D(random.nextDouble(), random.nextDouble());
+  }
+
+  private static class EmptyGame implements Game {
+    @Override
+    public void init() {}
+
+    @Override
+    public void tick() {}
+
+    @Override
+    public void render(Graphics graphics) {}
+
+    @Override
+    public void onExit() {}
+  }
+}
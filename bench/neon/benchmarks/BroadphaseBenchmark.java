@@ -0,0 +1,91 @@
+package neon.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import neon.physics.RectangularHitbox;
+import neon.physics.SpatialHashGrid;
+import neon.physics.SweepAndPrune;
+import neon.physics.Vector2D;
+
+/**
+ * Benchmarks of finding every intersecting pair of hitboxes once per tick, where every hitbox moves
+ * slightly between ticks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BroadphaseBenchmark {
+  @Param({"500", "5000"})
+  public int hitboxCount;
+
+  private RectangularHitbox[] hitboxes;
+  private SweepAndPrune sweepAndPrune;
+  private SpatialHashGrid grid;
+  private int[] pairs;
+  private double step = 0.001;
+
+  @Setup
+  public void setup() {
+    hitboxes = new RectangularHitbox[hitboxCount];
+    sweepAndPrune = new SweepAndPrune(null);
+    grid = new SpatialHashGrid(0.02, 0.02);
+    for (int i = 0; i < hitboxCount; i++) {
+      hitboxes[i] = new RectangularHitbox(BenchmarkUtils.randomVector(i), 0.01, 0.01);
+      sweepAndPrune.add(hitboxes[i]);
+      grid.add(hitboxes[i]);
+    }
+    sweepAndPrune.update();
+    pairs = new int[hitboxCount * 16];
+  }
+
+  @Benchmark
+  public int allPairs() {
+    move();
+    int pairCount = 0;
+    for (int i = 0; i < hitboxes.length; i++) {
+      for (int j = i + 1; j < hitboxes.length; j++) {
+        if (hitboxes[i].doesIntersectHitbox(hitboxes[j])) {
+          pairCount++;
+        }
+      }
+    }
+    return pairCount;
+  }
+
+  @Benchmark
+  public int sweepAndPrune() {
+    move();
+    sweepAndPrune.update();
+    return sweepAndPrune.getPairCount();
+  }
+
+  @Benchmark
+  public int spatialHashGrid() {
+    move();
+    grid.updateAll();
+    return grid.findPairs(pairs);
+  }
+
+  /** Moves every hitbox back and forth, so the scene stays the same across invocations. */
+  private void move() {
+    step = -step;
+    for (int i = 0; i < hitboxes.length; i++) {
+      Vector2D center = hitboxes[i].getCenter();
+      center.setX(center.getX() + (i % 2 == 0 ? step : -step));
+    }
+  }
+}
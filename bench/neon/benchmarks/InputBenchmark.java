@@ -0,0 +1,85 @@
+package neon.benchmarks;
+
+import java.awt.Canvas;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import neon.critical.EngineContext;
+import neon.input.InputSystem;
+
+/** Benchmarks of queueing input events and draining the input queues once per frame. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class InputBenchmark {
+  @Param({"0", "8", "64"})
+  public int eventCount;
+
+  private EngineContext context;
+  private InputSystem.KeyInput keyInput;
+  private InputSystem.MouseInput mouseInput;
+  private KeyEvent[] keyEvents;
+  private MouseEvent[] mouseEvents;
+
+  @Setup
+  public void setup() {
+    context = BenchmarkUtils.createContext();
+    context.execute(
+        () -> {
+          keyInput = new InputSystem.KeyInput();
+          mouseInput = new InputSystem.MouseInput();
+        });
+
+    Canvas source = new Canvas();
+    keyEvents = new KeyEvent[eventCount];
+    mouseEvents = new MouseEvent[eventCount];
+    for (int i = 0; i < eventCount; i++) {
+      keyEvents[i] =
+          new KeyEvent(
+              source, KeyEvent.KEY_TYPED, 0, 0, KeyEvent.VK_UNDEFINED, (char) ('a' + i % 26));
+      mouseEvents[i] =
+          new MouseEvent(
+              source,
+              MouseEvent.MOUSE_PRESSED,
+              0,
+              InputEvent.BUTTON1_DOWN_MASK,
+              i,
+              i,
+              1,
+              false,
+              MouseEvent.BUTTON1);
+    }
+  }
+
+  /** Queues the events as the AWT event thread would and drains them as the game loop would. */
+  @Benchmark
+  public void queueAndUpdate(Blackhole blackhole) {
+    context.execute(
+        () -> {
+          for (int i = 0; i < eventCount; i++) {
+            keyInput.keyTyped(keyEvents[i]);
+            mouseInput.mousePressed(mouseEvents[i]);
+          }
+          InputSystem.update();
+          blackhole.consume(InputSystem.getKeysTyped());
+          blackhole.consume(InputSystem.getMousePresses());
+        });
+  }
+}
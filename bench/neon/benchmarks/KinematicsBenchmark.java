@@ -0,0 +1,67 @@
+package neon.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import neon.physics.BatchKinematics;
+import neon.physics.RectangularHitbox;
+import neon.physics.Vector2D;
+import neon.physics.Vector2DArray;
+
+/** Benchmarks of moving and querying large numbers of bodies stored in primitive arrays. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class KinematicsBenchmark {
+  @Param({"1000", "50000"})
+  public int bodyCount;
+
+  private final RectangularHitbox query = new RectangularHitbox(new Vector2D(0.5, 0.5), 0.2, 0.2);
+  private Vector2DArray positions;
+  private Vector2DArray velocities;
+  private double[] halfSizes;
+  private int[] result;
+
+  @Setup
+  public void setup() {
+    positions = new Vector2DArray(bodyCount);
+    velocities = new Vector2DArray(bodyCount);
+    for (int i = 0; i < bodyCount; i++) {
+      Vector2D position = BenchmarkUtils.randomVector(i);
+      positions.append(position.getX(), position.getY());
+      velocities.append(1e-9, -1e-9);
+    }
+    halfSizes = new double[bodyCount];
+    Arrays.fill(halfSizes, 0.005);
+    result = new int[bodyCount];
+  }
+
+  @Benchmark
+  public void integrate() {
+    BatchKinematics.integrate(positions, velocities, 1);
+  }
+
+  @Benchmark
+  public int findIntersections() {
+    return BatchKinematics.findIntersections(positions, halfSizes, halfSizes, query, result);
+  }
+
+  @Benchmark
+  public int findIntersectionsUniformSize() {
+    return BatchKinematics.findIntersections(positions, 0.01, 0.01, query, result);
+  }
+}
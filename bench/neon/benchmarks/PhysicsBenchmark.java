@@ -0,0 +1,138 @@
+package neon.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import neon.critical.EngineContext;
+import neon.physics.CircularHitbox;
+import neon.physics.RectangularHitbox;
+import neon.physics.Vector2D;
+import neon.physics.Vector2DArray;
+
+/** Benchmarks of the vector math and the pairwise hitbox checks. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PhysicsBenchmark {
+  private static final int COUNT = 1024;
+  private final Vector2D[] vectors = new Vector2D[COUNT];
+  private final RectangularHitbox[] rectangles = new RectangularHitbox[COUNT];
+  private final CircularHitbox[] circles = new CircularHitbox[COUNT];
+  private final Vector2DArray positions = new Vector2DArray(COUNT);
+  private final Vector2DArray velocities = new Vector2DArray(COUNT);
+  private EngineContext context;
+
+  @Setup
+  public void setup() {
+    context = BenchmarkUtils.createContext();
+    for (int i = 0; i < COUNT; i++) {
+      vectors[i] = BenchmarkUtils.randomVector(i);
+      rectangles[i] = new RectangularHitbox(BenchmarkUtils.randomVector(i + COUNT), 0.05, 0.05);
+      circles[i] = new CircularHitbox(BenchmarkUtils.randomVector(i + COUNT * 2), 0.025);
+      positions.append(vectors[i].getX(), vectors[i].getY());
+      velocities.append(0.001, -0.001);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void vectorScalar(Blackhole blackhole) {
+    context.execute(
+        () -> {
+          for (Vector2D vector : vectors) {
+            blackhole.consume(vector.getScalar());
+          }
+        });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void vectorDistance(Blackhole blackhole) {
+    context.execute(
+        () -> {
+          for (int i = 0; i < COUNT; i++) {
+            blackhole.consume(vectors[i].getDistanceBetween(vectors[COUNT - 1 - i]));
+          }
+        });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void vectorDistanceSquared(Blackhole blackhole) {
+    context.execute(
+        () -> {
+          for (int i = 0; i < COUNT; i++) {
+            blackhole.consume(vectors[i].getDistanceSquaredBetween(vectors[COUNT - 1 - i]));
+          }
+        });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void vectorArrayAddScaled() {
+    positions.addScaled(velocities, 1);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void vectorSafeSubtract(Blackhole blackhole) {
+    for (int i = 0; i < COUNT; i++) {
+      blackhole.consume(vectors[i].safeSubtract(vectors[COUNT - 1 - i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void rectangleIntersection(Blackhole blackhole) {
+    for (int i = 0; i < COUNT; i++) {
+      blackhole.consume(rectangles[i].doesIntersectHitbox(rectangles[COUNT - 1 - i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void rectangleContainsVector(Blackhole blackhole) {
+    for (int i = 0; i < COUNT; i++) {
+      blackhole.consume(rectangles[i].doesContainVector(vectors[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void circleIntersection(Blackhole blackhole) {
+    context.execute(
+        () -> {
+          for (int i = 0; i < COUNT; i++) {
+            blackhole.consume(circles[i].doesIntersectHitbox(circles[COUNT - 1 - i]));
+          }
+        });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void rectanglePreventIntersection(Blackhole blackhole) {
+    for (int i = 0; i < COUNT; i++) {
+      RectangularHitbox rectangle = rectangles[i];
+      Vector2D center = rectangle.getCenter();
+      double x = center.getX();
+      double y = center.getY();
+      blackhole.consume(rectangle.preventIntersection(rectangles[COUNT - 1 - i]));
+      center.setX(x);
+      center.setY(y);
+    }
+  }
+}
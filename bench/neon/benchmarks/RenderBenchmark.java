@@ -0,0 +1,226 @@
+package neon.benchmarks;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import neon.critical.EngineContext;
+import neon.physics.CircularHitbox;
+import neon.physics.RectangularHitbox;
+import neon.rendering.AtlasRegion;
+import neon.rendering.DrawableShape;
+import neon.rendering.ImageObject;
+import neon.rendering.RenderLayer;
+import neon.rendering.RenderQueue;
+import neon.rendering.RenderSystem;
+import neon.rendering.SpriteCache;
+import neon.rendering.TextObject;
+import neon.rendering.TextureAtlas;
+
+/** Benchmarks of drawing shapes, images and text onto an offscreen image. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark {
+  private static final int COUNT = 256;
+  private final DrawableShape[] rectangles = new DrawableShape[COUNT];
+  private final DrawableShape[] circles = new DrawableShape[COUNT];
+  private final ImageObject[] images = new ImageObject[COUNT];
+  private final TextObject[] texts = new TextObject[COUNT];
+  private AtlasRegion[] regions;
+  private final RenderQueue queue = new RenderQueue(COUNT * 4);
+  private final SpriteCache spriteCache = new SpriteCache();
+  private final RenderLayer rectangleLayer =
+      new RenderLayer(
+          -1,
+          true,
+          layerGraphics -> {
+            RenderSystem.fillBackgroundColor(layerGraphics, Color.BLACK);
+            for (DrawableShape rectangle : rectangles) {
+              RenderSystem.drawRectangle(layerGraphics, rectangle);
+            }
+          });
+  private EngineContext context;
+  private BufferedImage target;
+  private Graphics2D graphics;
+
+  @Setup
+  public void setup() {
+    context = BenchmarkUtils.createContext();
+    target =
+        new BufferedImage(
+            BenchmarkUtils.WIDTH, BenchmarkUtils.HEIGHT, BufferedImage.TYPE_INT_RGB);
+    graphics = target.createGraphics();
+
+    // ImageIO commonly produces 3-byte BGR images, which Java2D cannot scale on a fast path
+    BufferedImage sprite = new BufferedImage(32, 32, BufferedImage.TYPE_3BYTE_BGR);
+    Graphics2D spriteGraphics = sprite.createGraphics();
+    spriteGraphics.setColor(Color.ORANGE);
+    spriteGraphics.fillOval(0, 0, 32, 32);
+    spriteGraphics.dispose();
+
+    // Animation frames of the same size, packed once into an atlas
+    BufferedImage[] frames = new BufferedImage[16];
+    for (int i = 0; i < frames.length; i++) {
+      frames[i] = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+      Graphics2D frameGraphics = frames[i].createGraphics();
+      frameGraphics.setColor(new Color(i * 0x100f0e));
+      frameGraphics.fillOval(i, i, 32 - i * 2, 32 - i * 2);
+      frameGraphics.dispose();
+    }
+    AtlasRegion[] frameRegions = TextureAtlas.pack(frames, 256);
+    regions = new AtlasRegion[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      regions[i] = frameRegions[i % frameRegions.length];
+    }
+
+    Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 16);
+    context.execute(
+        () -> {
+          for (int i = 0; i < COUNT; i++) {
+            Color color = new Color(i * 0x010203);
+            rectangles[i] =
+                new DrawableShape(
+                    new RectangularHitbox(BenchmarkUtils.randomVector(i), 0.05, 0.05),
+                    color,
+                    true);
+            circles[i] =
+                new DrawableShape(
+                    new CircularHitbox(BenchmarkUtils.randomVector(i + COUNT), 0.025),
+                    color,
+                    true);
+            images[i] =
+                new ImageObject(
+                    new RectangularHitbox(BenchmarkUtils.randomVector(i + COUNT * 2), 0.04, 0.07),
+                    sprite);
+            texts[i] =
+                new TextObject(
+                    graphics, BenchmarkUtils.randomVector(i + COUNT * 3), "Score: " + i, font,
+                    color);
+          }
+        });
+  }
+
+  @TearDown
+  public void tearDown() {
+    graphics.dispose();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void drawRectangles() {
+    context.execute(
+        () -> {
+          for (DrawableShape rectangle : rectangles) {
+            RenderSystem.drawRectangle(graphics, rectangle);
+          }
+        });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void drawRectanglesLayered() {
+    context.execute(() -> rectangleLayer.draw(graphics));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void drawCircles() {
+    context.execute(
+        () -> {
+          for (DrawableShape circle : circles) {
+            RenderSystem.drawCircle(graphics, circle);
+          }
+        });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void drawImages() {
+    context.execute(
+        () -> {
+          for (ImageObject image : images) {
+            RenderSystem.drawImage(graphics, image);
+          }
+        });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void drawImagesCached() {
+    context.execute(
+        () -> {
+          for (ImageObject image : images) {
+            RenderSystem.drawImage(graphics, image, spriteCache);
+          }
+        });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void drawRegions() {
+    context.execute(
+        () -> {
+          for (int i = 0; i < COUNT; i++) {
+            RenderSystem.drawRegion(graphics, images[i].getHitbox(), regions[i]);
+          }
+        });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void drawTexts() {
+    context.execute(
+        () -> {
+          for (TextObject text : texts) {
+            RenderSystem.drawText(graphics, text);
+          }
+        });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT * 4)
+  public void drawMixed() {
+    context.execute(
+        () -> {
+          for (int i = 0; i < COUNT; i++) {
+            RenderSystem.drawRectangle(graphics, rectangles[i]);
+            RenderSystem.drawText(graphics, texts[i]);
+            RenderSystem.drawCircle(graphics, circles[i]);
+            RenderSystem.drawImage(graphics, images[i]);
+          }
+        });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT * 4)
+  public void queueMixed() {
+    context.execute(
+        () -> {
+          for (int i = 0; i < COUNT; i++) {
+            queue.drawRectangle(0, 0, rectangles[i]);
+            queue.drawText(0, 0, texts[i]);
+            queue.drawCircle(0, 0, circles[i]);
+            queue.drawImage(0, 0, images[i]);
+          }
+          queue.flush(graphics);
+        });
+  }
+}
@@ -0,0 +1,305 @@
+package neon.critical;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import neon.input.InputSystem;
+import neon.profiling.HitboxQueryEvent;
+import neon.profiling.TickEvent;
+import neon.rendering.DirtyRegionTracker;
+import neon.rendering.RenderLayer;
+
+/**
+ * A class that stores the state of a single game: its settings, input, metrics and whether its
+ * loop is running. The static methods of the game library, such as {@link
+ * NeonEngine#getSettings()}, operate on the context bound to the current thread, or on the context
+ * of the windowed game if none is bound.<br>
+ * Headless games can be run in their own context so that many of them can share a single JVM. A
+ * context can either be run on a thread of its own using {@link #run()}, or be stepped one tick at
+ * a time from a shared thread pool using {@link #step()}.
+ */
+public class EngineContext implements Runnable {
+  private static final ThreadLocal<EngineContext> boundContext = new ThreadLocal<>();
+  private static volatile EngineContext defaultContext;
+  private final Game game;
+  private final GameSettings settings;
+  private final InputSystem inputSystem = new InputSystem();
+  private final EngineMetrics metrics = new EngineMetrics();
+  private final LongAdder hitboxQueryCount = new LongAdder();
+  private final AtomicBoolean isInitialized = new AtomicBoolean();
+  private final AtomicBoolean hasExited = new AtomicBoolean();
+  private volatile boolean doLoop = true;
+  private volatile long tickTime;
+  private volatile DirtyRegionTracker dirtyRegionTracker;
+  private volatile RenderLayer[] renderLayers = new RenderLayer[0];
+  private long tickCount;
+
+  /**
+   * @param game a class which implements the Game interface and contains the main logic of a game
+   * @param settings the basic settings used for the game
+   */
+  public EngineContext(Game game, GameSettings settings) {
+    this.game = game;
+    this.settings = settings;
+  }
+
+  /** @return the context bound to the current thread, or the context of the windowed game */
+  public static EngineContext current() {
+    EngineContext context = boundContext.get();
+    return context == null ? defaultContext : context;
+  }
+
+  static void setDefault(EngineContext context) {
+    defaultContext = context;
+  }
+
+  /** @return the game */
+  public Game getGame() {
+    return game;
+  }
+
+  /** @return the game settings */
+  public GameSettings getSettings() {
+    return settings;
+  }
+
+  /** @return the input system of the game */
+  public InputSystem getInputSystem() {
+    return inputSystem;
+  }
+
+  /** @return the timing metrics of the game loop */
+  public EngineMetrics getMetrics() {
+    return metrics;
+  }
+
+  /** @return the tracker used to repaint only what changed, or null if whole frames are drawn */
+  public DirtyRegionTracker getDirtyRegionTracker() {
+    return dirtyRegionTracker;
+  }
+
+  /**
+   * Sets the tracker used to repaint only the parts of the screen that changed. The tracker is
+   * ignored if the window settings clear frames, since a cleared frame has to be fully redrawn.
+   *
+   * @param dirtyRegionTracker the tracker, or null to draw whole frames
+   */
+  public void setDirtyRegionTracker(DirtyRegionTracker dirtyRegionTracker) {
+    this.dirtyRegionTracker = dirtyRegionTracker;
+  }
+
+  /** @return the layers drawn every frame, in the order they are drawn */
+  public List<RenderLayer> getRenderLayers() {
+    return List.of(renderLayers);
+  }
+
+  RenderLayer[] getRenderLayerArray() {
+    return renderLayers;
+  }
+
+  /**
+   * Adds a layer that is drawn every frame. Layers are drawn in order of their depth, and layers
+   * with the same depth are drawn in the order they were added.
+   *
+   * @param layer the layer
+   */
+  public synchronized void addRenderLayer(RenderLayer layer) {
+    RenderLayer[] layers = renderLayers;
+    int index = layers.length;
+    while (index > 0 && layers[index - 1].getDepth() > layer.getDepth()) {
+      index--;
+    }
+
+    RenderLayer[] newLayers = new RenderLayer[layers.length + 1];
+    System.arraycopy(layers, 0, newLayers, 0, index);
+    newLayers[index] = layer;
+    System.arraycopy(layers, index, newLayers, index + 1, layers.length - index);
+    renderLayers = newLayers;
+  }
+
+  /**
+   * Removes a layer so that it is no longer drawn.
+   *
+   * @param layer the layer
+   * @return whether the layer had been added
+   */
+  public synchronized boolean removeRenderLayer(RenderLayer layer) {
+    RenderLayer[] layers = renderLayers;
+    for (int i = 0; i < layers.length; i++) {
+      if (layers[i] == layer) {
+        RenderLayer[] newLayers = Arrays.copyOf(layers, layers.length - 1);
+        System.arraycopy(layers, i + 1, newLayers, i, layers.length - i - 1);
+        renderLayers = newLayers;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * WARNING: Do not call this method. It is only to be called by core library classes.
+   *
+   * @return the number of hitbox queries made since the last tick event was committed
+   */
+  public LongAdder getHitboxQueryCount() {
+    return hitboxQueryCount;
+  }
+
+  /** @return the number of ticks that have been run */
+  public long getTickCount() {
+    return tickCount;
+  }
+
+  /** @return whether the game loop is still running */
+  public boolean isRunning() {
+    return doLoop;
+  }
+
+  /** Terminates the game loop. */
+  public void terminate() {
+    doLoop = false;
+  }
+
+  /**
+   * Initializes the game if it has not been initialized yet. This method is called automatically
+   * by {@link #run()} and {@link #step()}.
+   */
+  public void init() {
+    if (isInitialized.compareAndSet(false, true)) {
+      EngineContext previousContext = bind();
+      try {
+        InputSystem.update();
+        game.init();
+      } finally {
+        boundContext.set(previousContext);
+      }
+    }
+  }
+
+  /**
+   * Terminates the game loop and notifies the game that it was closed, if it has not been yet. The
+   * metrics are unregistered from the MBean server.
+   */
+  public void exit() {
+    terminate();
+    if (hasExited.compareAndSet(false, true)) {
+      EngineContext previousContext = bind();
+      try {
+        game.onExit();
+      } finally {
+        boundContext.set(previousContext);
+        metrics.unregisterMBean();
+      }
+    }
+  }
+
+  /**
+   * Runs a headless game on the calling thread until it is terminated or its tick budget has been
+   * used up, and then notifies the game that it was closed.
+   */
+  @Override
+  public void run() {
+    init();
+    EngineContext previousContext = bind();
+    try {
+      HeadlessSettings headlessSettings = settings.headlessSettings;
+      FramePacer pacer = new FramePacer(settings.pacingStrategy);
+      long tickInterval =
+          headlessSettings.speedMultiplier > 0
+              ? (long) (1e9 / (settings.tickRate * headlessSettings.speedMultiplier))
+              : 0;
+      long nextTickTime = System.nanoTime();
+
+      while (tick()) {
+        if (tickInterval > 0) {
+          // Drop the backlog if it cannot be caught up to avoid a spiral of death
+          long currentTime = System.nanoTime();
+          nextTickTime += tickInterval;
+          long earliestTickTime = currentTime - tickInterval * settings.maxCatchUpTicks;
+          if (nextTickTime < earliestTickTime) {
+            metrics.recordMissedTicks((earliestTickTime - nextTickTime) / tickInterval);
+            nextTickTime = earliestTickTime;
+          }
+
+          pacer.waitUntil(nextTickTime);
+        }
+      }
+    } catch (Exception ex) {
+      ex.printStackTrace();
+    } finally {
+      boundContext.set(previousContext);
+    }
+    exit();
+  }
+
+  /**
+   * Runs a single tick of a headless game on the calling thread. The caller is responsible for
+   * calling this method at the right rate, and for calling {@link #exit()} once it returns false.
+   *
+   * @return whether the game is still running
+   */
+  public boolean step() {
+    init();
+    EngineContext previousContext = bind();
+    try {
+      return tick();
+    } finally {
+      boundContext.set(previousContext);
+    }
+  }
+
+  /**
+   * Runs an action on the calling thread with this context bound to it. This is useful for work
+   * that is handed to other threads, such as thread pools, on behalf of the game.
+   *
+   * @param action the action
+   */
+  public void execute(Runnable action) {
+    EngineContext previousContext = bind();
+    try {
+      action.run();
+    } finally {
+      boundContext.set(previousContext);
+    }
+  }
+
+  long getTickTime() {
+    return tickTime;
+  }
+
+  void setTickTime(long tickTime) {
+    this.tickTime = tickTime;
+  }
+
+  /** Runs a single tick if the game is running and there is tick budget left. */
+  private boolean tick() {
+    long tickBudget = settings.headlessSettings == null ? 0 : settings.headlessSettings.tickBudget;
+    if (!doLoop || (tickBudget > 0 && tickCount >= tickBudget)) {
+      terminate();
+      return false;
+    }
+
+    runTick(0);
+    return true;
+  }
+
+  void runTick(int catchUpIndex) {
+    long tickStartTime = System.nanoTime();
+    TickEvent tickEvent = new TickEvent();
+    tickEvent.catchUpIndex = catchUpIndex;
+    tickEvent.begin();
+    game.tick();
+    tickEvent.commit();
+    HitboxQueryEvent.commitQueries(hitboxQueryCount);
+    metrics.record(FramePhase.TICK, tickStartTime);
+    tickCount++;
+  }
+
+  private EngineContext bind() {
+    EngineContext previousContext = boundContext.get();
+    boundContext.set(this);
+    return previousContext;
+  }
+}
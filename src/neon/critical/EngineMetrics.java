@@ -0,0 +1,209 @@
+package neon.critical;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+import javax.management.ObjectName;
+
+import neon.utils.LatencyHistogram;
+
+/** A class that stores timing data about each phase of the game loop. */
+public class EngineMetrics implements EngineMetricsMXBean {
+  private static final AtomicInteger nextId = new AtomicInteger();
+  private final int id = nextId.getAndIncrement();
+  private final PhaseMetrics[] phaseMetrics = new PhaseMetrics[FramePhase.values().length];
+  private final AtomicLong missedTickCount = new AtomicLong();
+  private final AtomicLong missedFrameCount = new AtomicLong();
+  private final AtomicLong contentsLostCount = new AtomicLong();
+  private ObjectName objectName;
+
+  public EngineMetrics() {
+    for (int i = 0; i < phaseMetrics.length; i++) {
+      phaseMetrics[i] = new PhaseMetrics();
+    }
+  }
+
+  /**
+   * WARNING: Do not call this method. It is only to be called by core library classes.
+   *
+   * @param phase the phase that was completed
+   * @param startTime the time at which the phase started in nanoseconds
+   */
+  public void record(FramePhase phase, long startTime) {
+    long endTime = System.nanoTime();
+    PhaseMetrics metrics = phaseMetrics[phase.ordinal()];
+    metrics.histogram.record(endTime - startTime);
+
+    // Each phase is only recorded by a single thread, so the rate window does not need locking
+    metrics.windowCount++;
+    long windowTime = endTime - metrics.windowStartTime;
+    if (windowTime >= 1_000_000_000) {
+      metrics.rate = metrics.windowCount * 1e9 / windowTime;
+      metrics.windowStartTime = endTime;
+      metrics.windowCount = 0;
+    }
+  }
+
+  /**
+   * WARNING: Do not call this method. It is only to be called by core library classes.
+   *
+   * @param count the number of ticks that were dropped
+   */
+  public void recordMissedTicks(long count) {
+    missedTickCount.addAndGet(count);
+  }
+
+  /**
+   * WARNING: Do not call this method. It is only to be called by core library classes.
+   *
+   * @param count the number of frames that were skipped
+   */
+  public void recordMissedFrames(long count) {
+    missedFrameCount.addAndGet(count);
+  }
+
+  /** WARNING: Do not call this method. It is only to be called by core library classes. */
+  public void recordContentsLost() {
+    contentsLostCount.incrementAndGet();
+  }
+
+  /**
+   * @param phase the phase
+   * @return the histogram of the phase's durations
+   */
+  public LatencyHistogram getHistogram(FramePhase phase) {
+    return phaseMetrics[phase.ordinal()].histogram;
+  }
+
+  /**
+   * @param phase the phase
+   * @return the number of times the phase was completed during the last second
+   */
+  public double getRate(FramePhase phase) {
+    return phaseMetrics[phase.ordinal()].rate;
+  }
+
+  @Override
+  public double getTickRate() {
+    return getRate(FramePhase.TICK);
+  }
+
+  @Override
+  public double getFrameRate() {
+    return getRate(FramePhase.FRAME);
+  }
+
+  @Override
+  public long getMissedTickCount() {
+    return missedTickCount.get();
+  }
+
+  @Override
+  public long getMissedFrameCount() {
+    return missedFrameCount.get();
+  }
+
+  @Override
+  public long getContentsLostCount() {
+    return contentsLostCount.get();
+  }
+
+  @Override
+  public Map<String, Double> getMeanMillis() {
+    return mapPhases(histogram -> histogram.getMean() / 1e6);
+  }
+
+  @Override
+  public Map<String, Double> getP99Millis() {
+    return mapPhases(histogram -> histogram.getPercentile(99) / 1e6);
+  }
+
+  @Override
+  public Map<String, Double> getMaxMillis() {
+    return mapPhases(histogram -> histogram.getMax() / 1e6);
+  }
+
+  @Override
+  public void reset() {
+    for (PhaseMetrics metrics : phaseMetrics) {
+      metrics.histogram.reset();
+    }
+    missedTickCount.set(0);
+    missedFrameCount.set(0);
+    contentsLostCount.set(0);
+  }
+
+  /**
+   * Registers the metrics with the platform MBean server under the name
+   * "neon:type=EngineMetrics,name=" followed by an ID that is unique to these metrics.
+   *
+   * @return whether the operation was successful
+   */
+  public boolean registerMBean() {
+    return registerMBean(Integer.toString(id));
+  }
+
+  /**
+   * Registers the metrics with the platform MBean server under the name
+   * "neon:type=EngineMetrics,name=" followed by the quoted name. The metrics of each engine context
+   * need a different name, and they are unregistered when their context exits.
+   *
+   * @param name the name
+   * @return whether the operation was successful
+   */
+  public synchronized boolean registerMBean(String name) {
+    if (objectName != null) {
+      return false;
+    }
+
+    try {
+      ObjectName objectName =
+          new ObjectName("neon:type=EngineMetrics,name=" + ObjectName.quote(name));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+      this.objectName = objectName;
+      return true;
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return false;
+    }
+  }
+
+  /**
+   * Unregisters the metrics from the platform MBean server if they were registered.
+   *
+   * @return whether the metrics were unregistered
+   */
+  public synchronized boolean unregisterMBean() {
+    if (objectName == null) {
+      return false;
+    }
+
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+      return true;
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return false;
+    } finally {
+      objectName = null;
+    }
+  }
+
+  private Map<String, Double> mapPhases(ToDoubleFunction<LatencyHistogram> function) {
+    Map<String, Double> values = new LinkedHashMap<>();
+    for (FramePhase phase : FramePhase.values()) {
+      values.put(phase.name(), function.applyAsDouble(getHistogram(phase)));
+    }
+    return values;
+  }
+
+  private static class PhaseMetrics {
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private long windowStartTime = System.nanoTime();
+    private int windowCount;
+    private volatile double rate;
+  }
+}
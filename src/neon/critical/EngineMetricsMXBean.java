@@ -0,0 +1,33 @@
+package neon.critical;
+
+import java.util.Map;
+
+/** A management interface used to export the engine's metrics over JMX. */
+public interface EngineMetricsMXBean {
+  /** @return the number of ticks run during the last second */
+  double getTickRate();
+
+  /** @return the number of frames rendered during the last second */
+  double getFrameRate();
+
+  /** @return the number of ticks that were dropped because the game loop fell too far behind */
+  long getMissedTickCount();
+
+  /** @return the number of frames that were skipped because the game loop fell behind */
+  long getMissedFrameCount();
+
+  /** @return the number of times the contents of the buffer strategy were lost */
+  long getContentsLostCount();
+
+  /** @return the mean duration of each phase in milliseconds */
+  Map<String, Double> getMeanMillis();
+
+  /** @return the 99th percentile duration of each phase in milliseconds */
+  Map<String, Double> getP99Millis();
+
+  /** @return the maximum duration of each phase in milliseconds */
+  Map<String, Double> getMaxMillis();
+
+  /** Clears all recorded durations and counters. */
+  void reset();
+}
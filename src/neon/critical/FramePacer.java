@@ -0,0 +1,72 @@
+package neon.critical;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A class used to wait until a deadline. It measures how far parking the thread overshoots the
+ * requested time and wakes up early by that amount, so that the hybrid strategy only needs to spin
+ * for a short time. The sleep strategy parks for the full remaining time, since it never spins.<br>
+ * Note: Instances are not thread-safe, so each thread should use its own pacer.
+ */
+public class FramePacer {
+  private static final long MIN_OVERSLEEP_ESTIMATE = 50_000;
+  private static final long MAX_OVERSLEEP_ESTIMATE = 5_000_000;
+  private final PacingStrategy strategy;
+  private double meanOversleep = 1_000_000;
+  private double oversleepDeviation;
+
+  /** @param strategy the strategy used to wait */
+  public FramePacer(PacingStrategy strategy) {
+    this.strategy = strategy;
+  }
+
+  /**
+   * Waits until the specified time has been reached.
+   *
+   * @param deadline the deadline in nanoseconds, as returned by {@link System#nanoTime()}
+   */
+  public void waitUntil(long deadline) {
+    switch (strategy) {
+      case SLEEP -> {
+        // Parking may return early, so park again until the deadline has passed
+        long remainingTime;
+        while ((remainingTime = deadline - System.nanoTime()) > 0) {
+          park(remainingTime);
+        }
+      }
+      case HYBRID -> {
+        long remainingTime;
+        while ((remainingTime = deadline - System.nanoTime()) > getOversleepEstimate()) {
+          park(remainingTime - getOversleepEstimate());
+        }
+        spin(deadline);
+      }
+      case SPIN -> spin(deadline);
+    }
+  }
+
+  /** @return the estimated amount of time in nanoseconds that parking the thread overshoots by */
+  public long getOversleepEstimate() {
+    return (long)
+        Math.min(
+            Math.max(meanOversleep + oversleepDeviation * 2, MIN_OVERSLEEP_ESTIMATE),
+            MAX_OVERSLEEP_ESTIMATE);
+  }
+
+  private void park(long time) {
+    long startTime = System.nanoTime();
+    LockSupport.parkNanos(time);
+    long oversleep = System.nanoTime() - startTime - time;
+
+    // Update exponential moving averages of the oversleep and its deviation
+    double difference = oversleep - meanOversleep;
+    meanOversleep += difference * 0.1;
+    oversleepDeviation += (Math.abs(difference) - oversleepDeviation) * 0.1;
+  }
+
+  private static void spin(long deadline) {
+    while (System.nanoTime() < deadline) {
+      Thread.onSpinWait();
+    }
+  }
+}
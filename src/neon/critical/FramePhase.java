@@ -0,0 +1,18 @@
+package neon.critical;
+
+/** An enum containing the phases of the game loop whose durations are measured. */
+public enum FramePhase {
+  /** A single call to {@link Game#tick()}. */
+  TICK,
+  /** Polling the mouse position and draining the input queues. */
+  INPUT,
+  /** A single call to {@link Game#render(java.awt.Graphics, double)}. */
+  RENDER,
+  /**
+   * Showing the buffer strategy's next buffer. Each retry after its contents were lost is recorded
+   * separately.
+   */
+  SHOW,
+  /** A whole frame, including input polling, rendering and showing. */
+  FRAME
+}
@@ -11,12 +11,29 @@ public interface Game {
   void tick();
 
   /**
-   * A method used to render graphics that is called directly after each tick.
+   * A method used to render graphics that is called at the frame rate specified in the game
+   * settings.
    *
    * @param graphics an object used to draw graphics
    */
   void render(Graphics graphics);
 
+  /**
+   * A method used to render graphics that is called at the frame rate specified in the game
+   * settings. By default, it ignores the interpolation factor and calls {@link
+   * #render(Graphics)}.<br>
+   * If the game uses a {@link neon.rendering.DirtyRegionTracker}, this method is called once for
+   * each dirty rectangle of a frame, or not at all if nothing changed, and the objects it tracks
+   * must not be drawn at interpolated positions.
+   *
+   * @param graphics an object used to draw graphics
+   * @param alpha the fraction of a tick that has passed since the last tick, between 0 and 1, which
+   *     can be used to interpolate between the previous and current state
+   */
+  default void render(Graphics graphics, double alpha) {
+    render(graphics);
+  }
+
   /** A method called when the game is closed. */
   void onExit();
 }
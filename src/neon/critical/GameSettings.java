@@ -3,9 +3,20 @@ package neon.critical;
 /** A class that stores data about the game's settings. */
 public class GameSettings {
   public final WindowSettings windowSettings;
+  public final HeadlessSettings headlessSettings;
   public final double tickRate;
   public final double frameRate;
-  public final boolean doSleepThread;
+  public final PacingStrategy pacingStrategy;
+  public final int maxCatchUpTicks;
+  public final boolean doSeparateRenderThread;
+
+  /**
+   * Whether the game loop puts its thread to sleep while waiting, which is true for every pacing
+   * strategy except {@link PacingStrategy#SPIN}.
+   *
+   * @deprecated use {@link #pacingStrategy} instead
+   */
+  @Deprecated public final boolean doSleepThread;
 
   /**
    * @param windowSettings the settings for the window
@@ -15,9 +26,58 @@ public class GameSettings {
    */
   public GameSettings(
       WindowSettings windowSettings, double tickRate, double frameRate, boolean doSleepThread) {
+    this(
+        windowSettings,
+        null,
+        tickRate,
+        frameRate,
+        doSleepThread ? PacingStrategy.HYBRID : PacingStrategy.SPIN,
+        5,
+        false);
+  }
+
+  /**
+   * Creates settings for a game that runs without a window and never touches AWT. The game is
+   * ticked without being rendered.
+   *
+   * @param headlessSettings the settings for the headless simulation
+   * @param tickRate the number of ticks per second of simulated time
+   */
+  public GameSettings(HeadlessSettings headlessSettings, double tickRate) {
+    this(null, headlessSettings, tickRate, 0, PacingStrategy.HYBRID, 5, false);
+  }
+
+  /**
+   * @param windowSettings the settings for the window
+   * @param headlessSettings the settings used to simulate the game when there is no window
+   * @param tickRate the number of ticks per second
+   * @param frameRate the number of frames per second
+   * @param pacingStrategy the strategy used to wait for the next tick or frame
+   * @param maxCatchUpTicks the maximum number of ticks run to catch up after a stall before the
+   *     remaining backlog is dropped
+   * @param doSeparateRenderThread whether rendering should run on its own thread instead of the
+   *     thread that ticks the game
+   */
+  public GameSettings(
+      WindowSettings windowSettings,
+      HeadlessSettings headlessSettings,
+      double tickRate,
+      double frameRate,
+      PacingStrategy pacingStrategy,
+      int maxCatchUpTicks,
+      boolean doSeparateRenderThread) {
     this.windowSettings = windowSettings;
+    this.headlessSettings = headlessSettings;
     this.tickRate = tickRate;
     this.frameRate = frameRate;
-    this.doSleepThread = doSleepThread;
+    this.pacingStrategy = pacingStrategy;
+    this.maxCatchUpTicks = Math.max(maxCatchUpTicks, 1);
+    this.doSeparateRenderThread = doSeparateRenderThread;
+    doSleepThread = pacingStrategy != PacingStrategy.SPIN;
+  }
+
+  /** @return whether the game runs without a window and without touching AWT */
+  public boolean isHeadless() {
+    return windowSettings == null && headlessSettings != null;
   }
 }
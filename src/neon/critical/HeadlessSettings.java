@@ -0,0 +1,18 @@
+package neon.critical;
+
+/** A class that stores data about how the game is simulated when it runs without a window. */
+public class HeadlessSettings {
+  public final double speedMultiplier;
+  public final long tickBudget;
+
+  /**
+   * @param speedMultiplier the multiple of real time at which ticks are run, or a value of 0 or
+   *     less to run ticks as fast as possible
+   * @param tickBudget the number of ticks after which the game loop terminates, or a value of 0 or
+   *     less to run until the game loop is terminated manually
+   */
+  public HeadlessSettings(double speedMultiplier, long tickBudget) {
+    this.speedMultiplier = speedMultiplier;
+    this.tickBudget = tickBudget;
+  }
+}
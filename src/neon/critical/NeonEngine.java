@@ -1,5 +1,6 @@
 package neon.critical;
 
+import java.awt.BufferCapabilities;
 import java.awt.Canvas;
 import java.awt.Dimension;
 import java.awt.Graphics;
@@ -14,6 +15,10 @@ import javax.swing.WindowConstants;
 
 import neon.input.InputSystem;
 import neon.physics.Vector2D;
+import neon.profiling.ContentsLostEvent;
+import neon.profiling.FrameEvent;
+import neon.rendering.DirtyRegionTracker;
+import neon.rendering.RenderLayer;
 import neon.utils.GeneralUtils;
 import neon.utils.OsType;
 
@@ -21,10 +26,9 @@ import neon.utils.OsType;
 public class NeonEngine extends Canvas implements Runnable {
   @Serial private static final long serialVersionUID = 1L;
   private static final NeonEngine instance = new NeonEngine();
-  private static GameSettings settings;
-  private static boolean doLoop = true;
   private static JFrame frame;
-  private Game game;
+  private EngineContext context;
+  private int bufferAge = 1;
 
   /**
    * Creates a window for the game and initializes the engine.
@@ -54,30 +58,53 @@ public class NeonEngine extends Canvas implements Runnable {
       frame.setVisible(true);
 
       instance.createBufferStrategy(windowSettings.bufferCount);
+      instance.bufferAge = getBufferAge(instance.getBufferStrategy(), windowSettings.bufferCount);
     }
 
-    Runtime.getRuntime()
-        .addShutdownHook(
-            new Thread(
-                () -> {
-                  terminate();
-                  game.onExit();
-                }));
+    EngineContext context = new EngineContext(game, settings);
+    Runtime.getRuntime().addShutdownHook(new Thread(context::exit));
 
-    instance.game = game;
-    NeonEngine.settings = settings;
+    instance.context = context;
+    EngineContext.setDefault(context);
 
-    instance.addMouseListener(new InputSystem.MouseInput());
-    instance.addKeyListener(new InputSystem.KeyInput());
+    if (!settings.isHeadless()) {
+      instance.addMouseListener(new InputSystem.MouseInput());
+      instance.addKeyListener(new InputSystem.KeyInput());
+    }
 
-    game.init();
+    context.init();
 
     instance.start();
   }
 
-  /** @return the game settings */
+  /**
+   * @return how many frames old the contents of a back buffer are when it is drawn to, or 0 if
+   *     its contents are not kept
+   */
+  private static int getBufferAge(BufferStrategy bufferStrategy, int bufferCount) {
+    BufferCapabilities capabilities = bufferStrategy.getCapabilities();
+    if (!capabilities.isPageFlipping()
+        || capabilities.getFlipContents() == BufferCapabilities.FlipContents.COPIED) {
+      return 1;
+    }
+    return capabilities.getFlipContents() == BufferCapabilities.FlipContents.PRIOR
+        ? bufferCount
+        : 0;
+  }
+
+  /** @return the game settings of the current engine context */
   public static GameSettings getSettings() {
-    return settings;
+    EngineContext context = EngineContext.current();
+    return context == null ? null : context.getSettings();
+  }
+
+  /**
+   * @return the timing metrics of the game loop of the current engine context, or null if there is
+   *     no context
+   */
+  public static EngineMetrics getMetrics() {
+    EngineContext context = EngineContext.current();
+    return context == null ? null : context.getMetrics();
   }
 
   /**
@@ -107,98 +134,203 @@ public class NeonEngine extends Canvas implements Runnable {
     }
   }
 
-  /** Terminates the game loop. */
+  /** Terminates the game loop of the current engine context, if there is one. */
   public static void terminate() {
-    doLoop = false;
+    EngineContext context = EngineContext.current();
+    if (context != null) {
+      context.terminate();
+    }
   }
 
   /** WARNING: Do not call this method. It is only to be called by core library classes. */
   @Override
   public void run() {
+    if (context.getSettings().isHeadless()) {
+      context.run();
+      return;
+    }
+
+    updateInput();
+    context.setTickTime(System.nanoTime());
+
+    if (context.getSettings().doSeparateRenderThread) {
+      new Thread(() -> runLoop(false, true), "Neon Render Thread").start();
+      runLoop(true, false);
+    } else {
+      runLoop(true, true);
+    }
+  }
+
+  private void runLoop(boolean doTick, boolean doRender) {
     try {
-      updateInput();
+      GameSettings settings = context.getSettings();
+      EngineMetrics metrics = context.getMetrics();
 
       // Initialize timing
-      double initialTime = System.nanoTime();
-      double tickDelta = 0;
-      double frameDelta = 0;
+      FramePacer pacer = new FramePacer(settings.pacingStrategy);
+      long tickInterval = (long) (1e9 / settings.tickRate);
+      long frameInterval = (long) (1e9 / settings.frameRate);
+      long previousTime = System.nanoTime();
+      long tickAccumulator = 0;
+      long frameAccumulator = 0;
 
-      while (doLoop) {
+      while (context.isRunning()) {
         // Handle timing
-        double currentTime = System.nanoTime();
-        double secondDifference = (currentTime - initialTime) / 1e9;
-        tickDelta += secondDifference * settings.tickRate;
-        frameDelta += secondDifference * settings.frameRate;
-        initialTime = currentTime;
-
-        if (tickDelta >= 1) {
-          game.tick();
-          tickDelta--;
-        }
+        long currentTime = System.nanoTime();
+        long elapsedTime = currentTime - previousTime;
+        tickAccumulator += elapsedTime;
+        frameAccumulator += elapsedTime;
+        previousTime = currentTime;
+
+        if (doTick) {
+          if (!doRender && tickAccumulator >= tickInterval) {
+            updateInput();
+          }
 
-        if (frameDelta >= 1) {
-          updateFrame();
-          frameDelta--;
+          // Catch up on missed ticks, dropping the backlog if it cannot be caught up to avoid a
+          // spiral of death
+          int tickCount = 0;
+          while (tickAccumulator >= tickInterval && tickCount < settings.maxCatchUpTicks) {
+            context.runTick(tickCount);
+            tickAccumulator -= tickInterval;
+            tickCount++;
+          }
+          if (tickAccumulator >= tickInterval) {
+            metrics.recordMissedTicks(tickAccumulator / tickInterval);
+            tickAccumulator %= tickInterval;
+          }
+          context.setTickTime(currentTime - tickAccumulator);
         }
 
-        if (settings.doSleepThread) {
-          try {
-            // noinspection BusyWait
-            Thread.sleep(
-                (long)
-                    (Math.min(
-                            (1 - tickDelta) * (1e9 / settings.tickRate),
-                            (1 - frameDelta) * (1e9 / settings.frameRate))
-                        / 1e6));
-          } catch (Exception ex) {
-            // Ignore
+        if (doRender && frameAccumulator >= frameInterval) {
+          updateFrame(Math.min((double) (currentTime - context.getTickTime()) / tickInterval, 1));
+          if (frameAccumulator >= frameInterval * 2) {
+            metrics.recordMissedFrames(frameAccumulator / frameInterval - 1);
           }
+          frameAccumulator %= frameInterval;
         }
+
+        pacer.waitUntil(
+            currentTime
+                + Math.min(
+                    doTick ? tickInterval - tickAccumulator : Long.MAX_VALUE,
+                    doRender ? frameInterval - frameAccumulator : Long.MAX_VALUE));
       }
     } catch (Exception ex) {
       ex.printStackTrace();
     }
   }
 
-  private void updateFrame() {
-    updateInput();
+  private void updateFrame(double alpha) {
+    GameSettings settings = context.getSettings();
+    EngineMetrics metrics = context.getMetrics();
+    Game game = context.getGame();
+    long frameStartTime = System.nanoTime();
+    FrameEvent frameEvent = new FrameEvent();
+    frameEvent.alpha = alpha;
+    frameEvent.begin();
+    if (!settings.doSeparateRenderThread) {
+      updateInput();
+    }
 
     // Render
-    if (settings.windowSettings != null) {
+    WindowSettings windowSettings = settings.windowSettings;
+    DirtyRegionTracker tracker =
+        windowSettings == null || windowSettings.doClearFrames
+            ? null
+            : context.getDirtyRegionTracker();
+    RenderLayer[] layers = windowSettings == null ? null : context.getRenderLayerArray();
+    boolean hasLayerChanged = false;
+    if (layers != null) {
+      for (RenderLayer layer : layers) {
+        hasLayerChanged |= layer.update();
+      }
+    }
+    if (tracker != null) {
+      tracker.setBufferAge(bufferAge);
+      if (hasLayerChanged) {
+        tracker.markDirty(0, 0, windowSettings.width, windowSettings.height);
+      }
+    }
+
+    // If nothing changed, the frame on screen is already up to date
+    if (windowSettings != null && (tracker == null || tracker.update())) {
       BufferStrategy bufferStrategy = getBufferStrategy();
-      Graphics graphics = bufferStrategy.getDrawGraphics();
+      boolean isContentsLost;
       do {
+        long renderStartTime = System.nanoTime();
+        Graphics graphics = bufferStrategy.getDrawGraphics();
         try {
-          WindowSettings windowSettings = settings.windowSettings;
           if (windowSettings.doClearFrames) {
             graphics.clearRect(0, 0, windowSettings.width, windowSettings.height);
           }
-          game.render(graphics);
+          if (tracker == null) {
+            render(graphics, alpha, layers);
+          } else {
+            if (bufferStrategy.contentsRestored()) {
+              tracker.markAllDirty();
+            }
+            for (int i = 0; i < tracker.getRectangleCount(); i++) {
+              tracker.clip(graphics, i);
+              render(graphics, alpha, layers);
+            }
+          }
         } finally {
-          assert graphics != null;
           graphics.dispose();
         }
+        metrics.record(FramePhase.RENDER, renderStartTime);
+
+        long showStartTime = System.nanoTime();
         bufferStrategy.show();
-      } while (bufferStrategy.contentsLost());
-    } else {
-      game.render(null);
+        isContentsLost = bufferStrategy.contentsLost();
+        metrics.record(FramePhase.SHOW, showStartTime);
+        if (isContentsLost) {
+          if (tracker != null) {
+            tracker.markAllDirty();
+          }
+          metrics.recordContentsLost();
+          new ContentsLostEvent().commit();
+        }
+      } while (isContentsLost);
+    } else if (windowSettings == null) {
+      long renderStartTime = System.nanoTime();
+      game.render(null, alpha);
+      metrics.record(FramePhase.RENDER, renderStartTime);
+    }
+    frameEvent.commit();
+    metrics.record(FramePhase.FRAME, frameStartTime);
+  }
+
+  /** Renders the game between the layers behind it and the layers in front of it. */
+  private void render(Graphics graphics, double alpha, RenderLayer[] layers) {
+    int index = 0;
+    while (index < layers.length && layers[index].getDepth() < 0) {
+      layers[index++].draw(graphics);
+    }
+    context.getGame().render(graphics, alpha);
+    while (index < layers.length) {
+      layers[index++].draw(graphics);
     }
   }
 
   private void updateInput() {
+    long inputStartTime = System.nanoTime();
+
     // Inputs
     try {
       Point location = MouseInfo.getPointerInfo().getLocation();
       InputSystem.setRawMousePosition(new Vector2D(location));
 
+      Point positionOnScreen = getPositionOnScreen();
       Vector2D vector =
-          InputSystem.getRawMousePosition().safeSubtract(new Vector2D(getPositionOnScreen()));
+          new Vector2D(location.x - positionOnScreen.x, location.y - positionOnScreen.y);
       vector.convertCoordinateSystem();
       InputSystem.setMousePosition(vector);
     } catch (Exception ex) {
       // Ignore
     }
     InputSystem.update();
+    context.getMetrics().record(FramePhase.INPUT, inputStartTime);
   }
 
   private void start() {
@@ -0,0 +1,11 @@
+package neon.critical;
+
+/** An enum containing the strategies the game loop can use to wait for its next tick or frame. */
+public enum PacingStrategy {
+  /** Parks the thread until the deadline. Uses the least CPU but is the least precise. */
+  SLEEP,
+  /** Parks the thread until shortly before the deadline and spins for the remaining time. */
+  HYBRID,
+  /** Spins until the deadline. The most precise, but it keeps a CPU core fully busy. */
+  SPIN
+}
@@ -0,0 +1,64 @@
+package neon.critical;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A triple buffer used to hand game state from the tick thread to the render thread without
+ * locking or allocating. The tick thread writes into {@link #getWriteState()} and calls {@link
+ * #publish()}, while the render thread reads the most recently published state from {@link
+ * #getReadState()}.<br>
+ * After a publish, the write state is whichever of the three states is free, which is usually
+ * one published several times ago rather than the state that was just published. The tick thread
+ * must overwrite every field of the write state before publishing it, and must not rely on it
+ * containing the previous tick's values.
+ *
+ * @param <T> the type of the state
+ */
+public class StateBuffer<T> {
+  private static final int DIRTY_FLAG = 4;
+  private static final int INDEX_MASK = 3;
+  private final Object[] states = new Object[3];
+  private final AtomicInteger sharedIndex = new AtomicInteger(2);
+  private int writeIndex;
+  private int readIndex = 1;
+
+  /** @param factory a function used to create each of the three buffered states */
+  public StateBuffer(Supplier<T> factory) {
+    for (int i = 0; i < states.length; i++) {
+      states[i] = factory.get();
+    }
+  }
+
+  /**
+   * Note: This method should only be called by the tick thread.
+   *
+   * @return the state that is currently being written to, whose contents are stale
+   */
+  @SuppressWarnings("unchecked")
+  public T getWriteState() {
+    return (T) states[writeIndex];
+  }
+
+  /**
+   * Makes the state that is currently being written to available to the render thread.<br>
+   * Note: This method should only be called by the tick thread.
+   */
+  public void publish() {
+    writeIndex = sharedIndex.getAndSet(writeIndex | DIRTY_FLAG) & INDEX_MASK;
+  }
+
+  /**
+   * Note: This method should only be called by the render thread.
+   *
+   * @return the most recently published state
+   */
+  @SuppressWarnings("unchecked")
+  public T getReadState() {
+    if ((sharedIndex.get() & DIRTY_FLAG) != 0) {
+      readIndex = sharedIndex.getAndSet(readIndex) & INDEX_MASK;
+    }
+
+    return (T) states[readIndex];
+  }
+}
@@ -0,0 +1,120 @@
+package neon.ecs;
+
+import java.util.Arrays;
+
+/**
+ * A table that stores every entity with exactly the same set of component types. Each dimension of
+ * each component is stored in its own primitive array, so systems can iterate over the entities of
+ * an archetype without following any pointers.<br>
+ * Note: The arrays are replaced when the archetype grows, so they should be fetched again after
+ * entities are created or moved.
+ */
+public class Archetype {
+  private final long mask;
+  private final double[][][] columns = new double[ComponentType.MAX_COUNT][][];
+  private int[] entities;
+  private int size;
+
+  Archetype(long mask) {
+    this.mask = mask;
+    entities = new int[16];
+    for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+      int id = Long.numberOfTrailingZeros(remaining);
+      double[][] column = new double[ComponentType.get(id).getDimensionCount()][];
+      for (int i = 0; i < column.length; i++) {
+        column[i] = new double[entities.length];
+      }
+      columns[id] = column;
+    }
+  }
+
+  /** @return the bit mask of the component types stored in the archetype */
+  public long getMask() {
+    return mask;
+  }
+
+  /**
+   * @param types the bit mask of the component types
+   * @return whether the archetype contains all of the component types
+   */
+  public boolean hasComponents(long types) {
+    return (mask & types) == types;
+  }
+
+  /** @return the number of entities in the archetype */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Only the first {@link #getSize()} values are valid.
+   *
+   * @return the entities in the archetype by row
+   */
+  public int[] getEntities() {
+    return entities;
+  }
+
+  /**
+   * Only the first {@link #getSize()} values are valid.
+   *
+   * @param type the component type
+   * @param dimension the index of the value within the component
+   * @return the values of the specified dimension of the component for every row
+   */
+  public double[] getColumn(ComponentType type, int dimension) {
+    return columns[type.getId()][dimension];
+  }
+
+  int addRow(int entity) {
+    if (size == entities.length) {
+      int capacity = entities.length * 2;
+      entities = Arrays.copyOf(entities, capacity);
+      for (double[][] column : columns) {
+        if (column != null) {
+          for (int i = 0; i < column.length; i++) {
+            column[i] = Arrays.copyOf(column[i], capacity);
+          }
+        }
+      }
+    }
+
+    entities[size] = entity;
+    return size++;
+  }
+
+  /**
+   * Removes a row by moving the last row into its place.
+   *
+   * @return the entity that was moved into the removed row, or -1 if no entity was moved
+   */
+  int removeRow(int row) {
+    int lastRow = --size;
+    if (row == lastRow) {
+      return -1;
+    }
+
+    entities[row] = entities[lastRow];
+    for (double[][] column : columns) {
+      if (column != null) {
+        for (double[] values : column) {
+          values[row] = values[lastRow];
+        }
+      }
+    }
+    return entities[row];
+  }
+
+  /** Copies the components shared by both archetypes from one row to another. */
+  void copyRow(int row, Archetype destination, int destinationRow) {
+    for (int id = 0; id < columns.length; id++) {
+      double[][] column = columns[id];
+      double[][] destinationColumn = destination.columns[id];
+      if (column != null && destinationColumn != null) {
+        for (int i = 0; i < column.length; i++) {
+          destinationColumn[i][destinationRow] = column[i][row];
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package neon.ecs;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A type of component that entities can have. Each component consists of a fixed number of double
+ * values, which are stored in one primitive array per dimension.
+ */
+public final class ComponentType {
+  /** The maximum number of component types that can exist. */
+  public static final int MAX_COUNT = 64;
+
+  private static final AtomicInteger nextId = new AtomicInteger();
+  private static final ComponentType[] types = new ComponentType[MAX_COUNT];
+
+  /** The center of the entity, with an x and y dimension. */
+  public static final ComponentType POSITION = new ComponentType("position", 2);
+
+  /** The distance the entity moves every tick, with an x and y dimension. */
+  public static final ComponentType VELOCITY = new ComponentType("velocity", 2);
+
+  /** The width and height of the entity. */
+  public static final ComponentType SIZE = new ComponentType("size", 2);
+
+  private final String name;
+  private final int dimensionCount;
+  private final int id;
+
+  /**
+   * @param name the name of the component type
+   * @param dimensionCount the number of values the component consists of
+   * @throws IllegalStateException if the maximum number of component types has been reached
+   */
+  public ComponentType(String name, int dimensionCount) throws IllegalStateException {
+    int id = nextId.getAndIncrement();
+    if (id >= MAX_COUNT) {
+      throw new IllegalStateException("No more than " + MAX_COUNT + " component types can exist.");
+    }
+
+    this.name = name;
+    this.dimensionCount = dimensionCount;
+    this.id = id;
+    types[id] = this;
+  }
+
+  static ComponentType get(int id) {
+    return types[id];
+  }
+
+  /**
+   * @param types the component types
+   * @return a bit mask containing the component types
+   */
+  public static long getMask(ComponentType... types) {
+    long mask = 0;
+    for (ComponentType type : types) {
+      mask |= type.getMask();
+    }
+    return mask;
+  }
+
+  /** @return the name of the component type */
+  public String getName() {
+    return name;
+  }
+
+  /** @return the number of values the component consists of */
+  public int getDimensionCount() {
+    return dimensionCount;
+  }
+
+  /** @return the unique index of the component type */
+  public int getId() {
+    return id;
+  }
+
+  /** @return a bit mask containing only this component type */
+  public long getMask() {
+    return 1L << id;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
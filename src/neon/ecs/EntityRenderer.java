@@ -0,0 +1,43 @@
+package neon.ecs;
+
+import java.awt.Color;
+import java.awt.Graphics;
+
+import neon.rendering.RenderSystem;
+
+/** A class used to render entities with a position and a size. */
+public class EntityRenderer {
+  private static final long BOUNDS_MASK =
+      ComponentType.getMask(ComponentType.POSITION, ComponentType.SIZE);
+
+  /**
+   * Draws every entity that has a position, a size and the specified component types as a
+   * rectangle, skipping entities that are out of view.
+   *
+   * @param graphics the graphics object used to draw the game's graphics
+   * @param world the entity world
+   * @param types the bit mask of additional component types the drawn entities must have
+   * @param color the color of the rectangles
+   * @param doFill whether the rectangles should be filled
+   */
+  public static void drawRectangles(
+      Graphics graphics, EntityWorld world, long types, Color color, boolean doFill) {
+    graphics.setColor(color);
+    for (Archetype archetype : world.getArchetypes(types | BOUNDS_MASK)) {
+      double[] x = archetype.getColumn(ComponentType.POSITION, 0);
+      double[] y = archetype.getColumn(ComponentType.POSITION, 1);
+      double[] width = archetype.getColumn(ComponentType.SIZE, 0);
+      double[] height = archetype.getColumn(ComponentType.SIZE, 1);
+      for (int i = 0, size = archetype.getSize(); i < size; i++) {
+        double halfWidth = width[i] / 2;
+        double halfHeight = height[i] / 2;
+        if (x[i] + halfWidth >= 0
+            && x[i] - halfWidth <= 1
+            && y[i] + halfHeight >= 0
+            && y[i] - halfHeight <= 1) {
+          RenderSystem.drawRectangle(graphics, x[i], y[i], width[i], height[i], doFill);
+        }
+      }
+    }
+  }
+}
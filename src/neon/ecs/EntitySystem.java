@@ -0,0 +1,11 @@
+package neon.ecs;
+
+/** An interface for systems that update the entities of an entity world every tick. */
+public interface EntitySystem {
+  /**
+   * A method called every time the entity world is updated.
+   *
+   * @param world the entity world
+   */
+  void update(EntityWorld world);
+}
@@ -0,0 +1,302 @@
+package neon.ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+import neon.physics.Hitbox;
+import neon.physics.RectangularHitbox;
+import neon.physics.Vector2D;
+
+/**
+ * A collection of entities and the systems that update them. Entities are integer IDs whose
+ * components are stored in archetypes, grouped by the set of component types each entity has.<br>
+ * Note: This class is not thread-safe. Systems run in parallel by a {@link SystemScheduler} may
+ * read and write component values, but must not create or destroy entities or add or remove
+ * components.
+ */
+public class EntityWorld {
+  private static final long BOUNDS_MASK =
+      ComponentType.getMask(ComponentType.POSITION, ComponentType.SIZE);
+  private final List<Archetype> archetypes = new ArrayList<>();
+  private final Map<Long, Archetype> archetypesByMask = new HashMap<>();
+  private final Map<Long, List<Archetype>> queries = new ConcurrentHashMap<>();
+  private final List<EntitySystem> systems = new ArrayList<>();
+  private Archetype[] entityArchetypes = new Archetype[64];
+  private int[] entityRows = new int[64];
+  private int[] freeEntities = new int[16];
+  private int freeEntityCount;
+  private int nextEntity;
+  private int entityCount;
+
+  /**
+   * Creates an entity. The values of its components are initialized to 0.
+   *
+   * @param types the component types of the entity
+   * @return the entity
+   */
+  public int createEntity(ComponentType... types) {
+    int entity;
+    if (freeEntityCount > 0) {
+      entity = freeEntities[--freeEntityCount];
+    } else {
+      entity = nextEntity++;
+      if (entity == entityArchetypes.length) {
+        entityArchetypes = Arrays.copyOf(entityArchetypes, entity * 2);
+        entityRows = Arrays.copyOf(entityRows, entity * 2);
+      }
+    }
+
+    Archetype archetype = getArchetype(ComponentType.getMask(types));
+    entityArchetypes[entity] = archetype;
+    entityRows[entity] = archetype.addRow(entity);
+    clearRow(archetype, entityRows[entity], archetype.getMask());
+    entityCount++;
+    return entity;
+  }
+
+  /**
+   * Destroys an entity. Its ID may be reused by entities created afterwards.
+   *
+   * @param entity the entity
+   */
+  public void destroyEntity(int entity) {
+    assert isAlive(entity);
+    removeRow(entityArchetypes[entity], entityRows[entity]);
+    entityArchetypes[entity] = null;
+    if (freeEntityCount == freeEntities.length) {
+      freeEntities = Arrays.copyOf(freeEntities, freeEntityCount * 2);
+    }
+    freeEntities[freeEntityCount++] = entity;
+    entityCount--;
+  }
+
+  /**
+   * @param entity the entity
+   * @return whether the entity exists
+   */
+  public boolean isAlive(int entity) {
+    return entity >= 0 && entity < nextEntity && entityArchetypes[entity] != null;
+  }
+
+  /** @return the number of entities that exist */
+  public int getEntityCount() {
+    return entityCount;
+  }
+
+  /**
+   * @param entity the entity
+   * @param type the component type
+   * @return whether the entity has a component of the specified type
+   */
+  public boolean hasComponent(int entity, ComponentType type) {
+    return entityArchetypes[entity].hasComponents(type.getMask());
+  }
+
+  /**
+   * Adds a component to an entity, moving it to another archetype. The values of the component are
+   * initialized to 0.
+   *
+   * @param entity the entity
+   * @param type the component type
+   */
+  public void addComponent(int entity, ComponentType type) {
+    Archetype archetype = entityArchetypes[entity];
+    if (!archetype.hasComponents(type.getMask())) {
+      int row = moveEntity(entity, getArchetype(archetype.getMask() | type.getMask()));
+      clearRow(entityArchetypes[entity], row, type.getMask());
+    }
+  }
+
+  /**
+   * Removes a component from an entity, moving it to another archetype.
+   *
+   * @param entity the entity
+   * @param type the component type
+   */
+  public void removeComponent(int entity, ComponentType type) {
+    Archetype archetype = entityArchetypes[entity];
+    if (archetype.hasComponents(type.getMask())) {
+      moveEntity(entity, getArchetype(archetype.getMask() & ~type.getMask()));
+    }
+  }
+
+  /**
+   * @param entity the entity
+   * @param type the component type
+   * @param dimension the index of the value within the component
+   * @return the value
+   */
+  public double getValue(int entity, ComponentType type, int dimension) {
+    return entityArchetypes[entity].getColumn(type, dimension)[entityRows[entity]];
+  }
+
+  /**
+   * Sets a value of an entity's component.
+   *
+   * @param entity the entity
+   * @param type the component type
+   * @param dimension the index of the value within the component
+   * @param value the new value
+   */
+  public void setValue(int entity, ComponentType type, int dimension, double value) {
+    entityArchetypes[entity].getColumn(type, dimension)[entityRows[entity]] = value;
+  }
+
+  /**
+   * Sets both values of an entity's two-dimensional component.
+   *
+   * @param entity the entity
+   * @param type the component type
+   * @param x the first value
+   * @param y the second value
+   */
+  public void set(int entity, ComponentType type, double x, double y) {
+    Archetype archetype = entityArchetypes[entity];
+    int row = entityRows[entity];
+    archetype.getColumn(type, 0)[row] = x;
+    archetype.getColumn(type, 1)[row] = y;
+  }
+
+  /**
+   * @param entity an entity with a position and a size
+   * @return a hitbox matching the entity's current bounds
+   */
+  public RectangularHitbox getHitbox(int entity) {
+    return new RectangularHitbox(
+        new Vector2D(
+            getValue(entity, ComponentType.POSITION, 0),
+            getValue(entity, ComponentType.POSITION, 1)),
+        getValue(entity, ComponentType.SIZE, 0),
+        getValue(entity, ComponentType.SIZE, 1));
+  }
+
+  /**
+   * Finds every entity with a position and a size whose bounds intersect the hitbox's bounds.
+   *
+   * @param hitbox the hitbox
+   * @param consumer a function called with each intersecting entity
+   */
+  public void findIntersectingEntities(Hitbox hitbox, IntConsumer consumer) {
+    double lowX = hitbox.getLowerXBound();
+    double highX = hitbox.getHigherXBound();
+    double lowY = hitbox.getLowerYBound();
+    double highY = hitbox.getHigherYBound();
+    for (Archetype archetype : getArchetypes(BOUNDS_MASK)) {
+      double[] x = archetype.getColumn(ComponentType.POSITION, 0);
+      double[] y = archetype.getColumn(ComponentType.POSITION, 1);
+      double[] width = archetype.getColumn(ComponentType.SIZE, 0);
+      double[] height = archetype.getColumn(ComponentType.SIZE, 1);
+      int[] entities = archetype.getEntities();
+      for (int i = 0, size = archetype.getSize(); i < size; i++) {
+        double halfWidth = width[i] / 2;
+        double halfHeight = height[i] / 2;
+        if (x[i] - halfWidth < highX
+            && x[i] + halfWidth > lowX
+            && y[i] - halfHeight < highY
+            && y[i] + halfHeight > lowY) {
+          consumer.accept(entities[i]);
+        }
+      }
+    }
+  }
+
+  /**
+   * The returned list is cached and updated as new archetypes are created, so it should not be
+   * modified. This method may be called from several threads at once, as long as no entities are
+   * created or moved meanwhile.
+   *
+   * @param types the bit mask of the required component types
+   * @return every archetype containing all of the required component types
+   */
+  public List<Archetype> getArchetypes(long types) {
+    List<Archetype> result = queries.get(types);
+    if (result == null) {
+      result =
+          queries.computeIfAbsent(
+              types,
+              key -> {
+                List<Archetype> matches = new ArrayList<>();
+                for (Archetype archetype : archetypes) {
+                  if (archetype.hasComponents(key)) {
+                    matches.add(archetype);
+                  }
+                }
+                return matches;
+              });
+    }
+    return result;
+  }
+
+  /**
+   * Adds a system to be run every time the world is updated. Systems run in the order they were
+   * added.
+   *
+   * @param system the system
+   */
+  public void addSystem(EntitySystem system) {
+    systems.add(system);
+  }
+
+  /**
+   * Removes a system.
+   *
+   * @param system the system
+   */
+  public void removeSystem(EntitySystem system) {
+    systems.remove(system);
+  }
+
+  /** Runs every system. This method is usually called from {@link neon.critical.Game#tick()}. */
+  public void update() {
+    for (EntitySystem system : systems) {
+      system.update(this);
+    }
+  }
+
+  private Archetype getArchetype(long mask) {
+    Archetype archetype = archetypesByMask.get(mask);
+    if (archetype == null) {
+      archetype = new Archetype(mask);
+      archetypes.add(archetype);
+      archetypesByMask.put(mask, archetype);
+      for (Map.Entry<Long, List<Archetype>> query : queries.entrySet()) {
+        if (archetype.hasComponents(query.getKey())) {
+          query.getValue().add(archetype);
+        }
+      }
+    }
+    return archetype;
+  }
+
+  private int moveEntity(int entity, Archetype destination) {
+    Archetype source = entityArchetypes[entity];
+    int sourceRow = entityRows[entity];
+    int row = destination.addRow(entity);
+    source.copyRow(sourceRow, destination, row);
+    removeRow(source, sourceRow);
+    entityArchetypes[entity] = destination;
+    entityRows[entity] = row;
+    return row;
+  }
+
+  private void removeRow(Archetype archetype, int row) {
+    int movedEntity = archetype.removeRow(row);
+    if (movedEntity != -1) {
+      entityRows[movedEntity] = row;
+    }
+  }
+
+  private static void clearRow(Archetype archetype, int row, long types) {
+    for (long remaining = types; remaining != 0; remaining &= remaining - 1) {
+      ComponentType type = ComponentType.get(Long.numberOfTrailingZeros(remaining));
+      for (int i = 0; i < type.getDimensionCount(); i++) {
+        archetype.getColumn(type, i)[row] = 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package neon.ecs;
+
+/** A system that moves every entity with a position and a velocity by its velocity. */
+public class MovementSystem implements EntitySystem {
+  private static final long MASK =
+      ComponentType.getMask(ComponentType.POSITION, ComponentType.VELOCITY);
+
+  @Override
+  public void update(EntityWorld world) {
+    for (Archetype archetype : world.getArchetypes(MASK)) {
+      double[] x = archetype.getColumn(ComponentType.POSITION, 0);
+      double[] y = archetype.getColumn(ComponentType.POSITION, 1);
+      double[] velocityX = archetype.getColumn(ComponentType.VELOCITY, 0);
+      double[] velocityY = archetype.getColumn(ComponentType.VELOCITY, 1);
+      for (int i = 0, size = archetype.getSize(); i < size; i++) {
+        x[i] += velocityX[i];
+        y[i] += velocityY[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package neon.ecs;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import neon.critical.EngineContext;
+
+/**
+ * A class used to run entity systems in parallel. Each system declares which component types it
+ * reads and writes. Systems are grouped into stages so that no two systems in the same stage
+ * conflict; the systems within a stage run in parallel, while stages run one after another. Two
+ * conflicting systems therefore always run in the order they were added, which keeps the results
+ * deterministic.<br>
+ * Component types with no dimensions can be used to declare access to state outside of the entity
+ * world.
+ */
+public class SystemScheduler {
+  private final ForkJoinPool pool;
+  private final List<Stage> stages = new ArrayList<>();
+
+  /** Creates a scheduler that runs systems on the common fork-join pool. */
+  public SystemScheduler() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /** @param pool the pool the systems are run on */
+  public SystemScheduler(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Adds a system to be run every time the scheduler is updated.
+   *
+   * @param system the system
+   * @param reads the bit mask of the component types the system reads
+   * @param writes the bit mask of the component types the system writes
+   */
+  public void addSystem(EntitySystem system, long reads, long writes) {
+    // Place the system in the first stage after the last stage it conflicts with
+    int stageIndex = 0;
+    for (int i = stages.size() - 1; i >= 0; i--) {
+      if (stages.get(i).doesConflict(reads, writes)) {
+        stageIndex = i + 1;
+        break;
+      }
+    }
+    if (stageIndex == stages.size()) {
+      stages.add(new Stage());
+    }
+
+    Stage stage = stages.get(stageIndex);
+    stage.systems.add(system);
+    stage.reads |= reads;
+    stage.writes |= writes;
+  }
+
+  /** @return the number of stages the systems were grouped into */
+  public int getStageCount() {
+    return stages.size();
+  }
+
+  /**
+   * Runs every system. This method is usually called from {@link neon.critical.Game#tick()}.
+   *
+   * @param world the entity world
+   */
+  public void update(EntityWorld world) {
+    EngineContext context = EngineContext.current();
+    for (Stage stage : stages) {
+      if (stage.systems.size() == 1) {
+        stage.systems.get(0).update(world);
+      } else {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(stage.systems.size());
+        for (EntitySystem system : stage.systems) {
+          tasks.add(ForkJoinTask.adapt(bind(context, () -> system.update(world))));
+        }
+        invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+      }
+    }
+  }
+
+  /**
+   * Runs a function over the rows of every archetype containing the specified component types,
+   * splitting the rows into chunks that are processed in parallel. The function must only write to
+   * the rows it is given.
+   *
+   * @param world the entity world
+   * @param types the bit mask of the required component types
+   * @param chunkSize the maximum number of rows processed by a single task
+   * @param consumer the function called with each chunk of rows
+   */
+  public void forEachParallel(
+      EntityWorld world, long types, int chunkSize, RowRangeConsumer consumer) {
+    EngineContext context = EngineContext.current();
+    List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    for (Archetype archetype : world.getArchetypes(types)) {
+      if (archetype.getSize() > 0) {
+        tasks.add(
+            new RowRangeTask(
+                context, archetype, 0, archetype.getSize(), Math.max(chunkSize, 1), consumer));
+      }
+    }
+    invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+  }
+
+  private void invoke(ForkJoinTask<?> task) {
+    if (ForkJoinTask.inForkJoinPool()) {
+      task.invoke();
+    } else {
+      pool.invoke(task);
+    }
+  }
+
+  private static Runnable bind(EngineContext context, Runnable action) {
+    return context == null ? action : () -> context.execute(action);
+  }
+
+  /** A function that processes a range of rows of an archetype. */
+  @FunctionalInterface
+  public interface RowRangeConsumer {
+    /**
+     * @param archetype the archetype
+     * @param start the first row (inclusive)
+     * @param end the last row (exclusive)
+     */
+    void accept(Archetype archetype, int start, int end);
+  }
+
+  private static class Stage {
+    private final List<EntitySystem> systems = new ArrayList<>();
+    private long reads;
+    private long writes;
+
+    private boolean doesConflict(long reads, long writes) {
+      return (this.writes & (reads | writes)) != 0 || (this.reads & writes) != 0;
+    }
+  }
+
+  private static class RowRangeTask extends RecursiveAction {
+    @Serial private static final long serialVersionUID = 1L;
+    private final EngineContext context;
+    private final Archetype archetype;
+    private final int start;
+    private final int end;
+    private final int chunkSize;
+    private final RowRangeConsumer consumer;
+
+    private RowRangeTask(
+        EngineContext context,
+        Archetype archetype,
+        int start,
+        int end,
+        int chunkSize,
+        RowRangeConsumer consumer) {
+      this.context = context;
+      this.archetype = archetype;
+      this.start = start;
+      this.end = end;
+      this.chunkSize = chunkSize;
+      this.consumer = consumer;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= chunkSize) {
+        bind(context, () -> consumer.accept(archetype, start, end)).run();
+      } else {
+        int middle = (start + end) >>> 1;
+        invokeAll(
+            new RowRangeTask(context, archetype, start, middle, chunkSize, consumer),
+            new RowRangeTask(context, archetype, middle, end, chunkSize, consumer));
+      }
+    }
+  }
+}
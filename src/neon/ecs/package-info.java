@@ -0,0 +1,2 @@
+/** A package that contains the code for the game library's entity-component-system. */
+package neon.ecs;
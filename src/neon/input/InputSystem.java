@@ -8,31 +8,44 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import neon.critical.EngineContext;
 import neon.physics.Vector2D;
+import neon.profiling.InputBatchEvent;
 
-/** A class used to get user input. */
+/**
+ * A class used to get user input. Each engine context has its own input system, and the static
+ * methods of this class operate on the input system of the current context. If there is no
+ * context, the getters return null or false and the other methods do nothing.
+ */
 public class InputSystem {
-  private static final ArrayList<KeyInteraction> keyPressQueue = new ArrayList<>();
-  private static final ArrayList<KeyInteraction> keyReleaseQueue = new ArrayList<>();
-  private static final ArrayList<KeyInteraction> keyTypeQueue = new ArrayList<>();
-  private static final ArrayList<KeyInteraction> keyHeldQueue = new ArrayList<>();
-  private static final List<MouseInteraction> mousePressQueue = new ArrayList<>();
-  private static final List<MouseInteraction> mouseReleaseQueue = new ArrayList<>();
-  private static boolean isLeftMouseButtonHeld;
-  private static boolean isMiddleMouseButtonHeld;
-  private static boolean isRightMouseButtonHeld;
-  private static boolean isOtherMouseButtonHeld;
-  private static Vector2D rawMousePosition;
-  private static Vector2D mousePosition;
-  private static KeyInteraction[] keyPresses;
-  private static KeyInteraction[] keyReleases;
-  private static KeyInteraction[] keysTyped;
-  private static KeyInteraction[] keysHeld;
-  private static MouseInteraction[] mousePresses;
-  private static MouseInteraction[] mouseReleases;
+  private final ArrayList<KeyInteraction> keyPressQueue = new ArrayList<>();
+  private final ArrayList<KeyInteraction> keyReleaseQueue = new ArrayList<>();
+  private final ArrayList<KeyInteraction> keyTypeQueue = new ArrayList<>();
+  private final ArrayList<KeyInteraction> keyHeldQueue = new ArrayList<>();
+  private final List<MouseInteraction> mousePressQueue = new ArrayList<>();
+  private final List<MouseInteraction> mouseReleaseQueue = new ArrayList<>();
+  private boolean isLeftMouseButtonHeld;
+  private boolean isMiddleMouseButtonHeld;
+  private boolean isRightMouseButtonHeld;
+  private boolean isOtherMouseButtonHeld;
+  private Vector2D rawMousePosition;
+  private Vector2D mousePosition;
+  private KeyInteraction[] keyPresses;
+  private KeyInteraction[] keyReleases;
+  private KeyInteraction[] keysTyped;
+  private KeyInteraction[] keysHeld;
+  private MouseInteraction[] mousePresses;
+  private MouseInteraction[] mouseReleases;
 
   /** WARNING: Do not call this method. It is only to be called by core library classes. */
   public static void update() {
+    InputSystem inputSystem = current();
+    if (inputSystem != null) {
+      inputSystem.updateQueues();
+    }
+  }
+
+  private void updateQueues() {
     keyPresses = keyPressQueue.toArray(new KeyInteraction[0]);
     keyPressQueue.clear();
     keyReleases = keyReleaseQueue.toArray(new KeyInteraction[0]);
@@ -45,6 +58,16 @@ public class InputSystem {
     mousePressQueue.clear();
     mouseReleases = mouseReleaseQueue.toArray(new MouseInteraction[0]);
     mouseReleaseQueue.clear();
+
+    InputBatchEvent event = new InputBatchEvent();
+    if (event.shouldCommit()) {
+      event.keyPressCount = keyPresses.length;
+      event.keyReleaseCount = keyReleases.length;
+      event.keyTypeCount = keysTyped.length;
+      event.mousePressCount = mousePresses.length;
+      event.mouseReleaseCount = mouseReleases.length;
+      event.commit();
+    }
   }
 
   /**
@@ -53,7 +76,8 @@ public class InputSystem {
    * @return recent key presses
    */
   public static KeyInteraction[] getKeyPresses() {
-    return keyPresses;
+    InputSystem inputSystem = current();
+    return inputSystem == null ? null : inputSystem.keyPresses;
   }
 
   /**
@@ -62,7 +86,8 @@ public class InputSystem {
    * @return recent key releases
    */
   public static KeyInteraction[] getKeyReleases() {
-    return keyReleases;
+    InputSystem inputSystem = current();
+    return inputSystem == null ? null : inputSystem.keyReleases;
   }
 
   /**
@@ -71,7 +96,8 @@ public class InputSystem {
    * @return recent key types
    */
   public static KeyInteraction[] getKeysTyped() {
-    return keysTyped;
+    InputSystem inputSystem = current();
+    return inputSystem == null ? null : inputSystem.keysTyped;
   }
 
   /**
@@ -80,7 +106,8 @@ public class InputSystem {
    * @return keys held
    */
   public static KeyInteraction[] getKeysHeld() {
-    return keysHeld;
+    InputSystem inputSystem = current();
+    return inputSystem == null ? null : inputSystem.keysHeld;
   }
 
   /**
@@ -89,7 +116,8 @@ public class InputSystem {
    * @return the raw mouse position
    */
   public static Vector2D getRawMousePosition() {
-    return rawMousePosition;
+    InputSystem inputSystem = current();
+    return inputSystem == null ? null : inputSystem.rawMousePosition;
   }
 
   /**
@@ -98,7 +126,10 @@ public class InputSystem {
    * @param rawMousePosition the new raw mouse position
    */
   public static void setRawMousePosition(Vector2D rawMousePosition) {
-    InputSystem.rawMousePosition = rawMousePosition;
+    InputSystem inputSystem = current();
+    if (inputSystem != null) {
+      inputSystem.rawMousePosition = rawMousePosition;
+    }
   }
 
   /**
@@ -107,7 +138,8 @@ public class InputSystem {
    * @return the mouse position
    */
   public static Vector2D getMousePosition() {
-    return mousePosition;
+    InputSystem inputSystem = current();
+    return inputSystem == null ? null : inputSystem.mousePosition;
   }
 
   /**
@@ -116,7 +148,10 @@ public class InputSystem {
    * @param mousePosition the new mouse position
    */
   public static void setMousePosition(Vector2D mousePosition) {
-    InputSystem.mousePosition = mousePosition;
+    InputSystem inputSystem = current();
+    if (inputSystem != null) {
+      inputSystem.mousePosition = mousePosition;
+    }
   }
 
   /**
@@ -125,7 +160,8 @@ public class InputSystem {
    * @return recent mouse presses
    */
   public static MouseInteraction[] getMousePresses() {
-    return mousePresses;
+    InputSystem inputSystem = current();
+    return inputSystem == null ? null : inputSystem.mousePresses;
   }
 
   /**
@@ -134,27 +170,32 @@ public class InputSystem {
    * @return recent mouse releases
    */
   public static MouseInteraction[] getMouseReleases() {
-    return mouseReleases;
+    InputSystem inputSystem = current();
+    return inputSystem == null ? null : inputSystem.mouseReleases;
   }
 
   /** @return whether the left mouse button is currently being held */
   public static boolean isLeftMouseButtonHeld() {
-    return isLeftMouseButtonHeld;
+    InputSystem inputSystem = current();
+    return inputSystem != null && inputSystem.isLeftMouseButtonHeld;
   }
 
   /** @return whether the middle mouse button is currently being held */
   public static boolean isMiddleMouseButtonHeld() {
-    return isMiddleMouseButtonHeld;
+    InputSystem inputSystem = current();
+    return inputSystem != null && inputSystem.isMiddleMouseButtonHeld;
   }
 
   /** @return whether the right mouse button is currently being held */
   public static boolean isRightMouseButtonHeld() {
-    return isRightMouseButtonHeld;
+    InputSystem inputSystem = current();
+    return inputSystem != null && inputSystem.isRightMouseButtonHeld;
   }
 
   /** @return whether another mouse button is currently being held */
   public static boolean isOtherMouseButtonHeld() {
-    return isOtherMouseButtonHeld;
+    InputSystem inputSystem = current();
+    return inputSystem != null && inputSystem.isOtherMouseButtonHeld;
   }
 
   /**
@@ -162,7 +203,10 @@ public class InputSystem {
    * @return whether the key matching the character is currently being held
    */
   public static boolean isKeyHeld(char character) {
-    return Arrays.stream(keysHeld).anyMatch(x -> x.character == character);
+    InputSystem inputSystem = current();
+    return inputSystem != null
+        && inputSystem.keysHeld != null
+        && Arrays.stream(inputSystem.keysHeld).anyMatch(x -> x.character == character);
   }
 
   /**
@@ -170,17 +214,30 @@ public class InputSystem {
    * @return whether the key matching the key code is currently being held
    */
   public static boolean isKeyHeld(int keyCode) {
-    return Arrays.stream(keysHeld).anyMatch(x -> x.keyCode == keyCode);
+    InputSystem inputSystem = current();
+    return inputSystem != null && inputSystem.isKeyCodeHeld(keyCode);
+  }
+
+  private boolean isKeyCodeHeld(int keyCode) {
+    return keysHeld != null && Arrays.stream(keysHeld).anyMatch(x -> x.keyCode == keyCode);
+  }
+
+  /** @return the input system of the current engine context, or null if there is no context */
+  private static InputSystem current() {
+    EngineContext context = EngineContext.current();
+    return context == null ? null : context.getInputSystem();
   }
 
   /** WARNING: Do not use this class. It is only to be used by core library classes. */
   public static class MouseInput extends MouseAdapter {
-    private static void setMouseButtonHeld(MouseButtonType type, boolean value) {
+    private final InputSystem inputSystem = current();
+
+    private void setMouseButtonHeld(MouseButtonType type, boolean value) {
       switch (type) {
-        case LEFT -> isLeftMouseButtonHeld = value;
-        case MIDDLE -> isMiddleMouseButtonHeld = value;
-        case RIGHT -> isRightMouseButtonHeld = value;
-        case OTHER -> isOtherMouseButtonHeld = value;
+        case LEFT -> inputSystem.isLeftMouseButtonHeld = value;
+        case MIDDLE -> inputSystem.isMiddleMouseButtonHeld = value;
+        case RIGHT -> inputSystem.isRightMouseButtonHeld = value;
+        case OTHER -> inputSystem.isOtherMouseButtonHeld = value;
       }
     }
 
@@ -189,7 +246,7 @@ public class InputSystem {
     public void mousePressed(MouseEvent event) {
       MouseInteraction interaction = new MouseInteraction(event);
       setMouseButtonHeld(interaction.mouseButtonType, true);
-      mousePressQueue.add(interaction);
+      inputSystem.mousePressQueue.add(interaction);
     }
 
     /** WARNING: Do not call this method. It is only to be called by core library classes. */
@@ -197,33 +254,35 @@ public class InputSystem {
     public void mouseReleased(MouseEvent event) {
       MouseInteraction interaction = new MouseInteraction(event);
       setMouseButtonHeld(interaction.mouseButtonType, false);
-      mouseReleaseQueue.add(interaction);
+      inputSystem.mouseReleaseQueue.add(interaction);
     }
   }
 
   /** WARNING: Do not use this class. It is only to be used by core library classes. */
   public static class KeyInput extends KeyAdapter {
+    private final InputSystem inputSystem = current();
+
     /** WARNING: Do not call this method. It is only to be called by core library classes. */
     @Override
     public void keyPressed(KeyEvent event) {
       KeyInteraction interaction = new KeyInteraction(event);
-      keyPressQueue.add(interaction);
-      if (!isKeyHeld(event.getKeyCode())) {
-        keyHeldQueue.add(interaction);
+      inputSystem.keyPressQueue.add(interaction);
+      if (!inputSystem.isKeyCodeHeld(event.getKeyCode())) {
+        inputSystem.keyHeldQueue.add(interaction);
       }
     }
 
     /** WARNING: Do not call this method. It is only to be called by core library classes. */
     @Override
     public void keyReleased(KeyEvent event) {
-      keyReleaseQueue.add(new KeyInteraction(event));
-      keyHeldQueue.removeIf(x -> x.keyCode == event.getKeyCode());
+      inputSystem.keyReleaseQueue.add(new KeyInteraction(event));
+      inputSystem.keyHeldQueue.removeIf(x -> x.keyCode == event.getKeyCode());
     }
 
     /** WARNING: Do not call this method. It is only to be called by core library classes. */
     @Override
     public void keyTyped(KeyEvent event) {
-      keyTypeQueue.add(new KeyInteraction(event));
+      inputSystem.keyTypeQueue.add(new KeyInteraction(event));
     }
   }
 }
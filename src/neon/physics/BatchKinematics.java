@@ -0,0 +1,152 @@
+package neon.physics;
+
+/**
+ * A class used to move and test large numbers of bodies, such as particles and bullets, stored in
+ * primitive arrays. When the JVM is started with {@code --add-modules jdk.incubator.vector}, the
+ * operations use SIMD instructions through the Vector API; otherwise, an equivalent scalar loop is
+ * used. Both paths produce identical results. Setting the system property {@code neon.vectorize}
+ * to false forces the scalar loop.<br>
+ * Note: Compiling the game library requires {@code --add-modules jdk.incubator.vector}, while
+ * running it does not.
+ */
+public class BatchKinematics {
+  private static final boolean isVectorized =
+      ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+          && !"false".equals(System.getProperty("neon.vectorize"));
+
+  /** @return whether the operations use the Vector API */
+  public static boolean isVectorized() {
+    return isVectorized;
+  }
+
+  /**
+   * Moves one dimension of every body by its velocity.
+   *
+   * @param positions the positions along one axis
+   * @param velocities the velocities along the same axis
+   * @param timeStep the value the velocities are multiplied by
+   * @param count the number of bodies
+   */
+  public static void integrate(
+      double[] positions, double[] velocities, double timeStep, int count) {
+    if (isVectorized) {
+      VectorizedKinematics.integrate(positions, velocities, timeStep, count);
+    } else {
+      for (int i = 0; i < count; i++) {
+        positions[i] += velocities[i] * timeStep;
+      }
+    }
+  }
+
+  /**
+   * Moves every body by its velocity.
+   *
+   * @param positions the positions of the bodies
+   * @param velocities the velocities of the bodies, at least as many as there are positions
+   * @param timeStep the value the velocities are multiplied by
+   */
+  public static void integrate(Vector2DArray positions, Vector2DArray velocities, double timeStep) {
+    int count = positions.size();
+    integrate(positions.getXValues(), velocities.getXValues(), timeStep, count);
+    integrate(positions.getYValues(), velocities.getYValues(), timeStep, count);
+  }
+
+  /**
+   * Accelerates every body and then moves it by its new velocity (semi-implicit Euler
+   * integration).
+   *
+   * @param positions the positions of the bodies
+   * @param velocities the velocities of the bodies, at least as many as there are positions
+   * @param accelerations the accelerations of the bodies, at least as many as there are positions
+   * @param timeStep the length of the step
+   */
+  public static void integrate(
+      Vector2DArray positions,
+      Vector2DArray velocities,
+      Vector2DArray accelerations,
+      double timeStep) {
+    int count = positions.size();
+    integrate(velocities.getXValues(), accelerations.getXValues(), timeStep, count);
+    integrate(velocities.getYValues(), accelerations.getYValues(), timeStep, count);
+    integrate(positions, velocities, timeStep);
+  }
+
+  /**
+   * Finds every body whose bounds intersect the bounds of a query hitbox. As with {@link
+   * RectangularHitbox#doesIntersectHitbox(Hitbox)}, bodies that only touch the query are not
+   * intersecting.
+   *
+   * @param centers the centers of the bodies
+   * @param halfWidths the half widths of the bodies
+   * @param halfHeights the half heights of the bodies
+   * @param query the query hitbox
+   * @param result the array the indices of intersecting bodies are stored in, which must be at
+   *     least as large as the number of bodies
+   * @return the number of intersecting bodies
+   */
+  public static int findIntersections(
+      Vector2DArray centers,
+      double[] halfWidths,
+      double[] halfHeights,
+      Hitbox query,
+      int[] result) {
+    double[] x = centers.getXValues();
+    double[] y = centers.getYValues();
+    int count = centers.size();
+    double lowX = query.getLowerXBound();
+    double highX = query.getHigherXBound();
+    double lowY = query.getLowerYBound();
+    double highY = query.getHigherYBound();
+    if (isVectorized) {
+      return VectorizedKinematics.findIntersections(
+          x, y, halfWidths, halfHeights, count, lowX, highX, lowY, highY, result);
+    }
+
+    int resultCount = 0;
+    for (int i = 0; i < count; i++) {
+      if (x[i] - halfWidths[i] < highX
+          && x[i] + halfWidths[i] > lowX
+          && y[i] - halfHeights[i] < highY
+          && y[i] + halfHeights[i] > lowY) {
+        result[resultCount++] = i;
+      }
+    }
+    return resultCount;
+  }
+
+  /**
+   * Finds every body whose bounds intersect the bounds of a query hitbox, where every body has the
+   * same size.
+   *
+   * @param centers the centers of the bodies
+   * @param width the width of each body
+   * @param height the height of each body
+   * @param query the query hitbox
+   * @param result the array the indices of intersecting bodies are stored in, which must be at
+   *     least as large as the number of bodies
+   * @return the number of intersecting bodies
+   */
+  public static int findIntersections(
+      Vector2DArray centers, double width, double height, Hitbox query, int[] result) {
+    // Growing the query by the size of the bodies reduces the test to a point test
+    double[] x = centers.getXValues();
+    double[] y = centers.getYValues();
+    int count = centers.size();
+    double lowX = query.getLowerXBound() - width / 2;
+    double highX = query.getHigherXBound() + width / 2;
+    double lowY = query.getLowerYBound() - height / 2;
+    double highY = query.getHigherYBound() + height / 2;
+    if (isVectorized) {
+      return VectorizedKinematics.findPointsWithin(
+          x, y, count, lowX, highX, lowY, highY, result);
+    }
+
+    int resultCount = 0;
+    for (int i = 0; i < count; i++) {
+      if (x[i] < highX && x[i] > lowX && y[i] < highY && y[i] > lowY) {
+        result[resultCount++] = i;
+      }
+    }
+    return resultCount;
+  }
+}
@@ -0,0 +1,207 @@
+package neon.physics;
+
+/**
+ * A hitbox with a velocity, which caches its bounds and tracks whether it moved. A dynamic body
+ * falls asleep once its speed stays below a threshold for a number of ticks, after which it is no
+ * longer moved or checked against other bodies that cannot move until it is woken up.<br>
+ * The bounds are recomputed whenever the body is moved through this class or updated while it is
+ * active. If the hitbox of a static or sleeping body is changed directly, {@link #markMoved()} has
+ * to be called afterwards.
+ */
+public class Body {
+  private final Hitbox hitbox;
+  private final boolean isStatic;
+  private final Vector2D velocity = new Vector2D(0, 0);
+  private final double sleepSpeed;
+  private final int sleepTicks;
+  private double lowX;
+  private double highX;
+  private double lowY;
+  private double highY;
+  private boolean isDirty = true;
+  private boolean isSleeping;
+  private int slowTickCount;
+
+  /**
+   * Creates a body that falls asleep after moving slower than 0.0001 units per tick for 30 ticks.
+   *
+   * @param hitbox the hitbox
+   * @param isStatic whether the body never moves
+   */
+  public Body(Hitbox hitbox, boolean isStatic) {
+    this(hitbox, isStatic, 1e-4, 30);
+  }
+
+  /**
+   * @param hitbox the hitbox
+   * @param isStatic whether the body never moves
+   * @param sleepSpeed the speed in units per tick below which the body is considered to be at rest
+   * @param sleepTicks how many ticks the body has to be at rest for before it falls asleep
+   */
+  public Body(Hitbox hitbox, boolean isStatic, double sleepSpeed, int sleepTicks) {
+    this.hitbox = hitbox;
+    this.isStatic = isStatic;
+    this.sleepSpeed = sleepSpeed;
+    this.sleepTicks = sleepTicks;
+    cacheBounds();
+  }
+
+  /** @return the hitbox */
+  public Hitbox getHitbox() {
+    return hitbox;
+  }
+
+  /** @return whether the body never moves */
+  public boolean isStatic() {
+    return isStatic;
+  }
+
+  /** @return the velocity in units per tick */
+  public Vector2D getVelocity() {
+    return velocity;
+  }
+
+  /**
+   * Sets the velocity and wakes the body up.
+   *
+   * @param x the X component in width units per tick
+   * @param y the Y component in height units per tick
+   */
+  public void setVelocity(double x, double y) {
+    velocity.set(x, y);
+    wake();
+  }
+
+  /**
+   * Moves the body and wakes it up.
+   *
+   * @param x how far to move along the X axis in width units
+   * @param y how far to move along the Y axis in height units
+   */
+  public void move(double x, double y) {
+    Vector2D center = hitbox.getCenter();
+    center.set(center.getX() + x, center.getY() + y);
+    markMoved();
+  }
+
+  /**
+   * Recomputes the cached bounds after the hitbox was changed and wakes the body up if it was
+   * asleep.
+   */
+  public void markMoved() {
+    cacheBounds();
+    if (isSleeping) {
+      wake();
+    }
+  }
+
+  /**
+   * Moves the body by its velocity and puts it to sleep if it has been at rest for long enough.
+   * Static and sleeping bodies are not updated. This method is usually called once per tick.
+   */
+  public void update() {
+    if (!isActive()) {
+      return;
+    }
+
+    double speedX = velocity.getX();
+    double speedY = velocity.getY();
+    Vector2D center = hitbox.getCenter();
+    center.set(center.getX() + speedX, center.getY() + speedY);
+    // Active bodies always recompute their bounds, in case their hitbox was changed directly
+    cacheBounds();
+
+    if (speedX * speedX + speedY * speedY < sleepSpeed * sleepSpeed) {
+      if (++slowTickCount >= sleepTicks) {
+        isSleeping = true;
+      }
+    } else {
+      slowTickCount = 0;
+    }
+  }
+
+  /** @return whether the body is asleep */
+  public boolean isSleeping() {
+    return isSleeping;
+  }
+
+  /** @return whether the body is dynamic and awake */
+  public boolean isActive() {
+    return !isStatic && !isSleeping;
+  }
+
+  /** Wakes the body up and restarts the count of ticks it has been at rest for. */
+  public void wake() {
+    isSleeping = false;
+    slowTickCount = 0;
+  }
+
+  /** @return whether the body moved since {@link #clearDirty()} was last called */
+  public boolean isDirty() {
+    return isDirty;
+  }
+
+  /** Marks the body as not having moved. */
+  public void clearDirty() {
+    isDirty = false;
+  }
+
+  /** @return the cached lowest x-value contained in the hitbox */
+  public double getLowerXBound() {
+    return lowX;
+  }
+
+  /** @return the cached highest x-value contained in the hitbox */
+  public double getHigherXBound() {
+    return highX;
+  }
+
+  /** @return the cached lowest y-value contained in the hitbox */
+  public double getLowerYBound() {
+    return lowY;
+  }
+
+  /** @return the cached highest y-value contained in the hitbox */
+  public double getHigherYBound() {
+    return highY;
+  }
+
+  /**
+   * Checks whether the body intersects another body. Pairs of bodies that both cannot move are
+   * skipped and never intersect.
+   *
+   * @param other the other body
+   * @return whether the bodies intersect
+   */
+  public boolean doesIntersectBody(Body other) {
+    return (isActive() || other.isActive())
+        && lowX < other.highX
+        && highX > other.lowX
+        && lowY < other.highY
+        && highY > other.lowY
+        && Narrowphase.collide(hitbox, other.hitbox, null);
+  }
+
+  /**
+   * Shifts the body so that it stops intersecting another body. Pairs of bodies that both cannot
+   * move are skipped.
+   *
+   * @param other the other body
+   * @return whether the bodies collided
+   */
+  public boolean preventIntersection(Body other) {
+    if (doesIntersectBody(other) && Narrowphase.separate(hitbox, other.hitbox)) {
+      markMoved();
+      return true;
+    }
+    return false;
+  }
+
+  private void cacheBounds() {
+    lowX = hitbox.getLowerXBound();
+    highX = hitbox.getHigherXBound();
+    lowY = hitbox.getLowerYBound();
+    highY = hitbox.getHigherYBound();
+    isDirty = true;
+  }
+}
@@ -85,31 +85,19 @@ public class CircularHitbox extends Hitbox {
   }
 
   public boolean doesContainVector(Vector2D vector) {
-    return center.getDistanceBetween(vector) <= radius;
+    return center.getDistanceSquaredBetween(vector) <= radius * radius;
   }
 
-  /**
-   * WARNING: This method is partially unimplemented. It only works when used with other circular hitboxes.
-   *
-   * @param other the other hitbox
-   * @throws UnsupportedOperationException always
-   */
-  public boolean doesIntersectHitbox(Hitbox other) throws UnsupportedOperationException {
-    if (other instanceof CircularHitbox castedOther) {
-      return center.getDistanceBetween(other.center) <= castedOther.radius + radius;
-    }
+  public boolean doesIntersectHitbox(Hitbox other) {
+    return Narrowphase.collide(this, other, null);
+  }
 
-    throw new UnsupportedOperationException("This method is not currently implemented.");
+  public boolean preventIntersection(Hitbox other) {
+    return Narrowphase.separate(this, other);
   }
 
-  /**
-   * WARNING: This method is unimplemented.
-   *
-   * @param other the other hitbox
-   * @throws UnsupportedOperationException always
-   */
-  public boolean preventIntersection(Hitbox other) throws UnsupportedOperationException {
-    throw new UnsupportedOperationException("This method is not currently implemented.");
+  int getShapeIndex() {
+    return Narrowphase.CIRCLE;
   }
 
   public CircularHitbox copy() {
@@ -0,0 +1,28 @@
+package neon.physics;
+
+/**
+ * The contact between two intersecting hitboxes, which is filled in by {@link
+ * Narrowphase#collide(Hitbox, Hitbox, Contact)} and can be reused between checks.
+ */
+public class Contact {
+  private final Vector2D normal = new Vector2D(0, 0);
+  private double depth;
+
+  /**
+   * @return the unit vector pointing from the first hitbox towards the second, along which the
+   *     first hitbox has to move by the depth to stop intersecting
+   */
+  public Vector2D getNormal() {
+    return normal;
+  }
+
+  /** @return how far the hitboxes overlap along the normal */
+  public double getDepth() {
+    return depth;
+  }
+
+  void set(double normalX, double normalY, double depth) {
+    normal.set(normalX, normalY);
+    this.depth = depth;
+  }
+}
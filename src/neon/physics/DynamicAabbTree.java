@@ -0,0 +1,615 @@
+package neon.physics;
+
+import java.util.Arrays;
+
+import neon.rendering.UnitConverter;
+
+/**
+ * A bounding volume hierarchy over hitboxes, which answers point, region, raycast and nearest
+ * hitbox queries in logarithmic time. Each added hitbox is identified by an integer proxy.<br>
+ * The leaves store fattened bounds, so a hitbox that moves slightly does not have to be reinserted
+ * when it is updated. The tree is kept balanced with rotations as hitboxes are inserted and
+ * removed.<br>
+ * Queries write into caller-provided arrays and never allocate. This class is not thread-safe.
+ */
+public class DynamicAabbTree {
+  private static final int NULL_NODE = -1;
+  private final double marginWidth;
+  private final double marginHeight;
+  private int root = NULL_NODE;
+  private int proxyCount;
+
+  // Nodes, where a leaf has no children and the parent of a free node is the next free node
+  private Hitbox[] hitboxes = new Hitbox[16];
+  private double[] lowX = new double[16];
+  private double[] highX = new double[16];
+  private double[] lowY = new double[16];
+  private double[] highY = new double[16];
+  private int[] parents = new int[16];
+  private int[] firstChildren = new int[16];
+  private int[] secondChildren = new int[16];
+  private int[] heights = new int[16];
+  private int freeNode = NULL_NODE;
+  private int nextNode;
+
+  private int[] stack = new int[64];
+
+  /**
+   * @param marginWidth how far the bounds of each leaf are extended horizontally in width units
+   * @param marginHeight how far the bounds of each leaf are extended vertically in height units
+   */
+  public DynamicAabbTree(double marginWidth, double marginHeight) {
+    this.marginWidth = marginWidth;
+    this.marginHeight = marginHeight;
+  }
+
+  /** @return the number of hitboxes in the tree */
+  public int size() {
+    return proxyCount;
+  }
+
+  /** @return the height of the tree, which is 0 when it has at most one hitbox */
+  public int getHeight() {
+    return root == NULL_NODE ? 0 : heights[root];
+  }
+
+  /**
+   * Adds a hitbox to the tree.
+   *
+   * @param hitbox the hitbox
+   * @return the proxy identifying the hitbox in the tree
+   */
+  public int add(Hitbox hitbox) {
+    int leaf = allocateNode();
+    hitboxes[leaf] = hitbox;
+    fattenBounds(leaf);
+    insertLeaf(leaf);
+    proxyCount++;
+    return leaf;
+  }
+
+  /**
+   * Removes a hitbox from the tree. Its proxy may be reused by hitboxes added afterwards.
+   *
+   * @param proxy the proxy of the hitbox
+   */
+  public void remove(int proxy) {
+    assert isLeaf(proxy) && hitboxes[proxy] != null;
+    removeLeaf(proxy);
+    freeNode(proxy);
+    proxyCount--;
+  }
+
+  /**
+   * Updates a hitbox after it has moved or changed size. It is only reinserted if it left its
+   * fattened bounds.
+   *
+   * @param proxy the proxy of the hitbox
+   * @return whether the hitbox was reinserted
+   */
+  public boolean update(int proxy) {
+    Hitbox hitbox = hitboxes[proxy];
+    if (hitbox.getLowerXBound() >= lowX[proxy]
+        && hitbox.getHigherXBound() <= highX[proxy]
+        && hitbox.getLowerYBound() >= lowY[proxy]
+        && hitbox.getHigherYBound() <= highY[proxy]) {
+      return false;
+    }
+
+    removeLeaf(proxy);
+    fattenBounds(proxy);
+    insertLeaf(proxy);
+    return true;
+  }
+
+  /**
+   * @param proxy the proxy of the hitbox
+   * @return the hitbox
+   */
+  public Hitbox getHitbox(int proxy) {
+    return hitboxes[proxy];
+  }
+
+  /**
+   * Finds every hitbox that contains a point.
+   *
+   * @param point the point
+   * @param result the array the proxies are stored in
+   * @return the number of hitboxes found, which may exceed the length of the result array, in which
+   *     case the remaining proxies were not stored
+   */
+  public int queryPoint(Vector2D point, int[] result) {
+    double x = point.getX();
+    double y = point.getY();
+    int resultCount = 0;
+    int stackSize = push(0, root);
+    while (stackSize > 0) {
+      int node = stack[--stackSize];
+      if (x < lowX[node] || x > highX[node] || y < lowY[node] || y > highY[node]) {
+        continue;
+      }
+
+      if (isLeaf(node)) {
+        if (hitboxes[node].doesContainVector(point)) {
+          if (resultCount < result.length) {
+            result[resultCount] = node;
+          }
+          resultCount++;
+        }
+      } else {
+        stackSize = push(stackSize, firstChildren[node]);
+        stackSize = push(stackSize, secondChildren[node]);
+      }
+    }
+    return resultCount;
+  }
+
+  /**
+   * Finds every hitbox whose bounds intersect a region.
+   *
+   * @param lowX the low X bound of the region
+   * @param highX the high X bound of the region
+   * @param lowY the low Y bound of the region
+   * @param highY the high Y bound of the region
+   * @param result the array the proxies are stored in
+   * @return the number of hitboxes found, which may exceed the length of the result array, in which
+   *     case the remaining proxies were not stored
+   */
+  public int query(double lowX, double highX, double lowY, double highY, int[] result) {
+    int resultCount = 0;
+    int stackSize = push(0, root);
+    while (stackSize > 0) {
+      int node = stack[--stackSize];
+      if (this.lowX[node] >= highX
+          || this.highX[node] <= lowX
+          || this.lowY[node] >= highY
+          || this.highY[node] <= lowY) {
+        continue;
+      }
+
+      if (isLeaf(node)) {
+        Hitbox hitbox = hitboxes[node];
+        if (hitbox.getLowerXBound() < highX
+            && hitbox.getHigherXBound() > lowX
+            && hitbox.getLowerYBound() < highY
+            && hitbox.getHigherYBound() > lowY) {
+          if (resultCount < result.length) {
+            result[resultCount] = node;
+          }
+          resultCount++;
+        }
+      } else {
+        stackSize = push(stackSize, firstChildren[node]);
+        stackSize = push(stackSize, secondChildren[node]);
+      }
+    }
+    return resultCount;
+  }
+
+  /**
+   * Finds every hitbox whose bounds intersect the bounds of a hitbox.
+   *
+   * @param hitbox the hitbox
+   * @param result the array the proxies are stored in
+   * @return the number of hitboxes found, which may exceed the length of the result array, in which
+   *     case the remaining proxies were not stored
+   */
+  public int query(Hitbox hitbox, int[] result) {
+    return query(
+        hitbox.getLowerXBound(),
+        hitbox.getHigherXBound(),
+        hitbox.getLowerYBound(),
+        hitbox.getHigherYBound(),
+        result);
+  }
+
+  /**
+   * Finds the first hitbox hit by a line segment. Circular hitboxes are tested against their
+   * circle and all other hitboxes against their bounds.
+   *
+   * @param start the start of the segment
+   * @param end the end of the segment
+   * @param hitPoint the vector the point where the segment first hits the hitbox is stored in, or
+   *     null
+   * @return the proxy of the hitbox, or -1 if no hitbox is hit
+   */
+  public int raycast(Vector2D start, Vector2D end, Vector2D hitPoint) {
+    double startX = start.getX();
+    double startY = start.getY();
+    double directionX = end.getX() - startX;
+    double directionY = end.getY() - startY;
+    double maxFraction = 1;
+    int hitProxy = NULL_NODE;
+    int stackSize = push(0, root);
+    while (stackSize > 0) {
+      int node = stack[--stackSize];
+      if (getSegmentFraction(
+              startX,
+              startY,
+              directionX,
+              directionY,
+              lowX[node],
+              highX[node],
+              lowY[node],
+              highY[node],
+              maxFraction)
+          < 0) {
+        continue;
+      }
+
+      if (isLeaf(node)) {
+        double fraction =
+            getLeafFraction(node, startX, startY, directionX, directionY, maxFraction);
+        if (fraction >= 0) {
+          maxFraction = fraction;
+          hitProxy = node;
+        }
+      } else {
+        stackSize = push(stackSize, firstChildren[node]);
+        stackSize = push(stackSize, secondChildren[node]);
+      }
+    }
+
+    if (hitProxy != NULL_NODE && hitPoint != null) {
+      hitPoint.set(startX + directionX * maxFraction, startY + directionY * maxFraction);
+    }
+    return hitProxy;
+  }
+
+  /**
+   * Finds the hitbox whose bounds are closest to a point.
+   *
+   * @param point the point
+   * @return the proxy of the hitbox, or -1 if the tree is empty
+   */
+  public int findNearest(Vector2D point) {
+    double x = point.getX();
+    double y = point.getY();
+    double bestDistanceSquared = Double.POSITIVE_INFINITY;
+    int bestProxy = NULL_NODE;
+    int stackSize = push(0, root);
+    while (stackSize > 0) {
+      int node = stack[--stackSize];
+      if (getDistanceSquared(x, y, lowX[node], highX[node], lowY[node], highY[node])
+          >= bestDistanceSquared) {
+        continue;
+      }
+
+      if (isLeaf(node)) {
+        Hitbox hitbox = hitboxes[node];
+        double distanceSquared =
+            getDistanceSquared(
+                x,
+                y,
+                hitbox.getLowerXBound(),
+                hitbox.getHigherXBound(),
+                hitbox.getLowerYBound(),
+                hitbox.getHigherYBound());
+        if (distanceSquared < bestDistanceSquared) {
+          bestDistanceSquared = distanceSquared;
+          bestProxy = node;
+        }
+      } else {
+        int first = firstChildren[node];
+        int second = secondChildren[node];
+        // Push the closer child last so it is visited first and prunes more of the other
+        if (getDistanceSquared(x, y, lowX[first], highX[first], lowY[first], highY[first])
+            < getDistanceSquared(x, y, lowX[second], highX[second], lowY[second], highY[second])) {
+          stackSize = push(stackSize, second);
+          stackSize = push(stackSize, first);
+        } else {
+          stackSize = push(stackSize, first);
+          stackSize = push(stackSize, second);
+        }
+      }
+    }
+    return bestProxy;
+  }
+
+  private double getLeafFraction(
+      int leaf,
+      double startX,
+      double startY,
+      double directionX,
+      double directionY,
+      double maxFraction) {
+    Hitbox hitbox = hitboxes[leaf];
+    if (hitbox instanceof CircularHitbox circle) {
+      Vector2D center = circle.getCenter();
+      double radius = circle.getRadiusWidth();
+      // The radius is in width units, so the circle is tested in width units like queryPoint
+      double heightToWidth = UnitConverter.toWidth(1);
+      double offsetX = startX - center.getX();
+      double offsetY = (startY - center.getY()) * heightToWidth;
+      directionY *= heightToWidth;
+      double a = directionX * directionX + directionY * directionY;
+      double b = offsetX * directionX + offsetY * directionY;
+      double c = offsetX * offsetX + offsetY * offsetY - radius * radius;
+      if (c <= 0) {
+        return 0;
+      }
+
+      double discriminant = b * b - a * c;
+      if (a == 0 || discriminant < 0) {
+        return -1;
+      }
+
+      double fraction = (-b - Math.sqrt(discriminant)) / a;
+      return fraction >= 0 && fraction <= maxFraction ? fraction : -1;
+    }
+
+    return getSegmentFraction(
+        startX,
+        startY,
+        directionX,
+        directionY,
+        hitbox.getLowerXBound(),
+        hitbox.getHigherXBound(),
+        hitbox.getLowerYBound(),
+        hitbox.getHigherYBound(),
+        maxFraction);
+  }
+
+  /** @return the fraction along the segment where it enters the box, or -1 if it misses it */
+  private static double getSegmentFraction(
+      double startX,
+      double startY,
+      double directionX,
+      double directionY,
+      double lowX,
+      double highX,
+      double lowY,
+      double highY,
+      double maxFraction) {
+    double entry = 0;
+    double exit = maxFraction;
+    if (directionX == 0) {
+      if (startX < lowX || startX > highX) {
+        return -1;
+      }
+    } else {
+      double first = (lowX - startX) / directionX;
+      double second = (highX - startX) / directionX;
+      entry = Math.max(entry, Math.min(first, second));
+      exit = Math.min(exit, Math.max(first, second));
+    }
+
+    if (directionY == 0) {
+      if (startY < lowY || startY > highY) {
+        return -1;
+      }
+    } else {
+      double first = (lowY - startY) / directionY;
+      double second = (highY - startY) / directionY;
+      entry = Math.max(entry, Math.min(first, second));
+      exit = Math.min(exit, Math.max(first, second));
+    }
+
+    return entry <= exit ? entry : -1;
+  }
+
+  private static double getDistanceSquared(
+      double x, double y, double lowX, double highX, double lowY, double highY) {
+    double differenceX = Math.max(Math.max(lowX - x, x - highX), 0);
+    double differenceY = Math.max(Math.max(lowY - y, y - highY), 0);
+    return differenceX * differenceX + differenceY * differenceY;
+  }
+
+  private void insertLeaf(int leaf) {
+    if (root == NULL_NODE) {
+      root = leaf;
+      parents[leaf] = NULL_NODE;
+      return;
+    }
+
+    // Descend towards the sibling that increases the total perimeter of the tree the least
+    int sibling = root;
+    while (!isLeaf(sibling)) {
+      double perimeter = getPerimeter(sibling);
+      double combinedPerimeter = getCombinedPerimeter(sibling, leaf);
+      double cost = 2 * combinedPerimeter;
+      double inheritanceCost = 2 * (combinedPerimeter - perimeter);
+      int first = firstChildren[sibling];
+      int second = secondChildren[sibling];
+      double firstCost = getDescentCost(first, leaf) + inheritanceCost;
+      double secondCost = getDescentCost(second, leaf) + inheritanceCost;
+      if (cost < firstCost && cost < secondCost) {
+        break;
+      }
+      sibling = firstCost < secondCost ? first : second;
+    }
+
+    int oldParent = parents[sibling];
+    int newParent = allocateNode();
+    parents[newParent] = oldParent;
+    setCombinedBounds(newParent, sibling, leaf);
+    heights[newParent] = heights[sibling] + 1;
+    firstChildren[newParent] = sibling;
+    secondChildren[newParent] = leaf;
+    parents[sibling] = newParent;
+    parents[leaf] = newParent;
+    if (oldParent == NULL_NODE) {
+      root = newParent;
+    } else {
+      replaceChild(oldParent, sibling, newParent);
+    }
+
+    refit(parents[leaf]);
+  }
+
+  private void removeLeaf(int leaf) {
+    if (leaf == root) {
+      root = NULL_NODE;
+      return;
+    }
+
+    int parent = parents[leaf];
+    int grandparent = parents[parent];
+    int sibling = firstChildren[parent] == leaf ? secondChildren[parent] : firstChildren[parent];
+    parents[sibling] = grandparent;
+    freeNode(parent);
+    if (grandparent == NULL_NODE) {
+      root = sibling;
+    } else {
+      replaceChild(grandparent, parent, sibling);
+      refit(grandparent);
+    }
+  }
+
+  /** Balances and recomputes the bounds and heights of a node and its ancestors. */
+  private void refit(int node) {
+    while (node != NULL_NODE) {
+      node = balance(node);
+      int first = firstChildren[node];
+      int second = secondChildren[node];
+      heights[node] = 1 + Math.max(heights[first], heights[second]);
+      setCombinedBounds(node, first, second);
+      node = parents[node];
+    }
+  }
+
+  /**
+   * Rotates a child of a node up if the heights of its children differ by more than one.
+   *
+   * @return the node that took the place of the node
+   */
+  private int balance(int a) {
+    if (isLeaf(a) || heights[a] < 2) {
+      return a;
+    }
+
+    int b = firstChildren[a];
+    int c = secondChildren[a];
+    int balance = heights[c] - heights[b];
+    if (balance > 1) {
+      rotateUp(a, c, b, false);
+      return c;
+    }
+    if (balance < -1) {
+      rotateUp(a, b, c, true);
+      return b;
+    }
+    return a;
+  }
+
+  /**
+   * Replaces a node with its taller child and moves the taller grandchild up to be the sibling of
+   * the node.
+   */
+  private void rotateUp(int node, int child, int otherChild, boolean isFirstChild) {
+    int first = firstChildren[child];
+    int second = secondChildren[child];
+    firstChildren[child] = node;
+    parents[child] = parents[node];
+    parents[node] = child;
+    if (parents[child] == NULL_NODE) {
+      root = child;
+    } else {
+      replaceChild(parents[child], node, child);
+    }
+
+    int taller = heights[first] > heights[second] ? first : second;
+    int shorter = taller == first ? second : first;
+    secondChildren[child] = taller;
+    if (isFirstChild) {
+      firstChildren[node] = shorter;
+    } else {
+      secondChildren[node] = shorter;
+    }
+    parents[shorter] = node;
+    setCombinedBounds(node, otherChild, shorter);
+    setCombinedBounds(child, node, taller);
+    heights[node] = 1 + Math.max(heights[otherChild], heights[shorter]);
+    heights[child] = 1 + Math.max(heights[node], heights[taller]);
+  }
+
+  private double getDescentCost(int child, int leaf) {
+    double combinedPerimeter = getCombinedPerimeter(child, leaf);
+    return isLeaf(child) ? combinedPerimeter : combinedPerimeter - getPerimeter(child);
+  }
+
+  private double getPerimeter(int node) {
+    return 2 * (highX[node] - lowX[node] + highY[node] - lowY[node]);
+  }
+
+  private double getCombinedPerimeter(int first, int second) {
+    return 2
+        * (Math.max(highX[first], highX[second])
+            - Math.min(lowX[first], lowX[second])
+            + Math.max(highY[first], highY[second])
+            - Math.min(lowY[first], lowY[second]));
+  }
+
+  private void setCombinedBounds(int node, int first, int second) {
+    lowX[node] = Math.min(lowX[first], lowX[second]);
+    highX[node] = Math.max(highX[first], highX[second]);
+    lowY[node] = Math.min(lowY[first], lowY[second]);
+    highY[node] = Math.max(highY[first], highY[second]);
+  }
+
+  private void fattenBounds(int leaf) {
+    Hitbox hitbox = hitboxes[leaf];
+    lowX[leaf] = hitbox.getLowerXBound() - marginWidth;
+    highX[leaf] = hitbox.getHigherXBound() + marginWidth;
+    lowY[leaf] = hitbox.getLowerYBound() - marginHeight;
+    highY[leaf] = hitbox.getHigherYBound() + marginHeight;
+  }
+
+  private void replaceChild(int parent, int oldChild, int newChild) {
+    if (firstChildren[parent] == oldChild) {
+      firstChildren[parent] = newChild;
+    } else {
+      secondChildren[parent] = newChild;
+    }
+  }
+
+  private boolean isLeaf(int node) {
+    return firstChildren[node] == NULL_NODE;
+  }
+
+  private int push(int stackSize, int node) {
+    if (node == NULL_NODE) {
+      return stackSize;
+    }
+
+    if (stackSize == stack.length) {
+      stack = Arrays.copyOf(stack, stackSize * 2);
+    }
+    stack[stackSize] = node;
+    return stackSize + 1;
+  }
+
+  private int allocateNode() {
+    int node;
+    if (freeNode != NULL_NODE) {
+      node = freeNode;
+      freeNode = parents[node];
+    } else {
+      node = nextNode++;
+      if (node == hitboxes.length) {
+        int capacity = node * 2;
+        hitboxes = Arrays.copyOf(hitboxes, capacity);
+        lowX = Arrays.copyOf(lowX, capacity);
+        highX = Arrays.copyOf(highX, capacity);
+        lowY = Arrays.copyOf(lowY, capacity);
+        highY = Arrays.copyOf(highY, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        secondChildren = Arrays.copyOf(secondChildren, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+      }
+    }
+
+    parents[node] = NULL_NODE;
+    firstChildren[node] = NULL_NODE;
+    secondChildren[node] = NULL_NODE;
+    heights[node] = 0;
+    return node;
+  }
+
+  private void freeNode(int node) {
+    hitboxes[node] = null;
+    parents[node] = freeNode;
+    freeNode = node;
+  }
+}
@@ -95,7 +95,7 @@ public abstract class Hitbox {
    * @param other the other hitbox
    * @return whether the current hitbox intersects the specified hitbox
    */
-  public abstract boolean doesIntersectHitbox(Hitbox other) throws UnsupportedOperationException;
+  public abstract boolean doesIntersectHitbox(Hitbox other);
 
   /**
    * Shifts the hitbox in order to prevent it from intersecting with another hitbox. When shifting,
@@ -104,7 +104,12 @@ public abstract class Hitbox {
    * @param other the other hitbox
    * @return whether the hitboxes collided
    */
-  public abstract boolean preventIntersection(Hitbox other) throws UnsupportedOperationException;
+  public abstract boolean preventIntersection(Hitbox other);
+
+  /** @return the index of the hitbox's shape in the narrowphase's dispatch table */
+  int getShapeIndex() {
+    return Narrowphase.RECTANGLE;
+  }
 
   /** @return a copy of the object */
   public abstract Hitbox copy();
@@ -0,0 +1,187 @@
+package neon.physics;
+
+import neon.profiling.HitboxQueryEvent;
+import neon.rendering.UnitConverter;
+
+/**
+ * A class used to check whether two hitboxes intersect and how they overlap. Checks are dispatched
+ * through a table indexed by the shapes of both hitboxes, so any pair of shapes can be checked.
+ * Hitboxes of unknown shapes are checked using their bounds.<br>
+ * Like {@link CircularHitbox#doesContainVector(Vector2D)}, circles are measured in width units, so
+ * y-distances are converted from height units before they are compared with radii. Contacts are
+ * converted back, so their normals and depths are in the same units as hitbox coordinates.
+ */
+public class Narrowphase {
+  static final int RECTANGLE = 0;
+  static final int CIRCLE = 1;
+  private static final ContactTest[][] TESTS = {
+    {Narrowphase::collideRectangles, Narrowphase::collideRectangleAndCircle},
+    {Narrowphase::collideCircleAndRectangle, Narrowphase::collideCircles}
+  };
+  private static final ThreadLocal<Contact> SCRATCH_CONTACT = ThreadLocal.withInitial(Contact::new);
+
+  /**
+   * Checks whether two hitboxes intersect.
+   *
+   * @param first the first hitbox
+   * @param second the second hitbox
+   * @param contact the contact the normal and depth are stored in if the hitboxes intersect, or
+   *     null
+   * @return whether the hitboxes intersect
+   */
+  public static boolean collide(Hitbox first, Hitbox second, Contact contact) {
+    HitboxQueryEvent.recordQuery();
+    return TESTS[first.getShapeIndex()][second.getShapeIndex()].test(first, second, contact);
+  }
+
+  /**
+   * Shifts a hitbox along the contact normal so that it stops intersecting another hitbox.
+   *
+   * @param hitbox the hitbox to shift
+   * @param other the other hitbox
+   * @return whether the hitboxes collided
+   */
+  static boolean separate(Hitbox hitbox, Hitbox other) {
+    Contact contact = SCRATCH_CONTACT.get();
+    if (!collide(hitbox, other, contact)) {
+      return false;
+    }
+
+    Vector2D normal = contact.getNormal();
+    Vector2D center = hitbox.getCenter();
+    center.set(
+        center.getX() - normal.getX() * contact.getDepth(),
+        center.getY() - normal.getY() * contact.getDepth());
+    return true;
+  }
+
+  /** Uses the axis the centers are furthest apart along, like the original rectangle resolution. */
+  private static boolean collideRectangles(Hitbox first, Hitbox second, Contact contact) {
+    Vector2D firstCenter = first.getCenter();
+    Vector2D secondCenter = second.getCenter();
+    double differenceX = firstCenter.getX() - secondCenter.getX();
+    double differenceY = firstCenter.getY() - secondCenter.getY();
+    double overlapX = (first.getWidth() + second.getWidth()) / 2 - Math.abs(differenceX);
+    double overlapY = (first.getHeight() + second.getHeight()) / 2 - Math.abs(differenceY);
+    if (overlapX <= 0 || overlapY <= 0) {
+      return false;
+    }
+
+    if (contact != null) {
+      if (Math.abs(differenceX) >= Math.abs(differenceY)) {
+        contact.set(differenceX < 0 ? 1 : -1, 0, overlapX);
+      } else {
+        contact.set(0, differenceY < 0 ? 1 : -1, overlapY);
+      }
+    }
+    return true;
+  }
+
+  private static boolean collideCircles(Hitbox first, Hitbox second, Contact contact) {
+    double radiusSum =
+        ((CircularHitbox) first).getRadiusWidth() + ((CircularHitbox) second).getRadiusWidth();
+    double heightToWidth = UnitConverter.toWidth(1);
+    Vector2D firstCenter = first.getCenter();
+    Vector2D secondCenter = second.getCenter();
+    double differenceX = secondCenter.getX() - firstCenter.getX();
+    double differenceY = (secondCenter.getY() - firstCenter.getY()) * heightToWidth;
+    double distanceSquared = differenceX * differenceX + differenceY * differenceY;
+    if (distanceSquared > radiusSum * radiusSum) {
+      return false;
+    }
+
+    if (contact != null) {
+      double distance = Math.sqrt(distanceSquared);
+      if (distance == 0) {
+        setContact(contact, 1, 0, radiusSum, heightToWidth);
+      } else {
+        setContact(
+            contact,
+            differenceX / distance,
+            differenceY / distance,
+            radiusSum - distance,
+            heightToWidth);
+      }
+    }
+    return true;
+  }
+
+  private static boolean collideCircleAndRectangle(Hitbox first, Hitbox second, Contact contact) {
+    double radius = ((CircularHitbox) first).getRadiusWidth();
+    double heightToWidth = UnitConverter.toWidth(1);
+    Vector2D center = first.getCenter();
+    double x = center.getX();
+    double y = center.getY();
+    double lowX = second.getLowerXBound();
+    double highX = second.getHigherXBound();
+    double lowY = second.getLowerYBound();
+    double highY = second.getHigherYBound();
+    double differenceX = Math.min(Math.max(x, lowX), highX) - x;
+    double differenceY = (Math.min(Math.max(y, lowY), highY) - y) * heightToWidth;
+    double distanceSquared = differenceX * differenceX + differenceY * differenceY;
+    if (distanceSquared > radius * radius) {
+      return false;
+    }
+
+    if (contact != null) {
+      if (distanceSquared == 0) {
+        // The center is inside the rectangle, so push the circle out through the closest side
+        double leftDistance = x - lowX;
+        double rightDistance = highX - x;
+        double topDistance = (y - lowY) * heightToWidth;
+        double bottomDistance = (highY - y) * heightToWidth;
+        double minimumX = Math.min(leftDistance, rightDistance);
+        double minimumY = Math.min(topDistance, bottomDistance);
+        if (minimumX <= minimumY) {
+          setContact(contact, leftDistance < rightDistance ? 1 : -1, 0, minimumX + radius, 1);
+        } else {
+          setContact(
+              contact, 0, topDistance < bottomDistance ? 1 : -1, minimumY + radius, heightToWidth);
+        }
+      } else {
+        double distance = Math.sqrt(distanceSquared);
+        setContact(
+            contact,
+            differenceX / distance,
+            differenceY / distance,
+            radius - distance,
+            heightToWidth);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Stores a contact found in width units, converting the y-component of the separation back into
+   * height units.
+   *
+   * @param contact the contact
+   * @param normalX the x-value of the normal in width units
+   * @param normalY the y-value of the normal in width units
+   * @param depth the depth in width units
+   * @param heightToWidth the number of width units in one height unit
+   */
+  static void setContact(
+      Contact contact, double normalX, double normalY, double depth, double heightToWidth) {
+    normalY /= heightToWidth;
+    double length = Math.sqrt(normalX * normalX + normalY * normalY);
+    contact.set(normalX / length, normalY / length, depth * length);
+  }
+
+  private static boolean collideRectangleAndCircle(Hitbox first, Hitbox second, Contact contact) {
+    if (!collideCircleAndRectangle(second, first, contact)) {
+      return false;
+    }
+
+    if (contact != null) {
+      Vector2D normal = contact.getNormal();
+      contact.set(-normal.getX(), -normal.getY(), contact.getDepth());
+    }
+    return true;
+  }
+
+  @FunctionalInterface
+  private interface ContactTest {
+    boolean test(Hitbox first, Hitbox second, Contact contact);
+  }
+}
@@ -0,0 +1,331 @@
+package neon.physics;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import neon.critical.EngineContext;
+
+/**
+ * A class used to move and resolve the collisions between many bodies at once. Each step, the
+ * active bodies are moved and the pairs containing an active body are found with a {@link
+ * SpatialHashGrid}. Pairs of static and sleeping bodies are never checked, so the cost of a step
+ * mostly depends on the number of active bodies. The pairs are grouped into contact islands, which
+ * are sets of dynamic bodies that touch each other directly or indirectly. Static bodies never
+ * move and do not join islands.<br>
+ * Since no two islands share a dynamic body, the islands are resolved in parallel on a fork-join
+ * pool. The pairs of each island are resolved in a fixed order, so the results do not depend on how
+ * the islands were scheduled.
+ */
+public class PhysicsWorld {
+  private static final int MIN_PARALLEL_PAIRS = 256;
+  private final SpatialHashGrid grid;
+  private final int iterationCount;
+  private final ForkJoinPool pool;
+  private Body[] bodies = new Body[16];
+  private int proxyLimit;
+
+  // Scratch arrays reused between steps
+  private int[] queryResults = new int[64];
+  private long[] pairKeys = new long[128];
+  private int[] islandParents = new int[16];
+  private int[] islandIndices = new int[16];
+  private int[] pairIslands = new int[128];
+  private int[] islandStarts = new int[16];
+  private int[] islandPairs = new int[128];
+  private int islandCount;
+
+  /**
+   * Creates a world that resolves each pair 4 times per step on the common fork-join pool.
+   *
+   * @param cellWidth the width of each broadphase cell in width units
+   * @param cellHeight the height of each broadphase cell in height units
+   */
+  public PhysicsWorld(double cellWidth, double cellHeight) {
+    this(cellWidth, cellHeight, 4, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param cellWidth the width of each broadphase cell in width units
+   * @param cellHeight the height of each broadphase cell in height units
+   * @param iterationCount how many times the pairs of each island are resolved per step
+   * @param pool the pool the islands are resolved on
+   */
+  public PhysicsWorld(double cellWidth, double cellHeight, int iterationCount, ForkJoinPool pool) {
+    grid = new SpatialHashGrid(cellWidth, cellHeight);
+    this.iterationCount = Math.max(iterationCount, 1);
+    this.pool = pool;
+  }
+
+  /**
+   * Adds a hitbox to the world, wrapped in a body with the default sleep settings. If the hitbox is
+   * changed directly while its body is asleep, {@link Body#markMoved()} has to be called on {@link
+   * #getBody(int)} afterwards.
+   *
+   * @param hitbox the hitbox
+   * @param isStatic whether the hitbox never moves when resolving collisions
+   * @return the proxy identifying the hitbox in the world
+   */
+  public int add(Hitbox hitbox, boolean isStatic) {
+    return add(new Body(hitbox, isStatic));
+  }
+
+  /**
+   * Adds a body to the world.
+   *
+   * @param body the body
+   * @return the proxy identifying the body in the world
+   */
+  public int add(Body body) {
+    int proxy = grid.add(body.getHitbox());
+    body.clearDirty();
+    if (proxy >= bodies.length) {
+      bodies = Arrays.copyOf(bodies, Math.max(proxy + 1, bodies.length * 2));
+    }
+    bodies[proxy] = body;
+    proxyLimit = Math.max(proxyLimit, proxy + 1);
+    return proxy;
+  }
+
+  /**
+   * Removes a body from the world.
+   *
+   * @param proxy the proxy of the body
+   */
+  public void remove(int proxy) {
+    grid.remove(proxy);
+    bodies[proxy] = null;
+  }
+
+  /**
+   * @param proxy the proxy of the hitbox
+   * @return the hitbox
+   */
+  public Hitbox getHitbox(int proxy) {
+    return grid.getHitbox(proxy);
+  }
+
+  /**
+   * @param proxy the proxy of the body
+   * @return the body
+   */
+  public Body getBody(int proxy) {
+    return bodies[proxy];
+  }
+
+  /** @return the number of contact islands resolved in the last step */
+  public int getIslandCount() {
+    return islandCount;
+  }
+
+  /**
+   * Moves every active body by its velocity, then pushes every intersecting dynamic body out of the
+   * bodies it intersects. Two dynamic bodies are each moved by half of their overlap, and a
+   * sleeping body that is pushed wakes up. This method is usually called from {@link
+   * neon.critical.Game#tick()}.
+   */
+  public void step() {
+    for (int proxy = 0; proxy < proxyLimit; proxy++) {
+      Body body = bodies[proxy];
+      if (body != null) {
+        body.update();
+        if (body.isDirty()) {
+          grid.update(proxy);
+          body.clearDirty();
+        }
+      }
+    }
+
+    buildIslands(findPairs());
+    if (islandCount == 0) {
+      return;
+    }
+
+    EngineContext context = EngineContext.current();
+    IslandTask task = new IslandTask(context, 0, islandCount);
+    if (islandCount == 1 || islandStarts[islandCount] < MIN_PARALLEL_PAIRS) {
+      task.compute();
+    } else if (ForkJoinTask.inForkJoinPool()) {
+      task.invoke();
+    } else {
+      pool.invoke(task);
+    }
+  }
+
+  /**
+   * Finds the pairs containing an active body and sorts them, so the order is reproducible.
+   *
+   * @return the number of pairs
+   */
+  private int findPairs() {
+    int keyCount = 0;
+    for (int proxy = 0; proxy < proxyLimit; proxy++) {
+      Body body = bodies[proxy];
+      if (body == null || !body.isActive()) {
+        continue;
+      }
+
+      int resultCount = queryBounds(body);
+      if (resultCount > queryResults.length) {
+        queryResults = new int[resultCount * 2];
+        queryBounds(body);
+      }
+      for (int i = 0; i < resultCount; i++) {
+        int other = queryResults[i];
+        // A pair of active bodies is found from both sides, so only keep it from the lower proxy
+        if (other == proxy || (other < proxy && bodies[other].isActive())) {
+          continue;
+        }
+
+        if (keyCount == pairKeys.length) {
+          pairKeys = Arrays.copyOf(pairKeys, keyCount * 2);
+        }
+        pairKeys[keyCount++] = ((long) Math.min(proxy, other) << 32) | Math.max(proxy, other);
+      }
+    }
+    Arrays.sort(pairKeys, 0, keyCount);
+    return keyCount;
+  }
+
+  private int queryBounds(Body body) {
+    return grid.query(
+        body.getLowerXBound(),
+        body.getHigherXBound(),
+        body.getLowerYBound(),
+        body.getHigherYBound(),
+        queryResults);
+  }
+
+  /** Groups the sorted pairs by island with a union-find over the dynamic bodies. */
+  private void buildIslands(int keyCount) {
+    if (islandParents.length < proxyLimit) {
+      islandParents = new int[proxyLimit * 2];
+      islandIndices = new int[proxyLimit * 2];
+    }
+    for (int i = 0; i < keyCount; i++) {
+      int first = (int) (pairKeys[i] >>> 32);
+      int second = (int) pairKeys[i];
+      islandParents[first] = first;
+      islandParents[second] = second;
+      islandIndices[first] = -1;
+      islandIndices[second] = -1;
+    }
+    for (int i = 0; i < keyCount; i++) {
+      int first = (int) (pairKeys[i] >>> 32);
+      int second = (int) pairKeys[i];
+      if (!bodies[first].isStatic() && !bodies[second].isStatic()) {
+        islandParents[findRoot(first)] = findRoot(second);
+      }
+    }
+
+    // Number the islands in the order their first pair appears and count their pairs
+    if (pairIslands.length < keyCount) {
+      pairIslands = new int[keyCount * 2];
+      islandPairs = new int[keyCount * 2];
+    }
+    islandCount = 0;
+    for (int i = 0; i < keyCount; i++) {
+      int first = (int) (pairKeys[i] >>> 32);
+      int root = findRoot(bodies[first].isStatic() ? (int) pairKeys[i] : first);
+      if (islandIndices[root] == -1) {
+        islandIndices[root] = islandCount++;
+      }
+      pairIslands[i] = islandIndices[root];
+    }
+    if (islandStarts.length < islandCount + 1) {
+      islandStarts = new int[(islandCount + 1) * 2];
+    }
+    Arrays.fill(islandStarts, 0, islandCount + 1, 0);
+    for (int i = 0; i < keyCount; i++) {
+      islandStarts[pairIslands[i] + 1]++;
+    }
+    for (int i = 0; i < islandCount; i++) {
+      islandStarts[i + 1] += islandStarts[i];
+    }
+
+    // Place the pairs of each island together, keeping them sorted within each island
+    for (int i = 0; i < keyCount; i++) {
+      islandPairs[islandStarts[pairIslands[i]]++] = i;
+    }
+    for (int i = islandCount; i > 0; i--) {
+      islandStarts[i] = islandStarts[i - 1];
+    }
+    islandStarts[0] = 0;
+  }
+
+  private int findRoot(int proxy) {
+    while (islandParents[proxy] != proxy) {
+      islandParents[proxy] = islandParents[islandParents[proxy]];
+      proxy = islandParents[proxy];
+    }
+    return proxy;
+  }
+
+  private void resolveIsland(int island, Contact contact) {
+    for (int iteration = 0; iteration < iterationCount; iteration++) {
+      for (int i = islandStarts[island]; i < islandStarts[island + 1]; i++) {
+        long pairKey = pairKeys[islandPairs[i]];
+        int first = (int) (pairKey >>> 32);
+        int second = (int) pairKey;
+        Body firstBody = bodies[first];
+        Body secondBody = bodies[second];
+        Hitbox firstHitbox = firstBody.getHitbox();
+        Hitbox secondHitbox = secondBody.getHitbox();
+        if (firstBody.isStatic()) {
+          if (Narrowphase.separate(secondHitbox, firstHitbox)) {
+            secondBody.markMoved();
+          }
+        } else if (secondBody.isStatic()) {
+          if (Narrowphase.separate(firstHitbox, secondHitbox)) {
+            firstBody.markMoved();
+          }
+        } else if (Narrowphase.collide(firstHitbox, secondHitbox, contact)) {
+          double shiftX = contact.getNormal().getX() * contact.getDepth() / 2;
+          double shiftY = contact.getNormal().getY() * contact.getDepth() / 2;
+          Vector2D firstCenter = firstHitbox.getCenter();
+          Vector2D secondCenter = secondHitbox.getCenter();
+          firstCenter.set(firstCenter.getX() - shiftX, firstCenter.getY() - shiftY);
+          secondCenter.set(secondCenter.getX() + shiftX, secondCenter.getY() + shiftY);
+          firstBody.markMoved();
+          secondBody.markMoved();
+        }
+      }
+    }
+  }
+
+  private class IslandTask extends RecursiveAction {
+    @Serial private static final long serialVersionUID = 1L;
+    private final EngineContext context;
+    private final int start;
+    private final int end;
+
+    private IslandTask(EngineContext context, int start, int end) {
+      this.context = context;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start == 1 || islandStarts[end] - islandStarts[start] < MIN_PARALLEL_PAIRS) {
+        Runnable action =
+            () -> {
+              Contact contact = new Contact();
+              for (int island = start; island < end; island++) {
+                resolveIsland(island, contact);
+              }
+            };
+        if (context == null) {
+          action.run();
+        } else {
+          context.execute(action);
+        }
+      } else {
+        int middle = (start + end) >>> 1;
+        invokeAll(new IslandTask(context, start, middle), new IslandTask(context, middle, end));
+      }
+    }
+  }
+}
@@ -87,32 +87,11 @@ public class RectangularHitbox extends Hitbox {
   }
 
   public boolean doesIntersectHitbox(Hitbox other) {
-    assert other instanceof RectangularHitbox;
-    Vector2D difference = center.safeSubtract(other.getCenter());
-    return Math.abs(difference.getX())
-            < GeneralUtils.getAverage(new double[] {width, other.getWidth()})
-        && Math.abs(difference.getY())
-            < GeneralUtils.getAverage(new double[] {height, other.getHeight()});
+    return Narrowphase.collide(this, other, null);
   }
 
   public boolean preventIntersection(Hitbox other) {
-    boolean intersects = doesIntersectHitbox(other);
-    if (intersects) {
-      Vector2D difference = center.safeSubtract(other.getCenter());
-      if (Math.abs(difference.getX()) >= Math.abs(difference.getY())) {
-        if (difference.getX() < 0) {
-          setHigherXBound(other.getLowerXBound());
-        } else {
-          setLowerXBound(other.getHigherXBound());
-        }
-      } else if (difference.getY() < 0) {
-        setHigherYBound(other.getLowerYBound());
-      } else {
-        setLowerYBound(other.getHigherYBound());
-      }
-    }
-
-    return intersects;
+    return Narrowphase.separate(this, other);
   }
 
   public RectangularHitbox copy() {
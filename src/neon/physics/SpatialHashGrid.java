@@ -0,0 +1,388 @@
+package neon.physics;
+
+import java.util.Arrays;
+
+/**
+ * A broadphase that indexes hitboxes in a uniform grid of cells, which is stored in a hash table
+ * so the grid is unbounded. Each added hitbox is identified by an integer proxy. Its bounds are
+ * cached when it is added or updated, and only the cells it enters or leaves are changed when it
+ * moves. Queries write into caller-provided arrays and never allocate.<br>
+ * Any kind of hitbox can be indexed, since only its bounds are used. The results are candidates
+ * whose bounds intersect, which can then be checked with {@link
+ * Hitbox#doesIntersectHitbox(Hitbox)}.
+ */
+public class SpatialHashGrid {
+  private static final int EMPTY_SLOT = -2;
+  private static final int EMPTY_LIST = -1;
+  private final double cellWidth;
+  private final double cellHeight;
+
+  // Proxies
+  private Hitbox[] hitboxes = new Hitbox[16];
+  private double[] lowX = new double[16];
+  private double[] highX = new double[16];
+  private double[] lowY = new double[16];
+  private double[] highY = new double[16];
+  private int[] minCellX = new int[16];
+  private int[] minCellY = new int[16];
+  private int[] maxCellX = new int[16];
+  private int[] maxCellY = new int[16];
+  private int[] queryStamps = new int[16];
+  private int[] freeProxies = new int[16];
+  private int freeProxyCount;
+  private int nextProxy;
+  private int proxyCount;
+  private int queryStamp;
+
+  // Cells, stored in an open-addressing hash table whose slots point to linked lists of nodes
+  private long[] cellKeys = new long[64];
+  private int[] cellHeads = new int[64];
+  private int usedSlotCount;
+
+  // Nodes
+  private int[] nodeProxies = new int[64];
+  private int[] nodeNexts = new int[64];
+  private int freeNode = -1;
+  private int nextNode;
+
+  /**
+   * @param cellWidth the width of each cell in width units
+   * @param cellHeight the height of each cell in height units
+   */
+  public SpatialHashGrid(double cellWidth, double cellHeight) {
+    this.cellWidth = cellWidth;
+    this.cellHeight = cellHeight;
+    Arrays.fill(cellHeads, EMPTY_SLOT);
+  }
+
+  /** @return the number of hitboxes in the grid */
+  public int size() {
+    return proxyCount;
+  }
+
+  /**
+   * Adds a hitbox to the grid.
+   *
+   * @param hitbox the hitbox
+   * @return the proxy identifying the hitbox in the grid
+   */
+  public int add(Hitbox hitbox) {
+    int proxy;
+    if (freeProxyCount > 0) {
+      proxy = freeProxies[--freeProxyCount];
+    } else {
+      proxy = nextProxy++;
+      if (proxy == hitboxes.length) {
+        growProxies(proxy * 2);
+      }
+    }
+
+    hitboxes[proxy] = hitbox;
+    queryStamps[proxy] = 0;
+    cacheBounds(proxy);
+    insertIntoCells(proxy);
+    proxyCount++;
+    return proxy;
+  }
+
+  /**
+   * Removes a hitbox from the grid. Its proxy may be reused by hitboxes added afterwards.
+   *
+   * @param proxy the proxy of the hitbox
+   */
+  public void remove(int proxy) {
+    removeFromCells(proxy, minCellX[proxy], minCellY[proxy], maxCellX[proxy], maxCellY[proxy]);
+    hitboxes[proxy] = null;
+    if (freeProxyCount == freeProxies.length) {
+      freeProxies = Arrays.copyOf(freeProxies, freeProxyCount * 2);
+    }
+    freeProxies[freeProxyCount++] = proxy;
+    proxyCount--;
+  }
+
+  /**
+   * Updates the cached bounds of a hitbox after it has moved or changed size. The cells are only
+   * changed if the hitbox entered or left a cell.
+   *
+   * @param proxy the proxy of the hitbox
+   */
+  public void update(int proxy) {
+    int previousMinCellX = minCellX[proxy];
+    int previousMinCellY = minCellY[proxy];
+    int previousMaxCellX = maxCellX[proxy];
+    int previousMaxCellY = maxCellY[proxy];
+    cacheBounds(proxy);
+    if (minCellX[proxy] != previousMinCellX
+        || minCellY[proxy] != previousMinCellY
+        || maxCellX[proxy] != previousMaxCellX
+        || maxCellY[proxy] != previousMaxCellY) {
+      removeFromCells(
+          proxy, previousMinCellX, previousMinCellY, previousMaxCellX, previousMaxCellY);
+      insertIntoCells(proxy);
+    }
+  }
+
+  /** Updates every hitbox in the grid. */
+  public void updateAll() {
+    for (int proxy = 0; proxy < nextProxy; proxy++) {
+      if (hitboxes[proxy] != null) {
+        update(proxy);
+      }
+    }
+  }
+
+  /**
+   * @param proxy the proxy of the hitbox
+   * @return the hitbox
+   */
+  public Hitbox getHitbox(int proxy) {
+    return hitboxes[proxy];
+  }
+
+  /**
+   * Finds every hitbox whose cached bounds intersect a region.
+   *
+   * @param lowX the low X bound of the region
+   * @param highX the high X bound of the region
+   * @param lowY the low Y bound of the region
+   * @param highY the high Y bound of the region
+   * @param result the array the proxies are stored in
+   * @return the number of hitboxes found, which may exceed the length of the result array, in which
+   *     case the remaining proxies were not stored
+   */
+  public int query(double lowX, double highX, double lowY, double highY, int[] result) {
+    int stamp = nextQueryStamp();
+    int resultCount = 0;
+    for (int cellX = toCellX(lowX), maxX = toCellX(highX); cellX <= maxX; cellX++) {
+      for (int cellY = toCellY(lowY), maxY = toCellY(highY); cellY <= maxY; cellY++) {
+        int slot = findSlot(getKey(cellX, cellY));
+        if (cellHeads[slot] == EMPTY_SLOT) {
+          continue;
+        }
+
+        for (int node = cellHeads[slot]; node != EMPTY_LIST; node = nodeNexts[node]) {
+          int proxy = nodeProxies[node];
+          if (queryStamps[proxy] != stamp) {
+            queryStamps[proxy] = stamp;
+            if (this.lowX[proxy] < highX
+                && this.highX[proxy] > lowX
+                && this.lowY[proxy] < highY
+                && this.highY[proxy] > lowY) {
+              if (resultCount < result.length) {
+                result[resultCount] = proxy;
+              }
+              resultCount++;
+            }
+          }
+        }
+      }
+    }
+    return resultCount;
+  }
+
+  /**
+   * Finds every hitbox whose cached bounds intersect the bounds of a hitbox.
+   *
+   * @param hitbox the hitbox
+   * @param result the array the proxies are stored in
+   * @return the number of hitboxes found, which may exceed the length of the result array, in which
+   *     case the remaining proxies were not stored
+   */
+  public int query(Hitbox hitbox, int[] result) {
+    return query(
+        hitbox.getLowerXBound(),
+        hitbox.getHigherXBound(),
+        hitbox.getLowerYBound(),
+        hitbox.getHigherYBound(),
+        result);
+  }
+
+  /**
+   * Finds every pair of hitboxes whose cached bounds intersect. Each pair is reported once.
+   *
+   * @param pairs the array the pairs are stored in, with the two proxies of the nth pair at indices
+   *     2n and 2n + 1
+   * @return the number of pairs found, which may exceed half the length of the array, in which case
+   *     the remaining pairs were not stored
+   */
+  public int findPairs(int[] pairs) {
+    int pairCount = 0;
+    for (int slot = 0; slot < cellKeys.length; slot++) {
+      int head = cellHeads[slot];
+      if (head < 0) {
+        continue;
+      }
+
+      long key = cellKeys[slot];
+      int cellX = (int) (key >> 32);
+      int cellY = (int) key;
+      for (int nodeA = head; nodeA != EMPTY_LIST; nodeA = nodeNexts[nodeA]) {
+        int a = nodeProxies[nodeA];
+        for (int nodeB = nodeNexts[nodeA]; nodeB != EMPTY_LIST; nodeB = nodeNexts[nodeB]) {
+          int b = nodeProxies[nodeB];
+          // Only report the pair in the first cell both hitboxes share so it is reported once
+          if (Math.max(minCellX[a], minCellX[b]) == cellX
+              && Math.max(minCellY[a], minCellY[b]) == cellY
+              && lowX[a] < highX[b]
+              && highX[a] > lowX[b]
+              && lowY[a] < highY[b]
+              && highY[a] > lowY[b]) {
+            if (pairCount * 2 + 1 < pairs.length) {
+              pairs[pairCount * 2] = Math.min(a, b);
+              pairs[pairCount * 2 + 1] = Math.max(a, b);
+            }
+            pairCount++;
+          }
+        }
+      }
+    }
+    return pairCount;
+  }
+
+  private void cacheBounds(int proxy) {
+    Hitbox hitbox = hitboxes[proxy];
+    lowX[proxy] = hitbox.getLowerXBound();
+    highX[proxy] = hitbox.getHigherXBound();
+    lowY[proxy] = hitbox.getLowerYBound();
+    highY[proxy] = hitbox.getHigherYBound();
+    minCellX[proxy] = toCellX(lowX[proxy]);
+    minCellY[proxy] = toCellY(lowY[proxy]);
+    maxCellX[proxy] = toCellX(highX[proxy]);
+    maxCellY[proxy] = toCellY(highY[proxy]);
+  }
+
+  private void insertIntoCells(int proxy) {
+    for (int cellX = minCellX[proxy]; cellX <= maxCellX[proxy]; cellX++) {
+      for (int cellY = minCellY[proxy]; cellY <= maxCellY[proxy]; cellY++) {
+        int slot = findSlot(getKey(cellX, cellY));
+        if (cellHeads[slot] == EMPTY_SLOT) {
+          if ((usedSlotCount + 1) * 4 > cellKeys.length * 3) {
+            rehash();
+            slot = findSlot(getKey(cellX, cellY));
+          }
+          cellKeys[slot] = getKey(cellX, cellY);
+          cellHeads[slot] = EMPTY_LIST;
+          usedSlotCount++;
+        }
+
+        int node = allocateNode();
+        nodeProxies[node] = proxy;
+        nodeNexts[node] = cellHeads[slot];
+        cellHeads[slot] = node;
+      }
+    }
+  }
+
+  private void removeFromCells(int proxy, int minX, int minY, int maxX, int maxY) {
+    for (int cellX = minX; cellX <= maxX; cellX++) {
+      for (int cellY = minY; cellY <= maxY; cellY++) {
+        int slot = findSlot(getKey(cellX, cellY));
+        int previousNode = EMPTY_LIST;
+        for (int node = cellHeads[slot]; node != EMPTY_LIST; node = nodeNexts[node]) {
+          if (nodeProxies[node] == proxy) {
+            if (previousNode == EMPTY_LIST) {
+              cellHeads[slot] = nodeNexts[node];
+            } else {
+              nodeNexts[previousNode] = nodeNexts[node];
+            }
+            nodeNexts[node] = freeNode;
+            freeNode = node;
+            break;
+          }
+          previousNode = node;
+        }
+      }
+    }
+  }
+
+  private int allocateNode() {
+    if (freeNode != EMPTY_LIST) {
+      int node = freeNode;
+      freeNode = nodeNexts[node];
+      return node;
+    }
+
+    if (nextNode == nodeProxies.length) {
+      nodeProxies = Arrays.copyOf(nodeProxies, nextNode * 2);
+      nodeNexts = Arrays.copyOf(nodeNexts, nextNode * 2);
+    }
+    return nextNode++;
+  }
+
+  /** @return the slot containing the key, or the empty slot where it would be inserted */
+  private int findSlot(long key) {
+    int mask = cellKeys.length - 1;
+    int slot = hash(key) & mask;
+    while (cellHeads[slot] != EMPTY_SLOT && cellKeys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /** Grows the hash table if needed, dropping cells that no longer contain any hitboxes. */
+  private void rehash() {
+    long[] oldKeys = cellKeys;
+    int[] oldHeads = cellHeads;
+    int nonEmptyCount = 0;
+    for (int head : oldHeads) {
+      if (head >= 0) {
+        nonEmptyCount++;
+      }
+    }
+
+    int capacity = oldKeys.length;
+    while ((nonEmptyCount + 1) * 2 > capacity) {
+      capacity *= 2;
+    }
+    cellKeys = new long[capacity];
+    cellHeads = new int[capacity];
+    Arrays.fill(cellHeads, EMPTY_SLOT);
+    usedSlotCount = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldHeads[i] >= 0) {
+        int slot = findSlot(oldKeys[i]);
+        cellKeys[slot] = oldKeys[i];
+        cellHeads[slot] = oldHeads[i];
+        usedSlotCount++;
+      }
+    }
+  }
+
+  private void growProxies(int capacity) {
+    hitboxes = Arrays.copyOf(hitboxes, capacity);
+    lowX = Arrays.copyOf(lowX, capacity);
+    highX = Arrays.copyOf(highX, capacity);
+    lowY = Arrays.copyOf(lowY, capacity);
+    highY = Arrays.copyOf(highY, capacity);
+    minCellX = Arrays.copyOf(minCellX, capacity);
+    minCellY = Arrays.copyOf(minCellY, capacity);
+    maxCellX = Arrays.copyOf(maxCellX, capacity);
+    maxCellY = Arrays.copyOf(maxCellY, capacity);
+    queryStamps = Arrays.copyOf(queryStamps, capacity);
+  }
+
+  private int nextQueryStamp() {
+    if (++queryStamp == 0) {
+      Arrays.fill(queryStamps, 0);
+      queryStamp = 1;
+    }
+    return queryStamp;
+  }
+
+  private int toCellX(double x) {
+    return (int) Math.floor(x / cellWidth);
+  }
+
+  private int toCellY(double y) {
+    return (int) Math.floor(y / cellHeight);
+  }
+
+  private static long getKey(int cellX, int cellY) {
+    return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+  }
+
+  private static int hash(long key) {
+    key *= 0x9E3779B97F4A7C15L;
+    return (int) (key ^ (key >>> 32));
+  }
+}
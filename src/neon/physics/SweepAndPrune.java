@@ -0,0 +1,296 @@
+package neon.physics;
+
+import java.util.Arrays;
+
+/**
+ * A broadphase that keeps the X bounds of every hitbox in a sorted array of endpoints. Since most
+ * hitboxes only move slightly between ticks, the array is nearly sorted when it is updated and is
+ * re-sorted with an insertion sort in close to linear time. The overlapping pairs are then found
+ * with a single sweep along the X axis.<br>
+ * Each added hitbox is identified by an integer proxy. When the overlapping pairs change, the
+ * listener is notified of every pair whose bounds began or stopped intersecting. This class is not
+ * thread-safe.
+ */
+public class SweepAndPrune {
+  private final OverlapListener listener;
+
+  // Proxies
+  private Hitbox[] hitboxes = new Hitbox[16];
+  private double[] lowX = new double[16];
+  private double[] highX = new double[16];
+  private double[] lowY = new double[16];
+  private double[] highY = new double[16];
+  private int[] activeIndices = new int[16];
+  private int[] freeProxies = new int[16];
+  private int freeProxyCount;
+  private int nextProxy;
+  private int proxyCount;
+
+  // Endpoints, where each one stores its proxy shifted left by one and whether it is a high bound
+  private double[] endpointValues = new double[32];
+  private int[] endpoints = new int[32];
+  private int endpointCount;
+
+  // Pairs, stored as sorted keys containing the lower proxy in the high bits
+  private long[] pairs = new long[64];
+  private int pairCount;
+  private long[] previousPairs = new long[64];
+
+  private int[] activeProxies = new int[16];
+
+  /** @param listener the listener notified when pairs begin or stop overlapping, or null */
+  public SweepAndPrune(OverlapListener listener) {
+    this.listener = listener;
+  }
+
+  /** @return the number of hitboxes in the broadphase */
+  public int size() {
+    return proxyCount;
+  }
+
+  /**
+   * Adds a hitbox to the broadphase. Its overlaps are found on the next update.
+   *
+   * @param hitbox the hitbox
+   * @return the proxy identifying the hitbox in the broadphase
+   */
+  public int add(Hitbox hitbox) {
+    int proxy;
+    if (freeProxyCount > 0) {
+      proxy = freeProxies[--freeProxyCount];
+    } else {
+      proxy = nextProxy++;
+      if (proxy == hitboxes.length) {
+        int capacity = proxy * 2;
+        hitboxes = Arrays.copyOf(hitboxes, capacity);
+        lowX = Arrays.copyOf(lowX, capacity);
+        highX = Arrays.copyOf(highX, capacity);
+        lowY = Arrays.copyOf(lowY, capacity);
+        highY = Arrays.copyOf(highY, capacity);
+        activeIndices = Arrays.copyOf(activeIndices, capacity);
+        activeProxies = Arrays.copyOf(activeProxies, capacity);
+      }
+    }
+
+    hitboxes[proxy] = hitbox;
+    cacheBounds(proxy);
+    if (endpointCount + 2 > endpoints.length) {
+      endpointValues = Arrays.copyOf(endpointValues, endpoints.length * 2);
+      endpoints = Arrays.copyOf(endpoints, endpoints.length * 2);
+    }
+    // The endpoints are appended and moved into place by the insertion sort on the next update
+    endpointValues[endpointCount] = lowX[proxy];
+    endpoints[endpointCount++] = proxy << 1;
+    endpointValues[endpointCount] = highX[proxy];
+    endpoints[endpointCount++] = (proxy << 1) | 1;
+    proxyCount++;
+    return proxy;
+  }
+
+  /**
+   * Removes a hitbox from the broadphase. The listener is immediately notified that its overlapping
+   * pairs ended. Its proxy may be reused by hitboxes added afterwards.
+   *
+   * @param proxy the proxy of the hitbox
+   */
+  public void remove(int proxy) {
+    int newEndpointCount = 0;
+    for (int i = 0; i < endpointCount; i++) {
+      if (endpoints[i] >> 1 != proxy) {
+        endpointValues[newEndpointCount] = endpointValues[i];
+        endpoints[newEndpointCount++] = endpoints[i];
+      }
+    }
+    endpointCount = newEndpointCount;
+
+    int newPairCount = 0;
+    for (int i = 0; i < pairCount; i++) {
+      long pair = pairs[i];
+      int first = (int) (pair >>> 32);
+      int second = (int) pair;
+      if (first == proxy || second == proxy) {
+        if (listener != null) {
+          listener.onOverlapEnd(first, second);
+        }
+      } else {
+        pairs[newPairCount++] = pair;
+      }
+    }
+    pairCount = newPairCount;
+
+    hitboxes[proxy] = null;
+    if (freeProxyCount == freeProxies.length) {
+      freeProxies = Arrays.copyOf(freeProxies, freeProxyCount * 2);
+    }
+    freeProxies[freeProxyCount++] = proxy;
+    proxyCount--;
+  }
+
+  /**
+   * @param proxy the proxy of the hitbox
+   * @return the hitbox
+   */
+  public Hitbox getHitbox(int proxy) {
+    return hitboxes[proxy];
+  }
+
+  /**
+   * Reads the bounds of every hitbox, re-sorts the endpoints and finds the overlapping pairs. The
+   * listener is notified of every pair that began or stopped overlapping since the last update.
+   */
+  public void update() {
+    // Every bound is read before any endpoint is written, so the endpoints of a proxy always match
+    for (int i = 0; i < endpointCount; i++) {
+      if ((endpoints[i] & 1) == 0) {
+        cacheBounds(endpoints[i] >> 1);
+      }
+    }
+    for (int i = 0; i < endpointCount; i++) {
+      int proxy = endpoints[i] >> 1;
+      endpointValues[i] = (endpoints[i] & 1) == 0 ? lowX[proxy] : highX[proxy];
+    }
+    sortEndpoints();
+
+    long[] swap = previousPairs;
+    previousPairs = pairs;
+    pairs = swap;
+    int previousPairCount = pairCount;
+    findPairs();
+    Arrays.sort(pairs, 0, pairCount);
+    if (listener != null) {
+      notifyListener(previousPairCount);
+    }
+  }
+
+  /** @return the number of pairs of hitboxes that overlapped in the last update */
+  public int getPairCount() {
+    return pairCount;
+  }
+
+  /**
+   * Copies the pairs of hitboxes that overlapped in the last update.
+   *
+   * @param pairs the array the pairs are stored in, with the two proxies of the nth pair at indices
+   *     2n and 2n + 1
+   * @return the number of pairs, which may exceed half the length of the array, in which case the
+   *     remaining pairs were not stored
+   */
+  public int getPairs(int[] pairs) {
+    for (int i = 0; i < pairCount && i * 2 + 1 < pairs.length; i++) {
+      pairs[i * 2] = (int) (this.pairs[i] >>> 32);
+      pairs[i * 2 + 1] = (int) this.pairs[i];
+    }
+    return pairCount;
+  }
+
+  private void cacheBounds(int proxy) {
+    Hitbox hitbox = hitboxes[proxy];
+    lowX[proxy] = hitbox.getLowerXBound();
+    highX[proxy] = hitbox.getHigherXBound();
+    lowY[proxy] = hitbox.getLowerYBound();
+    highY[proxy] = hitbox.getHigherYBound();
+  }
+
+  private void sortEndpoints() {
+    for (int i = 1; i < endpointCount; i++) {
+      double value = endpointValues[i];
+      int endpoint = endpoints[i];
+      int j = i - 1;
+      while (j >= 0 && isBefore(value, endpoint, endpointValues[j], endpoints[j])) {
+        endpointValues[j + 1] = endpointValues[j];
+        endpoints[j + 1] = endpoints[j];
+        j--;
+      }
+      endpointValues[j + 1] = value;
+      endpoints[j + 1] = endpoint;
+    }
+  }
+
+  /**
+   * High bounds are sorted before low bounds of equal value, so touching bounds do not overlap. The
+   * bounds of a hitbox with no width are kept between them, with the low bound first.
+   */
+  private boolean isBefore(double value, int endpoint, double otherValue, int otherEndpoint) {
+    if (value != otherValue) {
+      return value < otherValue;
+    }
+
+    int group = getTieGroup(endpoint);
+    int otherGroup = getTieGroup(otherEndpoint);
+    return group < otherGroup || (group == otherGroup && endpoint < otherEndpoint);
+  }
+
+  private int getTieGroup(int endpoint) {
+    int proxy = endpoint >> 1;
+    if (lowX[proxy] == highX[proxy]) {
+      return 1;
+    }
+    return (endpoint & 1) == 0 ? 2 : 0;
+  }
+
+  private void findPairs() {
+    pairCount = 0;
+    int activeCount = 0;
+    for (int i = 0; i < endpointCount; i++) {
+      int proxy = endpoints[i] >> 1;
+      if ((endpoints[i] & 1) == 0) {
+        for (int j = 0; j < activeCount; j++) {
+          int other = activeProxies[j];
+          if (lowY[proxy] < highY[other] && highY[proxy] > lowY[other]) {
+            addPair(Math.min(proxy, other), Math.max(proxy, other));
+          }
+        }
+        activeIndices[proxy] = activeCount;
+        activeProxies[activeCount++] = proxy;
+      } else {
+        int last = activeProxies[--activeCount];
+        activeProxies[activeIndices[proxy]] = last;
+        activeIndices[last] = activeIndices[proxy];
+      }
+    }
+  }
+
+  private void addPair(int first, int second) {
+    if (pairCount == pairs.length) {
+      pairs = Arrays.copyOf(pairs, pairCount * 2);
+    }
+    pairs[pairCount++] = ((long) first << 32) | second;
+  }
+
+  /** Merges the sorted current and previous pairs to find the pairs that began and ended. */
+  private void notifyListener(int previousPairCount) {
+    int i = 0;
+    int j = 0;
+    while (i < pairCount || j < previousPairCount) {
+      if (j == previousPairCount || (i < pairCount && pairs[i] < previousPairs[j])) {
+        listener.onOverlapBegin((int) (pairs[i] >>> 32), (int) pairs[i]);
+        i++;
+      } else if (i == pairCount || previousPairs[j] < pairs[i]) {
+        listener.onOverlapEnd((int) (previousPairs[j] >>> 32), (int) previousPairs[j]);
+        j++;
+      } else {
+        i++;
+        j++;
+      }
+    }
+  }
+
+  /** A listener notified when the bounds of two hitboxes begin or stop intersecting. */
+  public interface OverlapListener {
+    /**
+     * Called when the bounds of two hitboxes begin intersecting.
+     *
+     * @param first the lower proxy of the pair
+     * @param second the higher proxy of the pair
+     */
+    void onOverlapBegin(int first, int second);
+
+    /**
+     * Called when the bounds of two hitboxes stop intersecting or one of them is removed.
+     *
+     * @param first the lower proxy of the pair
+     * @param second the higher proxy of the pair
+     */
+    void onOverlapEnd(int first, int second);
+  }
+}
@@ -0,0 +1,280 @@
+package neon.physics;
+
+import neon.rendering.UnitConverter;
+
+/**
+ * A class used to find when a moving hitbox first hits another hitbox during a tick, so fast
+ * hitboxes cannot pass through thin hitboxes between ticks. Like {@link Narrowphase}, checks are
+ * dispatched through a table indexed by the shapes of both hitboxes, hitboxes of unknown shapes are
+ * checked using their bounds and circles are measured in width units.
+ */
+public class SweptCollision {
+  private static final SweepTest[][] TESTS = {
+    {SweptCollision::sweepRectangles, SweptCollision::sweepRectangleAgainstCircle},
+    {SweptCollision::sweepCircleAgainstRectangle, SweptCollision::sweepCircles}
+  };
+
+  /**
+   * Finds when a moving hitbox first hits a stationary hitbox.
+   *
+   * @param moving the moving hitbox, at its position at the start of the movement
+   * @param displacement how far the hitbox moves
+   * @param other the stationary hitbox
+   * @param contact the contact the normal at the time of impact is stored in, or null. If the
+   *     hitboxes already intersect, the depth is their overlap, and it is 0 otherwise.
+   * @return the fraction of the movement after which the hitboxes first touch, which is 0 if they
+   *     already intersect, or -1 if they do not touch during the movement
+   */
+  public static double getTimeOfImpact(
+      Hitbox moving, Vector2D displacement, Hitbox other, Contact contact) {
+    if (Narrowphase.collide(moving, other, contact)) {
+      return 0;
+    }
+
+    return TESTS[moving.getShapeIndex()][other.getShapeIndex()].test(
+        moving, displacement.getX(), displacement.getY(), other, contact);
+  }
+
+  /**
+   * Finds the bounds covering a hitbox over its whole movement, which can be used to query a
+   * broadphase for the hitboxes it may hit.
+   *
+   * @param hitbox the hitbox, at its position at the start of the movement
+   * @param displacement how far the hitbox moves
+   * @param result the hitbox the bounds are stored in, or null to create a new hitbox
+   * @return the hitbox containing the bounds
+   */
+  public static RectangularHitbox getSweptBounds(
+      Hitbox hitbox, Vector2D displacement, RectangularHitbox result) {
+    double lowX = hitbox.getLowerXBound() + Math.min(displacement.getX(), 0);
+    double highX = hitbox.getHigherXBound() + Math.max(displacement.getX(), 0);
+    double lowY = hitbox.getLowerYBound() + Math.min(displacement.getY(), 0);
+    double highY = hitbox.getHigherYBound() + Math.max(displacement.getY(), 0);
+    if (result == null) {
+      return new RectangularHitbox(
+          new Vector2D((lowX + highX) / 2, (lowY + highY) / 2), highX - lowX, highY - lowY);
+    }
+
+    result.getCenter().set((lowX + highX) / 2, (lowY + highY) / 2);
+    result.setWidth(highX - lowX);
+    result.setHeight(highY - lowY);
+    return result;
+  }
+
+  private static double sweepRectangles(
+      Hitbox moving, double displacementX, double displacementY, Hitbox other, Contact contact) {
+    double halfWidth = moving.getWidth() / 2;
+    double halfHeight = moving.getHeight() / 2;
+    Vector2D center = moving.getCenter();
+    return sweepPoint(
+        center.getX(),
+        center.getY(),
+        displacementX,
+        displacementY,
+        other.getLowerXBound() - halfWidth,
+        other.getHigherXBound() + halfWidth,
+        other.getLowerYBound() - halfHeight,
+        other.getHigherYBound() + halfHeight,
+        contact);
+  }
+
+  private static double sweepCircles(
+      Hitbox moving, double displacementX, double displacementY, Hitbox other, Contact contact) {
+    double heightToWidth = UnitConverter.toWidth(1);
+    Vector2D center = moving.getCenter();
+    Vector2D otherCenter = other.getCenter();
+    double time =
+        sweepPoint(
+            center.getX(),
+            center.getY() * heightToWidth,
+            displacementX,
+            displacementY * heightToWidth,
+            otherCenter.getX(),
+            otherCenter.getY() * heightToWidth,
+            ((CircularHitbox) moving).getRadiusWidth() + ((CircularHitbox) other).getRadiusWidth(),
+            contact);
+    if (time >= 0 && contact != null) {
+      Vector2D normal = contact.getNormal();
+      Narrowphase.setContact(contact, normal.getX(), normal.getY(), 0, heightToWidth);
+    }
+    return time;
+  }
+
+  /**
+   * The area the center of the circle cannot enter is the rectangle with rounded corners, which is
+   * the union of the rectangle extended horizontally, the rectangle extended vertically and a
+   * circle at each corner. The circle first hits the rectangle when its center first enters any of
+   * them. Y-values are converted to width units first, so the corners are round in width units.
+   */
+  private static double sweepCircleAgainstRectangle(
+      Hitbox moving, double displacementX, double displacementY, Hitbox other, Contact contact) {
+    double radius = ((CircularHitbox) moving).getRadiusWidth();
+    double heightToWidth = UnitConverter.toWidth(1);
+    Vector2D center = moving.getCenter();
+    double x = center.getX();
+    double y = center.getY() * heightToWidth;
+    displacementY *= heightToWidth;
+    double lowX = other.getLowerXBound();
+    double highX = other.getHigherXBound();
+    double lowY = other.getLowerYBound() * heightToWidth;
+    double highY = other.getHigherYBound() * heightToWidth;
+    double horizontalTime =
+        sweepPoint(
+            x,
+            y,
+            displacementX,
+            displacementY,
+            lowX - radius,
+            highX + radius,
+            lowY,
+            highY,
+            null);
+    double verticalTime =
+        sweepPoint(
+            x,
+            y,
+            displacementX,
+            displacementY,
+            lowX,
+            highX,
+            lowY - radius,
+            highY + radius,
+            null);
+    double time = getEarliestTime(horizontalTime, verticalTime);
+    for (int corner = 0; corner < 4; corner++) {
+      double cornerX = (corner & 1) == 0 ? lowX : highX;
+      double cornerY = (corner & 2) == 0 ? lowY : highY;
+      time =
+          getEarliestTime(
+              time,
+              sweepPoint(x, y, displacementX, displacementY, cornerX, cornerY, radius, null));
+    }
+
+    if (time >= 0 && contact != null) {
+      // The normal points from the center at the time of impact towards the closest point
+      double impactX = x + displacementX * time;
+      double impactY = y + displacementY * time;
+      double normalX = Math.min(Math.max(impactX, lowX), highX) - impactX;
+      double normalY = Math.min(Math.max(impactY, lowY), highY) - impactY;
+      double length = Math.sqrt(normalX * normalX + normalY * normalY);
+      if (length == 0) {
+        contact.set(displacementX == 0 ? 0 : Math.signum(displacementX), 0, 0);
+      } else {
+        Narrowphase.setContact(contact, normalX / length, normalY / length, 0, heightToWidth);
+      }
+    }
+    return time;
+  }
+
+  /** Sweeping a rectangle towards a circle is the same as sweeping the circle the other way. */
+  private static double sweepRectangleAgainstCircle(
+      Hitbox moving, double displacementX, double displacementY, Hitbox other, Contact contact) {
+    double time =
+        sweepCircleAgainstRectangle(other, -displacementX, -displacementY, moving, contact);
+    if (time >= 0 && contact != null) {
+      Vector2D normal = contact.getNormal();
+      contact.set(-normal.getX(), -normal.getY(), 0);
+    }
+    return time;
+  }
+
+  /** @return when a moving point first enters a box, or -1 if it does not */
+  private static double sweepPoint(
+      double x,
+      double y,
+      double displacementX,
+      double displacementY,
+      double lowX,
+      double highX,
+      double lowY,
+      double highY,
+      Contact contact) {
+    double entryX = Double.NEGATIVE_INFINITY;
+    double exitX = Double.POSITIVE_INFINITY;
+    if (displacementX == 0) {
+      if (x <= lowX || x >= highX) {
+        return -1;
+      }
+    } else {
+      double first = (lowX - x) / displacementX;
+      double second = (highX - x) / displacementX;
+      entryX = Math.min(first, second);
+      exitX = Math.max(first, second);
+    }
+
+    double entryY = Double.NEGATIVE_INFINITY;
+    double exitY = Double.POSITIVE_INFINITY;
+    if (displacementY == 0) {
+      if (y <= lowY || y >= highY) {
+        return -1;
+      }
+    } else {
+      double first = (lowY - y) / displacementY;
+      double second = (highY - y) / displacementY;
+      entryY = Math.min(first, second);
+      exitY = Math.max(first, second);
+    }
+
+    double entry = Math.max(entryX, entryY);
+    double exit = Math.min(exitX, exitY);
+    if (entry >= exit || exit <= 0 || entry > 1) {
+      return -1;
+    }
+
+    if (contact != null) {
+      if (entryX > entryY) {
+        contact.set(Math.signum(displacementX), 0, 0);
+      } else {
+        contact.set(0, Math.signum(displacementY), 0);
+      }
+    }
+    return Math.max(entry, 0);
+  }
+
+  /** @return when a moving point first enters a circle, or -1 if it does not */
+  private static double sweepPoint(
+      double x,
+      double y,
+      double displacementX,
+      double displacementY,
+      double centerX,
+      double centerY,
+      double radius,
+      Contact contact) {
+    double offsetX = x - centerX;
+    double offsetY = y - centerY;
+    double a = displacementX * displacementX + displacementY * displacementY;
+    double b = offsetX * displacementX + offsetY * displacementY;
+    double c = offsetX * offsetX + offsetY * offsetY - radius * radius;
+    double discriminant = b * b - a * c;
+    if (a == 0 || b >= 0 || discriminant < 0) {
+      return -1;
+    }
+
+    double time = Math.max((-b - Math.sqrt(discriminant)) / a, 0);
+    if (time > 1) {
+      return -1;
+    }
+
+    if (contact != null) {
+      contact.set(
+          -(offsetX + displacementX * time) / radius,
+          -(offsetY + displacementY * time) / radius,
+          0);
+    }
+    return time;
+  }
+
+  private static double getEarliestTime(double time, double otherTime) {
+    if (time < 0) {
+      return otherTime;
+    }
+    return otherTime < 0 ? time : Math.min(time, otherTime);
+  }
+
+  @FunctionalInterface
+  private interface SweepTest {
+    double test(
+        Hitbox moving, double displacementX, double displacementY, Hitbox other, Contact contact);
+  }
+}
@@ -0,0 +1,243 @@
+package neon.physics;
+
+/**
+ * A grid of solid and empty tiles used for collisions with tile-based levels. The solidity of each
+ * tile is stored in a single bit, so a 4096 by 4096 map takes 2 megabytes. The bottom left corner
+ * of the map is at the origin, rows increase upward, and tiles outside of the map are empty.<br>
+ * Hitboxes collide with solid tiles like they collide with rectangular hitboxes. This class reuses
+ * a hitbox for the tile being checked, so it is not thread-safe.
+ */
+public class TileMap {
+  private final int columns;
+  private final int rows;
+  private final double tileWidth;
+  private final double tileHeight;
+  private final long[] tiles;
+  private final RectangularHitbox tileHitbox;
+
+  /**
+   * @param columns the number of columns
+   * @param rows the number of rows
+   * @param tileWidth the width of each tile in width units
+   * @param tileHeight the height of each tile in height units
+   */
+  public TileMap(int columns, int rows, double tileWidth, double tileHeight) {
+    this.columns = columns;
+    this.rows = rows;
+    this.tileWidth = tileWidth;
+    this.tileHeight = tileHeight;
+    tiles = new long[(int) (((long) columns * rows + 63) >>> 6)];
+    tileHitbox = new RectangularHitbox(new Vector2D(0, 0), tileWidth, tileHeight);
+  }
+
+  /** @return the number of columns */
+  public int getColumns() {
+    return columns;
+  }
+
+  /** @return the number of rows */
+  public int getRows() {
+    return rows;
+  }
+
+  /** @return the width of each tile in width units */
+  public double getTileWidth() {
+    return tileWidth;
+  }
+
+  /** @return the height of each tile in height units */
+  public double getTileHeight() {
+    return tileHeight;
+  }
+
+  /**
+   * @param column the column of the tile
+   * @param row the row of the tile
+   * @return whether the tile is solid, which is false for tiles outside of the map
+   */
+  public boolean isSolid(int column, int row) {
+    if (column < 0 || column >= columns || row < 0 || row >= rows) {
+      return false;
+    }
+
+    int index = row * columns + column;
+    return (tiles[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Sets whether a tile is solid.
+   *
+   * @param column the column of the tile
+   * @param row the row of the tile
+   * @param isSolid whether the tile is solid
+   */
+  public void setSolid(int column, int row, boolean isSolid) {
+    if (column < 0 || column >= columns || row < 0 || row >= rows) {
+      throw new IndexOutOfBoundsException("The tile is outside of the map.");
+    }
+
+    int index = row * columns + column;
+    if (isSolid) {
+      tiles[index >>> 6] |= 1L << index;
+    } else {
+      tiles[index >>> 6] &= ~(1L << index);
+    }
+  }
+
+  /**
+   * @param x the X coordinate in width units
+   * @return the column containing the coordinate
+   */
+  public int getColumn(double x) {
+    return (int) Math.floor(x / tileWidth);
+  }
+
+  /**
+   * @param y the Y coordinate in height units
+   * @return the row containing the coordinate
+   */
+  public int getRow(double y) {
+    return (int) Math.floor(y / tileHeight);
+  }
+
+  /**
+   * @param hitbox the hitbox
+   * @return whether the hitbox intersects a solid tile
+   */
+  public boolean doesIntersectHitbox(Hitbox hitbox) {
+    int lowColumn = Math.max(getColumn(hitbox.getLowerXBound()), 0);
+    int highColumn = Math.min(getHighColumn(hitbox.getHigherXBound()), columns - 1);
+    int lowRow = Math.max(getRow(hitbox.getLowerYBound()), 0);
+    int highRow = Math.min(getHighRow(hitbox.getHigherYBound()), rows - 1);
+    for (int row = lowRow; row <= highRow; row++) {
+      for (int column = lowColumn; column <= highColumn; column++) {
+        if (isSolid(column, row) && Narrowphase.collide(hitbox, getTileHitbox(column, row), null)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Shifts a hitbox so that it stops intersecting the solid tiles, like {@link
+   * Hitbox#preventIntersection(Hitbox)}. The tile the hitbox overlaps the most is resolved first,
+   * so the hitbox slides along flat surfaces made of several tiles instead of catching on the edges
+   * between them.
+   *
+   * @param hitbox the hitbox
+   * @return whether the hitbox collided with a solid tile
+   */
+  public boolean preventIntersection(Hitbox hitbox) {
+    boolean didCollide = false;
+    // Every resolution moves the hitbox out of at least one tile, so bound the number of passes
+    for (int pass = 0; pass < 8; pass++) {
+      double lowX = hitbox.getLowerXBound();
+      double highX = hitbox.getHigherXBound();
+      double lowY = hitbox.getLowerYBound();
+      double highY = hitbox.getHigherYBound();
+      int bestColumn = 0;
+      int bestRow = 0;
+      double bestArea = 0;
+      int lowColumn = Math.max(getColumn(lowX), 0);
+      int highColumn = Math.min(getHighColumn(highX), columns - 1);
+      int highRow = Math.min(getHighRow(highY), rows - 1);
+      for (int row = Math.max(getRow(lowY), 0); row <= highRow; row++) {
+        for (int column = lowColumn; column <= highColumn; column++) {
+          if (!isSolid(column, row)) {
+            continue;
+          }
+
+          double overlapX =
+              Math.min(highX, (column + 1) * tileWidth) - Math.max(lowX, column * tileWidth);
+          double overlapY =
+              Math.min(highY, (row + 1) * tileHeight) - Math.max(lowY, row * tileHeight);
+          if (overlapX * overlapY > bestArea
+              && Narrowphase.collide(hitbox, getTileHitbox(column, row), null)) {
+            bestArea = overlapX * overlapY;
+            bestColumn = column;
+            bestRow = row;
+          }
+        }
+      }
+
+      if (bestArea == 0 || !Narrowphase.separate(hitbox, getTileHitbox(bestColumn, bestRow))) {
+        break;
+      }
+      didCollide = true;
+    }
+    return didCollide;
+  }
+
+  /**
+   * Finds the first solid tile hit by a line segment by stepping through the tiles it crosses.
+   *
+   * @param start the start of the segment
+   * @param end the end of the segment
+   * @param hitPoint the vector the point where the segment first hits a solid tile is stored in, or
+   *     null
+   * @return the fraction along the segment where it first hits a solid tile, or -1 if it does not
+   */
+  public double raycast(Vector2D start, Vector2D end, Vector2D hitPoint) {
+    double startX = start.getX();
+    double startY = start.getY();
+    double directionX = end.getX() - startX;
+    double directionY = end.getY() - startY;
+    int column = getColumn(startX);
+    int row = getRow(startY);
+    int endColumn = getColumn(end.getX());
+    int endRow = getRow(end.getY());
+    int stepX = directionX > 0 ? 1 : -1;
+    int stepY = directionY > 0 ? 1 : -1;
+    // The fractions along the segment where it crosses the next vertical and horizontal tile edges
+    double deltaX = directionX == 0 ? Double.POSITIVE_INFINITY : tileWidth / Math.abs(directionX);
+    double deltaY = directionY == 0 ? Double.POSITIVE_INFINITY : tileHeight / Math.abs(directionY);
+    double nextX =
+        directionX == 0
+            ? Double.POSITIVE_INFINITY
+            : ((column + (stepX > 0 ? 1 : 0)) * tileWidth - startX) / directionX;
+    double nextY =
+        directionY == 0
+            ? Double.POSITIVE_INFINITY
+            : ((row + (stepY > 0 ? 1 : 0)) * tileHeight - startY) / directionY;
+    double fraction = 0;
+    int remainingSteps = Math.abs(endColumn - column) + Math.abs(endRow - row);
+    while (true) {
+      if (isSolid(column, row)) {
+        if (hitPoint != null) {
+          hitPoint.set(startX + directionX * fraction, startY + directionY * fraction);
+        }
+        return fraction;
+      }
+
+      if (remainingSteps-- == 0) {
+        return -1;
+      }
+
+      if (nextX < nextY) {
+        fraction = nextX;
+        nextX += deltaX;
+        column += stepX;
+      } else {
+        fraction = nextY;
+        nextY += deltaY;
+        row += stepY;
+      }
+    }
+  }
+
+  /** @return the last column overlapped by a bound, excluding the column it only touches */
+  private int getHighColumn(double x) {
+    return (int) Math.ceil(x / tileWidth) - 1;
+  }
+
+  /** @return the last row overlapped by a bound, excluding the row it only touches */
+  private int getHighRow(double y) {
+    return (int) Math.ceil(y / tileHeight) - 1;
+  }
+
+  private RectangularHitbox getTileHitbox(int column, int row) {
+    tileHitbox.getCenter().set((column + 0.5) * tileWidth, (row + 0.5) * tileHeight);
+    return tileHitbox;
+  }
+}
@@ -54,9 +54,39 @@ public class Vector2D {
     this.y = y;
   }
 
+  /**
+   * Sets the vector's x-value and y-value.
+   *
+   * @param x the new x-value
+   * @param y the new y-value
+   */
+  public void set(double x, double y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  /**
+   * Sets the vector's values to those of another vector.
+   *
+   * @param other the other vector
+   */
+  public void set(Vector2D other) {
+    set(other.x, other.y);
+  }
+
   /** @return the scalar of the vector in width units */
   public double getScalar() {
-    return Math.sqrt(Math.pow(x, 2) + Math.pow(UnitConverter.toWidth(y), 2));
+    return Math.sqrt(getScalarSquared());
+  }
+
+  /**
+   * This is cheaper than {@link #getScalar()} and is suited to comparing lengths.
+   *
+   * @return the square of the scalar of the vector in width units
+   */
+  public double getScalarSquared() {
+    double widthY = UnitConverter.toWidth(y);
+    return x * x + widthY * widthY;
   }
 
   /**
@@ -64,7 +94,20 @@ public class Vector2D {
    * @return the distance between the two vectors in width units
    */
   public double getDistanceBetween(Vector2D other) {
-    return safeSubtract(other).getScalar();
+    return Math.sqrt(getDistanceSquaredBetween(other));
+  }
+
+  /**
+   * This is cheaper than {@link #getDistanceBetween(Vector2D)} and is suited to comparing
+   * distances.
+   *
+   * @param other the second vector
+   * @return the square of the distance between the two vectors in width units
+   */
+  public double getDistanceSquaredBetween(Vector2D other) {
+    double differenceX = x - other.x;
+    double differenceY = UnitConverter.toWidth(y - other.y);
+    return differenceX * differenceX + differenceY * differenceY;
   }
 
   /**
@@ -168,6 +211,19 @@ public class Vector2D {
     return new Vector2D(this.x + x, this.y + y);
   }
 
+  /**
+   * Adds another vector to the current vector without changing its value or allocating a new
+   * vector.
+   *
+   * @param other the other vector
+   * @param result the vector the result is stored in, which may be the other vector
+   * @return the result vector
+   */
+  public Vector2D safeAdd(Vector2D other, Vector2D result) {
+    result.set(x + other.x, y + other.y);
+    return result;
+  }
+
   /**
    * Subtracts the current vector by another vector without changing its value.
    *
@@ -189,6 +245,19 @@ public class Vector2D {
     return new Vector2D(this.x - x, this.y - y);
   }
 
+  /**
+   * Subtracts the current vector by another vector without changing its value or allocating a new
+   * vector.
+   *
+   * @param other the other vector
+   * @param result the vector the result is stored in, which may be the other vector
+   * @return the result vector
+   */
+  public Vector2D safeSubtract(Vector2D other, Vector2D result) {
+    result.set(x - other.x, y - other.y);
+    return result;
+  }
+
   /**
    * Multiplies the current vector by another vector without changing its value.
    *
@@ -210,6 +279,19 @@ public class Vector2D {
     return new Vector2D(this.x * x, this.y * y);
   }
 
+  /**
+   * Multiplies the current vector by another vector without changing its value or allocating a new
+   * vector.
+   *
+   * @param other the other vector
+   * @param result the vector the result is stored in, which may be the other vector
+   * @return the result vector
+   */
+  public Vector2D safeMultiply(Vector2D other, Vector2D result) {
+    result.set(x * other.x, y * other.y);
+    return result;
+  }
+
   /**
    * Divides the current vector by another vector without changing its value.
    *
@@ -231,6 +313,19 @@ public class Vector2D {
     return new Vector2D(this.x / x, this.y / y);
   }
 
+  /**
+   * Divides the current vector by another vector without changing its value or allocating a new
+   * vector.
+   *
+   * @param other the other vector
+   * @param result the vector the result is stored in, which may be the other vector
+   * @return the result vector
+   */
+  public Vector2D safeDivide(Vector2D other, Vector2D result) {
+    result.set(x / other.x, y / other.y);
+    return result;
+  }
+
   /** @return a copy of the object */
   public Vector2D copy() {
     return new Vector2D(x, y);
@@ -0,0 +1,193 @@
+package neon.physics;
+
+import java.util.Arrays;
+
+import neon.rendering.UnitConverter;
+
+/**
+ * A growable list of two-dimensional vectors stored in two primitive arrays, one for the x-values
+ * and one for the y-values. Bulk operations over the list never allocate, which makes it suited to
+ * large numbers of bodies such as particles and bullets.
+ */
+public class Vector2DArray {
+  private double[] x;
+  private double[] y;
+  private int size;
+
+  /** @param capacity the initial number of vectors that can be stored without growing */
+  public Vector2DArray(int capacity) {
+    x = new double[Math.max(capacity, 1)];
+    y = new double[x.length];
+  }
+
+  /** @return the number of vectors in the list */
+  public int size() {
+    return size;
+  }
+
+  /** Removes every vector from the list. */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Adds a vector to the end of the list.
+   *
+   * @param x the x-value
+   * @param y the y-value
+   * @return the index of the vector
+   */
+  public int append(double x, double y) {
+    if (size == this.x.length) {
+      this.x = Arrays.copyOf(this.x, size * 2);
+      this.y = Arrays.copyOf(this.y, size * 2);
+    }
+
+    this.x[size] = x;
+    this.y[size] = y;
+    return size++;
+  }
+
+  /**
+   * Removes a vector by moving the last vector into its place.
+   *
+   * @param index the index of the vector
+   */
+  public void removeSwap(int index) {
+    size--;
+    x[index] = x[size];
+    y[index] = y[size];
+  }
+
+  /**
+   * @param index the index of the vector
+   * @return the x-value of the vector
+   */
+  public double getX(int index) {
+    return x[index];
+  }
+
+  /**
+   * @param index the index of the vector
+   * @return the y-value of the vector
+   */
+  public double getY(int index) {
+    return y[index];
+  }
+
+  /**
+   * Copies a vector of the list into another vector.
+   *
+   * @param index the index of the vector
+   * @param result the vector the values are stored in
+   * @return the result vector
+   */
+  public Vector2D get(int index, Vector2D result) {
+    result.set(x[index], y[index]);
+    return result;
+  }
+
+  /**
+   * Sets the values of a vector.
+   *
+   * @param index the index of the vector
+   * @param x the new x-value
+   * @param y the new y-value
+   */
+  public void set(int index, double x, double y) {
+    this.x[index] = x;
+    this.y[index] = y;
+  }
+
+  /**
+   * Only the first {@link #size()} values are valid. The array is replaced when the list grows.
+   *
+   * @return the x-values of the vectors
+   */
+  public double[] getXValues() {
+    return x;
+  }
+
+  /**
+   * Only the first {@link #size()} values are valid. The array is replaced when the list grows.
+   *
+   * @return the y-values of the vectors
+   */
+  public double[] getYValues() {
+    return y;
+  }
+
+  /**
+   * Adds values to every vector.
+   *
+   * @param x the x-value
+   * @param y the y-value
+   */
+  public void add(double x, double y) {
+    for (int i = 0; i < size; i++) {
+      this.x[i] += x;
+      this.y[i] += y;
+    }
+  }
+
+  /**
+   * Adds each vector of another list to the vector at the same index, multiplied by a scale. This
+   * is typically used to move positions by their velocities.
+   *
+   * @param other the other list, which must be at least as large as this list
+   * @param scale the value the other vectors are multiplied by
+   */
+  public void addScaled(Vector2DArray other, double scale) {
+    BatchKinematics.integrate(this, other, scale);
+  }
+
+  /**
+   * Multiplies every vector by values.
+   *
+   * @param x the x-value
+   * @param y the y-value
+   */
+  public void multiply(double x, double y) {
+    for (int i = 0; i < size; i++) {
+      this.x[i] *= x;
+      this.y[i] *= y;
+    }
+  }
+
+  /**
+   * Calculates the square of the distance between every vector and a point.
+   *
+   * @param point the point
+   * @param result the array the squared distances are stored in, in width units
+   */
+  public void getDistancesSquared(Vector2D point, double[] result) {
+    double pointX = point.getX();
+    double pointY = point.getY();
+    double heightToWidth = UnitConverter.toWidth(1);
+    for (int i = 0; i < size; i++) {
+      double differenceX = x[i] - pointX;
+      double differenceY = (y[i] - pointY) * heightToWidth;
+      result[i] = differenceX * differenceX + differenceY * differenceY;
+    }
+  }
+
+  /**
+   * @param point the point
+   * @param distance the maximum distance in width units
+   * @return the index of the first vector within the distance of the point, or -1 if there is none
+   */
+  public int findWithinDistance(Vector2D point, double distance) {
+    double pointX = point.getX();
+    double pointY = point.getY();
+    double heightToWidth = UnitConverter.toWidth(1);
+    double distanceSquared = distance * distance;
+    for (int i = 0; i < size; i++) {
+      double differenceX = x[i] - pointX;
+      double differenceY = (y[i] - pointY) * heightToWidth;
+      if (differenceX * differenceX + differenceY * differenceY <= distanceSquared) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
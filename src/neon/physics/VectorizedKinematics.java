@@ -0,0 +1,102 @@
+package neon.physics;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Vector API implementation of {@link BatchKinematics}. This class is only loaded when the
+ * jdk.incubator.vector module is present.
+ */
+class VectorizedKinematics {
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+  static void integrate(double[] positions, double[] velocities, double timeStep, int count) {
+    int i = 0;
+    for (int bound = SPECIES.loopBound(count); i < bound; i += SPECIES.length()) {
+      DoubleVector position = DoubleVector.fromArray(SPECIES, positions, i);
+      DoubleVector velocity = DoubleVector.fromArray(SPECIES, velocities, i);
+      // A separate multiply and add keeps the results identical to the scalar loop
+      position.add(velocity.mul(timeStep)).intoArray(positions, i);
+    }
+    for (; i < count; i++) {
+      positions[i] += velocities[i] * timeStep;
+    }
+  }
+
+  static int findIntersections(
+      double[] x,
+      double[] y,
+      double[] halfWidths,
+      double[] halfHeights,
+      int count,
+      double lowX,
+      double highX,
+      double lowY,
+      double highY,
+      int[] result) {
+    int resultCount = 0;
+    int i = 0;
+    for (int bound = SPECIES.loopBound(count); i < bound; i += SPECIES.length()) {
+      DoubleVector centerX = DoubleVector.fromArray(SPECIES, x, i);
+      DoubleVector centerY = DoubleVector.fromArray(SPECIES, y, i);
+      DoubleVector halfWidth = DoubleVector.fromArray(SPECIES, halfWidths, i);
+      DoubleVector halfHeight = DoubleVector.fromArray(SPECIES, halfHeights, i);
+      VectorMask<Double> mask =
+          centerX
+              .sub(halfWidth)
+              .lt(highX)
+              .and(centerX.add(halfWidth).compare(VectorOperators.GT, lowX))
+              .and(centerY.sub(halfHeight).lt(highY))
+              .and(centerY.add(halfHeight).compare(VectorOperators.GT, lowY));
+      resultCount = appendIndices(mask.toLong(), i, result, resultCount);
+    }
+    for (; i < count; i++) {
+      if (x[i] - halfWidths[i] < highX
+          && x[i] + halfWidths[i] > lowX
+          && y[i] - halfHeights[i] < highY
+          && y[i] + halfHeights[i] > lowY) {
+        result[resultCount++] = i;
+      }
+    }
+    return resultCount;
+  }
+
+  static int findPointsWithin(
+      double[] x,
+      double[] y,
+      int count,
+      double lowX,
+      double highX,
+      double lowY,
+      double highY,
+      int[] result) {
+    int resultCount = 0;
+    int i = 0;
+    for (int bound = SPECIES.loopBound(count); i < bound; i += SPECIES.length()) {
+      DoubleVector pointX = DoubleVector.fromArray(SPECIES, x, i);
+      DoubleVector pointY = DoubleVector.fromArray(SPECIES, y, i);
+      VectorMask<Double> mask =
+          pointX
+              .lt(highX)
+              .and(pointX.compare(VectorOperators.GT, lowX))
+              .and(pointY.lt(highY))
+              .and(pointY.compare(VectorOperators.GT, lowY));
+      resultCount = appendIndices(mask.toLong(), i, result, resultCount);
+    }
+    for (; i < count; i++) {
+      if (x[i] < highX && x[i] > lowX && y[i] < highY && y[i] > lowY) {
+        result[resultCount++] = i;
+      }
+    }
+    return resultCount;
+  }
+
+  private static int appendIndices(long bits, int offset, int[] result, int resultCount) {
+    for (; bits != 0; bits &= bits - 1) {
+      result[resultCount++] = offset + Long.numberOfTrailingZeros(bits);
+    }
+    return resultCount;
+  }
+}
@@ -0,0 +1,16 @@
+package neon.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A Java Flight Recorder event emitted when the contents of the buffer strategy are lost. */
+@Name("neon.ContentsLost")
+@Label("Buffer Contents Lost")
+@Category({"Neon", "Rendering"})
+@Description("The contents of the buffer strategy were lost and the frame is rendered again")
+@StackTrace(false)
+public class ContentsLostEvent extends Event {}
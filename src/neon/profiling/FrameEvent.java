@@ -0,0 +1,20 @@
+package neon.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A Java Flight Recorder event emitted for each frame rendered by the game. */
+@Name("neon.Frame")
+@Label("Frame")
+@Category({"Neon", "Rendering"})
+@Description("Input polling, rendering and showing a single frame")
+@StackTrace(false)
+public class FrameEvent extends Event {
+  @Label("Interpolation Factor")
+  @Description("The fraction of a tick that had passed since the last tick")
+  public double alpha;
+}
@@ -0,0 +1,52 @@
+package neon.profiling;
+
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import neon.critical.EngineContext;
+
+/**
+ * A Java Flight Recorder event emitted after each tick with the number of hitbox intersection
+ * queries made during the tick. Queries are only counted while the event is enabled, and are
+ * counted separately for each engine context.
+ */
+@Name("neon.HitboxQueries")
+@Label("Hitbox Queries")
+@Category({"Neon", "Physics"})
+@Description("The number of hitbox intersection queries made during a tick")
+@StackTrace(false)
+public class HitboxQueryEvent extends Event {
+  private static final EventType eventType = EventType.getEventType(HitboxQueryEvent.class);
+
+  @Label("Query Count")
+  public long queryCount;
+
+  /** WARNING: Do not call this method. It is only to be called by core library classes. */
+  public static void recordQuery() {
+    if (eventType.isEnabled()) {
+      EngineContext context = EngineContext.current();
+      if (context != null) {
+        context.getHitboxQueryCount().increment();
+      }
+    }
+  }
+
+  /**
+   * WARNING: Do not call this method. It is only to be called by core library classes.
+   *
+   * @param queryCount the number of queries made by the context since the last commit
+   */
+  public static void commitQueries(LongAdder queryCount) {
+    HitboxQueryEvent event = new HitboxQueryEvent();
+    if (event.shouldCommit()) {
+      event.queryCount = queryCount.sumThenReset();
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package neon.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A Java Flight Recorder event emitted each time the input queues are drained. */
+@Name("neon.InputBatch")
+@Label("Input Batch")
+@Category({"Neon", "Input"})
+@Description("The number of input events drained from the input queues")
+@StackTrace(false)
+public class InputBatchEvent extends Event {
+  @Label("Key Presses")
+  public int keyPressCount;
+
+  @Label("Key Releases")
+  public int keyReleaseCount;
+
+  @Label("Keys Typed")
+  public int keyTypeCount;
+
+  @Label("Mouse Presses")
+  public int mousePressCount;
+
+  @Label("Mouse Releases")
+  public int mouseReleaseCount;
+}
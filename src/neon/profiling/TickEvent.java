@@ -0,0 +1,20 @@
+package neon.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A Java Flight Recorder event emitted for each tick of the game. */
+@Name("neon.Tick")
+@Label("Tick")
+@Category({"Neon", "Engine"})
+@Description("A single call to Game.tick()")
+@StackTrace(false)
+public class TickEvent extends Event {
+  @Label("Catch-Up Index")
+  @Description("The number of ticks already run during the same pass of the game loop")
+  public int catchUpIndex;
+}
@@ -0,0 +1,2 @@
+/** A package that contains the Java Flight Recorder events emitted by the game library. */
+package neon.profiling;
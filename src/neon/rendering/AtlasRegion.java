@@ -0,0 +1,52 @@
+package neon.rendering;
+
+import java.awt.image.BufferedImage;
+
+/** A rectangular region of an image, such as a sprite packed into a texture atlas. */
+public class AtlasRegion {
+  private final BufferedImage image;
+  private final int x;
+  private final int y;
+  private final int width;
+  private final int height;
+
+  /**
+   * @param image the image containing the region
+   * @param x the x-value of the region's top left corner in pixels
+   * @param y the y-value of the region's top left corner in pixels
+   * @param width the width of the region in pixels
+   * @param height the height of the region in pixels
+   */
+  public AtlasRegion(BufferedImage image, int x, int y, int width, int height) {
+    this.image = image;
+    this.x = x;
+    this.y = y;
+    this.width = width;
+    this.height = height;
+  }
+
+  /** @return the image containing the region */
+  public BufferedImage getImage() {
+    return image;
+  }
+
+  /** @return the x-value of the region's top left corner in pixels */
+  public int getX() {
+    return x;
+  }
+
+  /** @return the y-value of the region's top left corner in pixels */
+  public int getY() {
+    return y;
+  }
+
+  /** @return the width of the region in pixels */
+  public int getWidth() {
+    return width;
+  }
+
+  /** @return the height of the region in pixels */
+  public int getHeight() {
+    return height;
+  }
+}
@@ -0,0 +1,561 @@
+package neon.rendering;
+
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import neon.physics.CircularHitbox;
+import neon.physics.Hitbox;
+
+/**
+ * A class used to repaint only the parts of the screen that changed, for games whose frames are
+ * not cleared. Tracked objects have their screen bounds recorded every frame, and an object that
+ * moved, resized, appeared or disappeared marks both its previous and its current bounds as dirty.
+ * The dirty rectangles are merged into a small set, and the graphics are clipped to them, so
+ * everything drawn outside of them is skipped.<br>
+ * A tracker is used by setting it with {@link neon.critical.EngineContext#setDirtyRegionTracker},
+ * which has no effect if the window settings clear frames. Each frame, the engine calls {@link
+ * #update()}, and then renders the game once for each dirty rectangle with the graphics clipped to
+ * it, or skips rendering entirely if nothing is dirty. The game still draws all of its objects,
+ * including its background, and the smart draw methods of {@link RenderSystem} skip objects
+ * outside of the clip before drawing them.<br>
+ * Objects that change how they look without changing their bounds, such as a shape changing its
+ * color, must be passed to {@link #invalidate(Object)}.<br>
+ * The bounds are read from the current positions of the tracked objects, not from where they are
+ * drawn. Tracked objects must therefore be drawn at their current positions and must not be
+ * interpolated with the alpha passed to {@link neon.critical.Game#render(Graphics, double)},
+ * since pixels drawn at an interpolated position may lie outside every dirty rectangle and are
+ * never erased.<br>
+ * Note: This class is not thread-safe.
+ */
+public class DirtyRegionTracker {
+  private static final int SHAPE = 0;
+  private static final int IMAGE = 1;
+  private static final int TEXT = 2;
+  private static final int HITBOX = 3;
+  private final int width;
+  private final int height;
+  private final int maxRectangleCount;
+  private final IdentityHashMap<Object, Integer> indices = new IdentityHashMap<>();
+  private final int[] scratchBounds = new int[4];
+  private final RectangleSet region;
+  private Object[] objects = new Object[16];
+  private int[] kinds = new int[16];
+  private int[] bounds = new int[64];
+  private boolean[] hasBounds = new boolean[16];
+  private boolean[] isInvalidated = new boolean[16];
+  private int objectCount;
+  private RectangleSet pending;
+  private RectangleSet[] history;
+  private int historyIndex;
+  private int bufferAge = 1;
+  private int fullFrameCount = 1;
+
+  /**
+   * @param width the width of the screen in pixels
+   * @param height the height of the screen in pixels
+   */
+  public DirtyRegionTracker(int width, int height) {
+    this(width, height, 8);
+  }
+
+  /**
+   * @param width the width of the screen in pixels
+   * @param height the height of the screen in pixels
+   * @param maxRectangleCount the number of dirty rectangles past which the closest rectangles are
+   *     merged, even if their union covers pixels that did not change
+   */
+  public DirtyRegionTracker(int width, int height, int maxRectangleCount) {
+    if (maxRectangleCount < 1) {
+      throw new IllegalArgumentException("At least one dirty rectangle must be allowed.");
+    }
+    this.width = width;
+    this.height = height;
+    this.maxRectangleCount = maxRectangleCount;
+    pending = new RectangleSet(maxRectangleCount);
+    history = new RectangleSet[] {new RectangleSet(maxRectangleCount)};
+    region = new RectangleSet(maxRectangleCount);
+  }
+
+  /**
+   * Tracks a shape, redrawing it whenever its hitbox moves or resizes.
+   *
+   * @param shape the shape
+   */
+  public void track(DrawableShape shape) {
+    track(shape, SHAPE);
+  }
+
+  /**
+   * Tracks an image, redrawing it whenever its hitbox moves or resizes.
+   *
+   * @param imgObj the image
+   */
+  public void track(ImageObject imgObj) {
+    track(imgObj, IMAGE);
+  }
+
+  /**
+   * Tracks text, redrawing it whenever its hitbox moves or resizes.
+   *
+   * @param textObj the text
+   */
+  public void track(TextObject textObj) {
+    track(textObj, TEXT);
+  }
+
+  /**
+   * Tracks anything drawn within a hitbox, such as a texture atlas region, redrawing it whenever
+   * the hitbox moves or resizes.
+   *
+   * @param hitbox the hitbox
+   */
+  public void track(Hitbox hitbox) {
+    track(hitbox, HITBOX);
+  }
+
+  private void track(Object object, int kind) {
+    if (indices.containsKey(object)) {
+      return;
+    }
+
+    if (objectCount == objects.length) {
+      int capacity = objectCount * 2;
+      objects = Arrays.copyOf(objects, capacity);
+      kinds = Arrays.copyOf(kinds, capacity);
+      bounds = Arrays.copyOf(bounds, capacity * 4);
+      hasBounds = Arrays.copyOf(hasBounds, capacity);
+      isInvalidated = Arrays.copyOf(isInvalidated, capacity);
+    }
+    indices.put(object, objectCount);
+    objects[objectCount] = object;
+    kinds[objectCount] = kind;
+    hasBounds[objectCount] = false;
+    isInvalidated[objectCount] = false;
+    objectCount++;
+  }
+
+  /**
+   * Stops tracking an object, marking the bounds it was last drawn in as dirty.
+   *
+   * @param object the shape, image, text or hitbox
+   */
+  public void untrack(Object object) {
+    Integer index = indices.remove(object);
+    if (index == null) {
+      return;
+    }
+
+    int i = index;
+    if (hasBounds[i]) {
+      pending.add(bounds[i * 4], bounds[i * 4 + 1], bounds[i * 4 + 2], bounds[i * 4 + 3]);
+    }
+
+    // Move the last object into the removed object's slot
+    int last = --objectCount;
+    if (i != last) {
+      objects[i] = objects[last];
+      kinds[i] = kinds[last];
+      System.arraycopy(bounds, last * 4, bounds, i * 4, 4);
+      hasBounds[i] = hasBounds[last];
+      isInvalidated[i] = isInvalidated[last];
+      indices.put(objects[i], i);
+    }
+    objects[last] = null;
+  }
+
+  /**
+   * Marks a tracked object as dirty for the next frame, even if its bounds did not change.
+   *
+   * @param object the shape, image, text or hitbox
+   */
+  public void invalidate(Object object) {
+    Integer index = indices.get(object);
+    if (index != null) {
+      isInvalidated[index] = true;
+    }
+  }
+
+  /**
+   * Marks a rectangle of the screen as dirty for the next frame.
+   *
+   * @param x the x-value of the rectangle's top left corner in pixels
+   * @param y the y-value of the rectangle's top left corner in pixels
+   * @param width the width of the rectangle in pixels
+   * @param height the height of the rectangle in pixels
+   */
+  public void markDirty(int x, int y, int width, int height) {
+    pending.add(x, y, x + width, y + height);
+  }
+
+  /**
+   * Marks the whole screen as dirty, both for the current frame and until every buffer has been
+   * repainted. The engine calls this when the contents of its buffers are lost.
+   */
+  public void markAllDirty() {
+    region.clear();
+    region.add(0, 0, width, height);
+    fullFrameCount = Math.max(bufferAge - 1, 0);
+  }
+
+  /**
+   * Sets how many frames old the contents of a back buffer are when it is drawn to. With a blit
+   * buffer strategy, the back buffer keeps the previous frame and the age is 1. With a page
+   * flipping strategy, the back buffer keeps the frame drawn to it one buffer count ago. An age of
+   * 0 means that the contents of the back buffer are not kept, and every frame is fully dirty.
+   *
+   * @param bufferAge the age of the back buffer's contents in frames
+   */
+  public void setBufferAge(int bufferAge) {
+    if (bufferAge < 0) {
+      throw new IllegalArgumentException("The buffer age cannot be negative.");
+    }
+    if (bufferAge == this.bufferAge) {
+      return;
+    }
+
+    this.bufferAge = bufferAge;
+    history = new RectangleSet[Math.max(bufferAge, 1)];
+    for (int i = 0; i < history.length; i++) {
+      history[i] = new RectangleSet(maxRectangleCount);
+    }
+    historyIndex = 0;
+    fullFrameCount = bufferAge;
+  }
+
+  /** @return the age of the back buffer's contents in frames */
+  public int getBufferAge() {
+    return bufferAge;
+  }
+
+  /**
+   * Begins a frame by recording the current screen bounds of every tracked object and computing
+   * the dirty rectangles of the frame.
+   *
+   * @return whether anything needs to be repainted
+   */
+  public boolean update() {
+    for (int i = 0; i < objectCount; i++) {
+      Hitbox hitbox = getHitbox(i);
+      int offset = i * 4;
+      if (hitbox == null) {
+        if (hasBounds[i]) {
+          pending.add(bounds[offset], bounds[offset + 1], bounds[offset + 2], bounds[offset + 3]);
+          hasBounds[i] = false;
+        }
+        continue;
+      }
+
+      int[] current = scratchBounds;
+      RenderSystem.getScreenBounds(hitbox, width, height, current);
+      if (kinds[i] == TEXT) {
+        int descent = (int) Math.ceil(((TextObject) objects[i]).getDescent() * height);
+        current[1] -= descent;
+        current[3] += descent;
+      }
+      boolean hasMoved =
+          !hasBounds[i]
+              || current[0] != bounds[offset]
+              || current[1] != bounds[offset + 1]
+              || current[2] != bounds[offset + 2]
+              || current[3] != bounds[offset + 3];
+      if (hasMoved || isInvalidated[i]) {
+        if (hasBounds[i]) {
+          pending.add(bounds[offset], bounds[offset + 1], bounds[offset + 2], bounds[offset + 3]);
+        }
+        pending.add(current[0], current[1], current[2], current[3]);
+        System.arraycopy(current, 0, bounds, offset, 4);
+        hasBounds[i] = true;
+        isInvalidated[i] = false;
+      }
+    }
+
+    // A back buffer has to catch up on everything that changed since it was last drawn to
+    RectangleSet finished = history[historyIndex];
+    history[historyIndex] = pending;
+    historyIndex = (historyIndex + 1) % history.length;
+    region.clear();
+    if (bufferAge == 0 || fullFrameCount > 0) {
+      region.add(0, 0, width, height);
+      fullFrameCount = Math.max(fullFrameCount - 1, 0);
+    } else {
+      for (RectangleSet frame : history) {
+        region.addAll(frame);
+      }
+    }
+    finished.clear();
+    pending = finished;
+
+    // Java2D draws the outline of an arc slightly differently when the clip cuts through it, so
+    // the rectangles that cut an outlined circle are grown to contain it
+    boolean hasGrown = region.count > 0;
+    while (hasGrown) {
+      hasGrown = false;
+      for (int i = 0; i < objectCount; i++) {
+        if (hasBounds[i] && isOutlinedCircle(i)) {
+          int offset = i * 4;
+          hasGrown |=
+              region.growAround(
+                  bounds[offset], bounds[offset + 1], bounds[offset + 2], bounds[offset + 3]);
+        }
+      }
+    }
+    return region.count > 0;
+  }
+
+  private boolean isOutlinedCircle(int index) {
+    return kinds[index] == SHAPE
+        && !((DrawableShape) objects[index]).doFill()
+        && getHitbox(index) instanceof CircularHitbox;
+  }
+
+  private Hitbox getHitbox(int index) {
+    Object object = objects[index];
+    return switch (kinds[index]) {
+      case SHAPE -> ((DrawableShape) object).getHitbox();
+      case IMAGE -> ((ImageObject) object).getHitbox();
+      case TEXT -> ((TextObject) object).getHitbox();
+      default -> (Hitbox) object;
+    };
+  }
+
+  /**
+   * Clips graphics to one of the dirty rectangles of the current frame. Each rectangle is painted
+   * on its own, since Java2D draws some shapes, such as arcs, slightly differently when clipped to
+   * a shape that is not a rectangle, which would leave seams.
+   *
+   * @param graphics the graphics object used to draw the game's graphics
+   * @param index the index of the dirty rectangle
+   * @throws IndexOutOfBoundsException if there is no rectangle with the index
+   */
+  public void clip(Graphics graphics, int index) throws IndexOutOfBoundsException {
+    if (index < 0 || index >= region.count) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    int[] coordinates = region.coordinates;
+    int offset = index * 4;
+    graphics.setClip(
+        coordinates[offset],
+        coordinates[offset + 1],
+        coordinates[offset + 2] - coordinates[offset],
+        coordinates[offset + 3] - coordinates[offset + 1]);
+  }
+
+  /**
+   * @param hitbox the hitbox
+   * @return whether the hitbox's screen bounds intersect the dirty rectangles of the current frame
+   */
+  public boolean isDirty(Hitbox hitbox) {
+    int[] current = scratchBounds;
+    RenderSystem.getScreenBounds(hitbox, width, height, current);
+    int[] coordinates = region.coordinates;
+    for (int i = 0; i < region.count * 4; i += 4) {
+      if (current[0] < coordinates[i + 2]
+          && coordinates[i] < current[2]
+          && current[1] < coordinates[i + 3]
+          && coordinates[i + 1] < current[3]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** @return the number of dirty rectangles in the current frame */
+  public int getRectangleCount() {
+    return region.count;
+  }
+
+  /**
+   * @param index the index of the dirty rectangle
+   * @return a dirty rectangle of the current frame in pixels
+   * @throws IndexOutOfBoundsException if there is no rectangle with the index
+   */
+  public Rectangle getRectangle(int index) throws IndexOutOfBoundsException {
+    if (index < 0 || index >= region.count) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    int[] coordinates = region.coordinates;
+    int offset = index * 4;
+    return new Rectangle(
+        coordinates[offset],
+        coordinates[offset + 1],
+        coordinates[offset + 2] - coordinates[offset],
+        coordinates[offset + 3] - coordinates[offset + 1]);
+  }
+
+  /** @return the sum of the areas of the dirty rectangles of the current frame in pixels */
+  public long getDirtyArea() {
+    long area = 0;
+    int[] coordinates = region.coordinates;
+    for (int i = 0; i < region.count * 4; i += 4) {
+      long rectangleWidth = coordinates[i + 2] - coordinates[i];
+      area += rectangleWidth * (coordinates[i + 3] - coordinates[i + 1]);
+    }
+    return area;
+  }
+
+  /** @return the number of tracked objects */
+  public int size() {
+    return objectCount;
+  }
+
+  /**
+   * A set of rectangles, stored as their lower and upper corners, which merges rectangles whenever
+   * their union covers no more pixels than they do, and merges the closest ones when it is full.
+   */
+  private class RectangleSet {
+    private final int[] coordinates;
+    private int count;
+
+    private RectangleSet(int capacity) {
+      coordinates = new int[capacity * 4];
+    }
+
+    private void add(int lowX, int lowY, int highX, int highY) {
+      lowX = Math.max(lowX, 0);
+      lowY = Math.max(lowY, 0);
+      highX = Math.min(highX, width);
+      highY = Math.min(highY, height);
+      if (lowX >= highX || lowY >= highY) {
+        return;
+      }
+
+      // Absorb every rectangle that can be merged without covering extra pixels
+      for (int i = 0; i < count; ) {
+        int offset = i * 4;
+        int otherLowX = coordinates[offset];
+        int otherLowY = coordinates[offset + 1];
+        int otherHighX = coordinates[offset + 2];
+        int otherHighY = coordinates[offset + 3];
+        if (getWastedArea(lowX, lowY, highX, highY, otherLowX, otherLowY, otherHighX, otherHighY)
+            <= 0) {
+          lowX = Math.min(lowX, otherLowX);
+          lowY = Math.min(lowY, otherLowY);
+          highX = Math.max(highX, otherHighX);
+          highY = Math.max(highY, otherHighY);
+          removeRectangle(i);
+          i = 0;
+        } else {
+          i++;
+        }
+      }
+
+      if (count == coordinates.length / 4) {
+        mergeClosest(lowX, lowY, highX, highY);
+      } else {
+        setRectangle(count++, lowX, lowY, highX, highY);
+      }
+    }
+
+    private void addAll(RectangleSet other) {
+      for (int i = 0; i < other.count * 4; i += 4) {
+        add(
+            other.coordinates[i],
+            other.coordinates[i + 1],
+            other.coordinates[i + 2],
+            other.coordinates[i + 3]);
+      }
+    }
+
+    /** Merges the new rectangle with the rectangle whose union with it wastes the fewest pixels. */
+    private void mergeClosest(int lowX, int lowY, int highX, int highY) {
+      int best = 0;
+      long bestWastedArea = Long.MAX_VALUE;
+      for (int i = 0; i < count; i++) {
+        int offset = i * 4;
+        long wastedArea =
+            getWastedArea(
+                lowX,
+                lowY,
+                highX,
+                highY,
+                coordinates[offset],
+                coordinates[offset + 1],
+                coordinates[offset + 2],
+                coordinates[offset + 3]);
+        if (wastedArea < bestWastedArea) {
+          bestWastedArea = wastedArea;
+          best = i;
+        }
+      }
+
+      int offset = best * 4;
+      lowX = Math.min(lowX, coordinates[offset]);
+      lowY = Math.min(lowY, coordinates[offset + 1]);
+      highX = Math.max(highX, coordinates[offset + 2]);
+      highY = Math.max(highY, coordinates[offset + 3]);
+      removeRectangle(best);
+
+      // The merged rectangle may now absorb others
+      add(lowX, lowY, highX, highY);
+    }
+
+    /** @return whether any rectangle that partly covered the bounds was grown to contain them */
+    private boolean growAround(int lowX, int lowY, int highX, int highY) {
+      lowX = Math.max(lowX, 0);
+      lowY = Math.max(lowY, 0);
+      highX = Math.min(highX, width);
+      highY = Math.min(highY, height);
+      boolean hasGrown = false;
+      for (int i = 0; i < count * 4; i += 4) {
+        boolean doesIntersect =
+            lowX < coordinates[i + 2]
+                && coordinates[i] < highX
+                && lowY < coordinates[i + 3]
+                && coordinates[i + 1] < highY;
+        boolean doesContain =
+            coordinates[i] <= lowX
+                && coordinates[i + 1] <= lowY
+                && highX <= coordinates[i + 2]
+                && highY <= coordinates[i + 3];
+        if (doesIntersect && !doesContain) {
+          coordinates[i] = Math.min(coordinates[i], lowX);
+          coordinates[i + 1] = Math.min(coordinates[i + 1], lowY);
+          coordinates[i + 2] = Math.max(coordinates[i + 2], highX);
+          coordinates[i + 3] = Math.max(coordinates[i + 3], highY);
+          hasGrown = true;
+        }
+      }
+      return hasGrown;
+    }
+
+    private void setRectangle(int index, int lowX, int lowY, int highX, int highY) {
+      int offset = index * 4;
+      coordinates[offset] = lowX;
+      coordinates[offset + 1] = lowY;
+      coordinates[offset + 2] = highX;
+      coordinates[offset + 3] = highY;
+    }
+
+    private void removeRectangle(int index) {
+      count--;
+      System.arraycopy(coordinates, count * 4, coordinates, index * 4, 4);
+    }
+
+    private void clear() {
+      count = 0;
+    }
+  }
+
+  /** @return the number of pixels covered by the union's bounds but by neither rectangle */
+  private static long getWastedArea(
+      int lowX,
+      int lowY,
+      int highX,
+      int highY,
+      int otherLowX,
+      int otherLowY,
+      int otherHighX,
+      int otherHighY) {
+    long unionArea =
+        (long) (Math.max(highX, otherHighX) - Math.min(lowX, otherLowX))
+            * (Math.max(highY, otherHighY) - Math.min(lowY, otherLowY));
+    long area = (long) (highX - lowX) * (highY - lowY);
+    long otherArea = (long) (otherHighX - otherLowX) * (otherHighY - otherLowY);
+    long overlapArea =
+        (long) Math.max(Math.min(highX, otherHighX) - Math.max(lowX, otherLowX), 0)
+            * Math.max(Math.min(highY, otherHighY) - Math.max(lowY, otherLowY), 0);
+    return unionArea - (area + otherArea - overlapArea);
+  }
+}
@@ -0,0 +1,143 @@
+package neon.rendering;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+import neon.critical.NeonEngine;
+import neon.critical.WindowSettings;
+import neon.utils.GeneralUtils;
+
+/**
+ * A layer of graphics that rarely change, such as a background, a tile map or the frame of a HUD.
+ * The layer is rendered once into an offscreen image, which is drawn every frame with a single
+ * image draw, no matter how many primitives it contains. The image is only rendered again after
+ * the layer is invalidated.<br>
+ * Layers are added with {@link neon.critical.EngineContext#addRenderLayer(RenderLayer)}, and are
+ * drawn in order of their depth. Layers with a negative depth are drawn before the game renders,
+ * behind its graphics, and the others are drawn after it, in front of its graphics. If the game
+ * uses a {@link DirtyRegionTracker}, rendering a layer again marks the whole screen as dirty.
+ */
+public class RenderLayer {
+  private final int depth;
+  private final boolean isOpaque;
+  private final Renderer renderer;
+  private volatile boolean isValid;
+  private BufferedImage image;
+
+  /**
+   * @param depth the order the layer is drawn in, where layers with a negative depth are drawn
+   *     behind the game's graphics
+   * @param renderer the renderer that draws the contents of the layer
+   */
+  public RenderLayer(int depth, Renderer renderer) {
+    this(depth, false, renderer);
+  }
+
+  /**
+   * @param depth the order the layer is drawn in, where layers with a negative depth are drawn
+   *     behind the game's graphics
+   * @param isOpaque whether the renderer covers every pixel of the layer with opaque colors, such
+   *     as a background, which makes drawing the layer a plain copy instead of a blend
+   * @param renderer the renderer that draws the contents of the layer
+   */
+  public RenderLayer(int depth, boolean isOpaque, Renderer renderer) {
+    this.depth = depth;
+    this.isOpaque = isOpaque;
+    this.renderer = renderer;
+  }
+
+  /** @return the order the layer is drawn in */
+  public int getDepth() {
+    return depth;
+  }
+
+  /** @return whether the layer covers every pixel with opaque colors */
+  public boolean isOpaque() {
+    return isOpaque;
+  }
+
+  /**
+   * Marks the contents of the layer as changed, so that they are rendered again before the layer
+   * is next drawn. This method can be called from any thread.
+   */
+  public void invalidate() {
+    isValid = false;
+  }
+
+  /** @return whether the offscreen image is up to date */
+  public boolean isValid() {
+    return isValid;
+  }
+
+  /**
+   * Renders the contents of the layer into its offscreen image if the layer was invalidated. The
+   * engine calls this method once per frame before drawing the frame, so that the whole frame uses
+   * the same image.
+   *
+   * @return whether the contents were rendered
+   */
+  public boolean update() {
+    if (isValid) {
+      return false;
+    }
+
+    // An invalidation while rendering is kept for the next update
+    isValid = true;
+    WindowSettings settings = NeonEngine.getSettings().windowSettings;
+    if (image == null
+        || image.getWidth() != settings.width
+        || image.getHeight() != settings.height) {
+      image =
+          GeneralUtils.createCompatibleImage(
+              settings.width,
+              settings.height,
+              isOpaque ? Transparency.OPAQUE : Transparency.TRANSLUCENT);
+    }
+
+    Graphics2D graphics = image.createGraphics();
+    try {
+      if (!isOpaque) {
+        graphics.setComposite(AlphaComposite.Clear);
+        graphics.fillRect(0, 0, settings.width, settings.height);
+        graphics.setComposite(AlphaComposite.SrcOver);
+      }
+      renderer.render(graphics);
+    } finally {
+      graphics.dispose();
+    }
+    return true;
+  }
+
+  /**
+   * Draws the offscreen image of the layer. An invalidated layer is not rendered again until the
+   * next {@link #update()}, so a frame drawn in several clipped passes never mixes two images. The
+   * contents are only rendered here if the layer has never been rendered.
+   *
+   * @param graphics the graphics object used to draw the game's graphics
+   */
+  public void draw(Graphics graphics) {
+    if (image == null) {
+      update();
+    }
+    graphics.drawImage(image, 0, 0, null);
+  }
+
+  /** @return the offscreen image of the layer, or null if it has not been rendered yet */
+  public BufferedImage getImage() {
+    return image;
+  }
+
+  /** An interface used to draw the contents of a layer. */
+  public interface Renderer {
+    /**
+     * Draws the contents of a layer. The graphics object draws into the layer's offscreen image,
+     * which is cleared beforehand unless the layer is opaque.
+     *
+     * @param graphics an object used to draw graphics
+     */
+    void render(Graphics graphics);
+  }
+}
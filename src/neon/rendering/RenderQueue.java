@@ -0,0 +1,270 @@
+package neon.rendering;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.util.Arrays;
+
+import neon.critical.NeonEngine;
+import neon.critical.WindowSettings;
+import neon.physics.Hitbox;
+import neon.physics.RectangularHitbox;
+
+/**
+ * A class used to record draw calls during {@link neon.critical.Game#render(Graphics)} and submit
+ * them together. Each draw call is recorded into preallocated primitive arrays with a layer and a z
+ * value. When the queue is flushed, the calls are sorted by layer, then by z, then by their color,
+ * font or image, so consecutive calls sharing the same state are submitted without changing the
+ * state of the graphics object in between.<br>
+ * Calls with a higher layer, or the same layer and a higher z, are drawn on top. Calls with the
+ * same layer and z may be drawn in any order. The positions of the calls are read when they are
+ * recorded.
+ */
+public class RenderQueue {
+  /** The maximum number of calls that can be recorded between flushes. */
+  public static final int MAX_SIZE = 1 << 20;
+
+  private static final int FILL_RECTANGLE = 0;
+  private static final int DRAW_RECTANGLE = 1;
+  private static final int FILL_CIRCLE = 2;
+  private static final int DRAW_CIRCLE = 3;
+  private static final int IMAGE = 4;
+  private static final int TEXT = 5;
+  // Sort keys contain the layer (8 bits), z (16 bits), type (3 bits), state (17 bits) and index
+  private static final int INDEX_BITS = 20;
+  private static final int STATE_BITS = 17;
+  private static final int STATE_MASK = (1 << STATE_BITS) - 1;
+
+  private long[] keys;
+  private int[] types;
+  private int[] x;
+  private int[] y;
+  private int[] width;
+  private int[] height;
+  private Color[] colors;
+  private Font[] fonts;
+  private Image[] images;
+  private String[] texts;
+  private int size;
+  private int stateChangeCount;
+
+  /** Creates a queue with room for 1024 calls before it grows. */
+  public RenderQueue() {
+    this(1024);
+  }
+
+  /** @param capacity the number of calls the queue has room for before it grows */
+  public RenderQueue(int capacity) {
+    capacity = Math.max(capacity, 1);
+    keys = new long[capacity];
+    types = new int[capacity];
+    x = new int[capacity];
+    y = new int[capacity];
+    width = new int[capacity];
+    height = new int[capacity];
+    colors = new Color[capacity];
+    fonts = new Font[capacity];
+    images = new Image[capacity];
+    texts = new String[capacity];
+  }
+
+  /** @return the number of calls recorded since the last flush */
+  public int size() {
+    return size;
+  }
+
+  /** @return the number of times the color or font was changed during the last flush */
+  public int getStateChangeCount() {
+    return stateChangeCount;
+  }
+
+  /**
+   * Records a rectangle. If it has no color, the color of the graphics object when the queue is
+   * flushed is used.
+   *
+   * @param layer the layer, from 0 to 255
+   * @param z the z value within the layer, from 0 to 65535
+   * @param rectangle the rectangle to be drawn
+   */
+  public void drawRectangle(int layer, int z, DrawableShape rectangle) {
+    Color color = rectangle.getColor();
+    int index =
+        record(
+            layer,
+            z,
+            rectangle.doFill() ? FILL_RECTANGLE : DRAW_RECTANGLE,
+            color == null ? 0 : color.getRGB());
+    colors[index] = color;
+    setBounds(index, rectangle.getHitbox());
+  }
+
+  /**
+   * Records a circle. If it has no color, the color of the graphics object when the queue is
+   * flushed is used.
+   *
+   * @param layer the layer, from 0 to 255
+   * @param z the z value within the layer, from 0 to 65535
+   * @param circle the circle to be drawn
+   */
+  public void drawCircle(int layer, int z, DrawableShape circle) {
+    Color color = circle.getColor();
+    int index =
+        record(
+            layer,
+            z,
+            circle.doFill() ? FILL_CIRCLE : DRAW_CIRCLE,
+            color == null ? 0 : color.getRGB());
+    colors[index] = color;
+    setBounds(index, circle.getHitbox());
+  }
+
+  /**
+   * Records an image.
+   *
+   * @param layer the layer, from 0 to 255
+   * @param z the z value within the layer, from 0 to 65535
+   * @param imgObj the image to be drawn
+   */
+  public void drawImage(int layer, int z, ImageObject imgObj) {
+    Image sprite = imgObj.getSprite();
+    int index = record(layer, z, IMAGE, System.identityHashCode(sprite));
+    images[index] = sprite;
+    setBounds(index, imgObj.getHitbox());
+  }
+
+  /**
+   * Records text. If it has no color, the color of the graphics object when the queue is flushed is
+   * used.
+   *
+   * @param layer the layer, from 0 to 255
+   * @param z the z value within the layer, from 0 to 65535
+   * @param textObj the text to be drawn
+   */
+  public void drawText(int layer, int z, TextObject textObj) {
+    Font font = textObj.getFont();
+    Color color = textObj.getColor();
+    int index =
+        record(
+            layer,
+            z,
+            TEXT,
+            System.identityHashCode(font) * 31 + (color == null ? 0 : color.getRGB()));
+    fonts[index] = font;
+    colors[index] = color;
+    texts[index] = textObj.getText();
+
+    WindowSettings settings = NeonEngine.getSettings().windowSettings;
+    RectangularHitbox hitbox = textObj.getHitbox();
+    x[index] = (int) Math.round(hitbox.getLowerXBound() * settings.width);
+    y[index] =
+        (int)
+            Math.round(
+                settings.height
+                    - (hitbox.getCenter().getY() - textObj.getDescent() * 1.5) * settings.height);
+  }
+
+  /**
+   * Draws every recorded call in order and clears the queue. This method is usually called at the
+   * end of {@link neon.critical.Game#render(Graphics)}.
+   *
+   * @param graphics the graphics object used to draw the game's graphics
+   */
+  public void flush(Graphics graphics) {
+    Arrays.sort(keys, 0, size);
+    Color defaultColor = graphics.getColor();
+    Color currentColor = defaultColor;
+    Font currentFont = graphics.getFont();
+    stateChangeCount = 0;
+    for (int i = 0; i < size; i++) {
+      int index = (int) (keys[i] & (MAX_SIZE - 1));
+      int type = types[index];
+      if (type == IMAGE) {
+        graphics.drawImage(images[index], x[index], y[index], width[index], height[index], null);
+        continue;
+      }
+
+      Color color = colors[index] == null ? defaultColor : colors[index];
+      if (!color.equals(currentColor)) {
+        graphics.setColor(color);
+        currentColor = color;
+        stateChangeCount++;
+      }
+
+      switch (type) {
+        case FILL_RECTANGLE -> graphics.fillRect(x[index], y[index], width[index], height[index]);
+        case DRAW_RECTANGLE -> graphics.drawRect(x[index], y[index], width[index], height[index]);
+        case FILL_CIRCLE ->
+            graphics.fillArc(x[index], y[index], width[index], height[index], 0, 360);
+        case DRAW_CIRCLE ->
+            graphics.drawArc(x[index], y[index], width[index], height[index], 0, 360);
+        default -> {
+          if (fonts[index] != currentFont) {
+            graphics.setFont(fonts[index]);
+            currentFont = fonts[index];
+            stateChangeCount++;
+          }
+          graphics.drawString(texts[index], x[index], y[index]);
+        }
+      }
+    }
+    clear();
+  }
+
+  /** Discards every recorded call. */
+  public void clear() {
+    Arrays.fill(colors, 0, size, null);
+    Arrays.fill(fonts, 0, size, null);
+    Arrays.fill(images, 0, size, null);
+    Arrays.fill(texts, 0, size, null);
+    size = 0;
+  }
+
+  /** @return the index the call is stored at */
+  private int record(int layer, int z, int type, int state) {
+    if (layer < 0 || layer > 0xFF || z < 0 || z > 0xFFFF) {
+      throw new IllegalArgumentException("The layer or z value is out of range.");
+    }
+    if (size == MAX_SIZE) {
+      throw new IllegalStateException("The render queue is full.");
+    }
+    if (size == keys.length) {
+      grow();
+    }
+
+    // Mix the state so that similar colors and hash codes still spread over the state bits
+    int mixedState = (state * 0x9E3779B9) >>> (32 - STATE_BITS);
+    long key =
+        ((long) layer << 56)
+            | ((long) z << 40)
+            | ((long) type << 37)
+            | ((long) (mixedState & STATE_MASK) << INDEX_BITS)
+            | size;
+    // Flip the sign bit so that the signed sort places higher layers last
+    keys[size] = key ^ Long.MIN_VALUE;
+    types[size] = type;
+    return size++;
+  }
+
+  private void setBounds(int index, Hitbox hitbox) {
+    WindowSettings settings = NeonEngine.getSettings().windowSettings;
+    x[index] = (int) Math.round(hitbox.getLowerXBound() * settings.width);
+    y[index] = (int) Math.round(settings.height - hitbox.getHigherYBound() * settings.height);
+    width[index] = (int) Math.round(hitbox.getWidth() * settings.width);
+    height[index] = (int) Math.round(hitbox.getHeight() * settings.height);
+  }
+
+  private void grow() {
+    int capacity = Math.min(keys.length * 2, MAX_SIZE);
+    keys = Arrays.copyOf(keys, capacity);
+    types = Arrays.copyOf(types, capacity);
+    x = Arrays.copyOf(x, capacity);
+    y = Arrays.copyOf(y, capacity);
+    width = Arrays.copyOf(width, capacity);
+    height = Arrays.copyOf(height, capacity);
+    colors = Arrays.copyOf(colors, capacity);
+    fonts = Arrays.copyOf(fonts, capacity);
+    images = Arrays.copyOf(images, capacity);
+    texts = Arrays.copyOf(texts, capacity);
+  }
+}
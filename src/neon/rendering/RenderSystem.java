@@ -23,7 +23,7 @@ public class RenderSystem {
     graphics.fillRect(0, 0, settings.width, settings.height);
   }
 
-  private static int[] initDrawShape(Graphics graphics, DrawableShape shape) {
+  private static void drawShape(Graphics graphics, DrawableShape shape, boolean isCircle) {
     Color color = shape.color;
     if (color != null) {
       graphics.setColor(color);
@@ -31,15 +31,21 @@ public class RenderSystem {
 
     Hitbox hitbox = shape.hitbox;
     WindowSettings settings = NeonEngine.getSettings().windowSettings;
-    int width = settings.width;
-    int height = settings.height;
-
-    return new int[] {
-      (int) Math.round(hitbox.getLowerXBound() * width),
-      (int) Math.round(reverseY(hitbox.getHigherYBound() * height)),
-      (int) Math.round(hitbox.getWidth() * width),
-      (int) Math.round(hitbox.getHeight() * height)
-    };
+    int x = (int) Math.round(hitbox.getLowerXBound() * settings.width);
+    int y = (int) Math.round(settings.height - hitbox.getHigherYBound() * settings.height);
+    int width = (int) Math.round(hitbox.getWidth() * settings.width);
+    int height = (int) Math.round(hitbox.getHeight() * settings.height);
+    if (isCircle) {
+      if (shape.doFill()) {
+        graphics.fillArc(x, y, width, height, 0, 360);
+      } else {
+        graphics.drawArc(x, y, width, height, 0, 360);
+      }
+    } else if (shape.doFill()) {
+      graphics.fillRect(x, y, width, height);
+    } else {
+      graphics.drawRect(x, y, width, height);
+    }
   }
 
   /**
@@ -49,22 +55,47 @@ public class RenderSystem {
    * @param rectangle the rectangle to be drawn
    */
   public static void drawRectangle(Graphics graphics, DrawableShape rectangle) {
-    int[] parameters = initDrawShape(graphics, rectangle);
-    if (rectangle.doFill()) {
-      graphics.fillRect(parameters[0], parameters[1], parameters[2], parameters[3]);
+    drawShape(graphics, rectangle, false);
+  }
+
+  /**
+   * Draws a rectangle from its center and size without requiring a DrawableShape. The color of the
+   * graphics object is used.
+   *
+   * @param graphics the graphics object used to draw the game's graphics
+   * @param centerX the x-value of the rectangle's center
+   * @param centerY the y-value of the rectangle's center
+   * @param width the rectangle's width
+   * @param height the rectangle's height
+   * @param doFill whether the rectangle should be filled
+   */
+  public static void drawRectangle(
+      Graphics graphics,
+      double centerX,
+      double centerY,
+      double width,
+      double height,
+      boolean doFill) {
+    WindowSettings settings = NeonEngine.getSettings().windowSettings;
+    int x = (int) Math.round((centerX - width / 2) * settings.width);
+    int y = (int) Math.round(reverseY((centerY + height / 2) * settings.height));
+    int pixelWidth = (int) Math.round(width * settings.width);
+    int pixelHeight = (int) Math.round(height * settings.height);
+    if (doFill) {
+      graphics.fillRect(x, y, pixelWidth, pixelHeight);
     } else {
-      graphics.drawRect(parameters[0], parameters[1], parameters[2], parameters[3]);
+      graphics.drawRect(x, y, pixelWidth, pixelHeight);
     }
   }
 
   /**
-   * Draws a rectangle if it is in view.
+   * Draws a rectangle if it is in view and within the clip of the graphics object.
    *
    * @param graphics the graphics object used to draw the game's graphics
    * @param rectangle the rectangle to be drawn
    */
   public static void smartDrawRectangle(Graphics graphics, DrawableShape rectangle) {
-    if (isHitboxInView(rectangle.hitbox)) {
+    if (isHitboxInView(rectangle.hitbox) && isHitboxInClip(graphics, rectangle.hitbox, 0)) {
       drawRectangle(graphics, rectangle);
     }
   }
@@ -76,22 +107,17 @@ public class RenderSystem {
    * @param circle the rectangle to be drawn
    */
   public static void drawCircle(Graphics graphics, DrawableShape circle) {
-    int[] parameters = initDrawShape(graphics, circle);
-    if (circle.doFill()) {
-      graphics.fillArc(parameters[0], parameters[1], parameters[2], parameters[3], 0, 360);
-    } else {
-      graphics.drawArc(parameters[0], parameters[1], parameters[2], parameters[3], 0, 360);
-    }
+    drawShape(graphics, circle, true);
   }
 
   /**
-   * Draws a circle if it is in view.
+   * Draws a circle if it is in view and within the clip of the graphics object.
    *
    * @param graphics the graphics object used to draw the game's graphics
    * @param circle the rectangle to be drawn
    */
   public static void smartDrawCircle(Graphics graphics, DrawableShape circle) {
-    if (isHitboxInView(circle.hitbox)) {
+    if (isHitboxInView(circle.hitbox) && isHitboxInClip(graphics, circle.hitbox, 0)) {
       drawCircle(graphics, circle);
     }
   }
@@ -117,13 +143,68 @@ public class RenderSystem {
   }
 
   /**
-   * Draws an image if it is in view.
+   * Draws an image using a copy of its sprite that is scaled once and cached, rather than scaling
+   * the sprite every time it is drawn.
+   *
+   * @param graphics the graphics object used to draw the game's graphics
+   * @param imgObj the image to be drawn
+   * @param cache the cache of scaled sprites
+   */
+  public static void drawImage(Graphics graphics, ImageObject imgObj, SpriteCache cache) {
+    cache.drawImage(graphics, imgObj);
+  }
+
+  /**
+   * Draws a region of an image, such as a sprite packed into a texture atlas, without creating a
+   * subimage.
+   *
+   * @param graphics the graphics object used to draw the game's graphics
+   * @param hitbox the hitbox the region is drawn in
+   * @param region the region to be drawn
+   */
+  public static void drawRegion(Graphics graphics, Hitbox hitbox, AtlasRegion region) {
+    WindowSettings settings = NeonEngine.getSettings().windowSettings;
+    int width = settings.width;
+    int height = settings.height;
+    int x = (int) Math.round(hitbox.getLowerXBound() * width);
+    int y = (int) Math.round(reverseY(hitbox.getHigherYBound() * height));
+    int sourceX = region.getX();
+    int sourceY = region.getY();
+    graphics.drawImage(
+        region.getImage(),
+        x,
+        y,
+        x + (int) Math.round(hitbox.getWidth() * width),
+        y + (int) Math.round(hitbox.getHeight() * height),
+        sourceX,
+        sourceY,
+        sourceX + region.getWidth(),
+        sourceY + region.getHeight(),
+        null);
+  }
+
+  /**
+   * Draws a region of an image if it is in view and within the clip of the graphics object.
+   *
+   * @param graphics the graphics object used to draw the game's graphics
+   * @param hitbox the hitbox the region is drawn in
+   * @param region the region to be drawn
+   */
+  public static void smartDrawRegion(Graphics graphics, Hitbox hitbox, AtlasRegion region) {
+    if (isHitboxInView(hitbox) && isHitboxInClip(graphics, hitbox, 0)) {
+      drawRegion(graphics, hitbox, region);
+    }
+  }
+
+  /**
+   * Draws an image if it is in view and within the clip of the graphics object.
    *
    * @param graphics the graphics object used to draw the game's graphics
    * @param imgObj the image to be drawn
    */
   public static void smartDrawImage(Graphics graphics, ImageObject imgObj) {
-    if (isHitboxInView(imgObj.getHitbox())) {
+    Hitbox hitbox = imgObj.getHitbox();
+    if (isHitboxInView(hitbox) && isHitboxInClip(graphics, hitbox, 0)) {
       drawImage(graphics, imgObj);
     }
   }
@@ -150,13 +231,14 @@ public class RenderSystem {
   }
 
   /**
-   * Draws text if it is in view.
+   * Draws text if it is in view and within the clip of the graphics object.
    *
    * @param graphics the graphics object used to draw the game's graphics
    * @param textObj the text to be drawn
    */
   public static void smartDrawText(Graphics graphics, TextObject textObj) {
-    if (isHitboxInView(textObj.getHitbox())) {
+    RectangularHitbox hitbox = textObj.getHitbox();
+    if (isHitboxInView(hitbox) && isHitboxInClip(graphics, hitbox, textObj.getDescent())) {
       drawText(graphics, textObj);
     }
   }
@@ -172,6 +254,39 @@ public class RenderSystem {
         || hitbox.getLowerYBound() > 1);
   }
 
+  /**
+   * Checks whether anything drawn in a hitbox could be visible through the clip of a graphics
+   * object, such as the dirty rectangles of a {@link DirtyRegionTracker}.
+   */
+  private static boolean isHitboxInClip(Graphics graphics, Hitbox hitbox, double extraHeight) {
+    WindowSettings settings = NeonEngine.getSettings().windowSettings;
+    int padding = (int) Math.ceil(extraHeight * settings.height) + 1;
+    return graphics.hitClip(
+        (int) Math.round(hitbox.getLowerXBound() * settings.width) - 1,
+        (int) Math.round(settings.height - hitbox.getHigherYBound() * settings.height) - padding,
+        (int) Math.round(hitbox.getWidth() * settings.width) + 3,
+        (int) Math.round(hitbox.getHeight() * settings.height) + padding * 2 + 1);
+  }
+
+  /**
+   * Computes the pixels a hitbox covers when drawn, padded by a pixel on each side to cover
+   * outlines and antialiasing.
+   *
+   * @param hitbox the hitbox
+   * @param width the width of the screen in pixels
+   * @param height the height of the screen in pixels
+   * @param bounds the array the lower x, lower y, upper x and upper y pixel bounds are stored in,
+   *     where the upper bounds are exclusive
+   */
+  static void getScreenBounds(Hitbox hitbox, int width, int height, int[] bounds) {
+    int x = (int) Math.round(hitbox.getLowerXBound() * width);
+    int y = (int) Math.round(height - hitbox.getHigherYBound() * height);
+    bounds[0] = x - 1;
+    bounds[1] = y - 1;
+    bounds[2] = x + (int) Math.round(hitbox.getWidth() * width) + 2;
+    bounds[3] = y + (int) Math.round(hitbox.getHeight() * height) + 2;
+  }
+
   private static double reverseY(double y) {
     return NeonEngine.getSettings().windowSettings.height - y;
   }
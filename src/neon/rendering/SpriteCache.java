@@ -0,0 +1,236 @@
+package neon.rendering;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import neon.critical.NeonEngine;
+import neon.critical.WindowSettings;
+import neon.physics.Hitbox;
+import neon.utils.GeneralUtils;
+
+/**
+ * A cache of sprites scaled to the sizes they are drawn at. Drawing a scaled image makes Java2D
+ * resample it every frame, often from a format it cannot draw quickly. Instead, each sprite is
+ * scaled once per size into an image in the format of the screen, which is then drawn without
+ * scaling.<br>
+ * The least recently drawn copies are discarded once the copies use more memory than the budget.
+ * The copies can also be kept in {@link VolatileImage} objects, which may be stored in video
+ * memory. Their contents are restored from the scaled copy when they are lost.<br>
+ * This class is not thread-safe.
+ */
+public class SpriteCache {
+  private final long memoryBudget;
+  private final boolean doUseVolatileImages;
+  private final GraphicsConfiguration configuration;
+  private final Map<Image, Entry> entries = new IdentityHashMap<>();
+  // The most recently drawn entry is the head of the list
+  private Entry head;
+  private Entry tail;
+  private long memoryUsage;
+
+  /** Creates a cache with a budget of 64 megabytes that does not use volatile images. */
+  public SpriteCache() {
+    this(64L << 20, false);
+  }
+
+  /**
+   * @param memoryBudget the maximum number of bytes used by the scaled copies
+   * @param doUseVolatileImages whether the scaled copies should be kept in volatile images
+   */
+  public SpriteCache(long memoryBudget, boolean doUseVolatileImages) {
+    this.memoryBudget = memoryBudget;
+    configuration = GeneralUtils.getGraphicsConfiguration();
+    this.doUseVolatileImages = doUseVolatileImages && configuration != null;
+  }
+
+  /** @return the number of bytes used by the scaled copies */
+  public long getMemoryUsage() {
+    return memoryUsage;
+  }
+
+  /**
+   * Draws an image using a scaled copy of its sprite.
+   *
+   * @param graphics the graphics object used to draw the game's graphics
+   * @param imgObj the image to be drawn
+   */
+  public void drawImage(Graphics graphics, ImageObject imgObj) {
+    Hitbox hitbox = imgObj.getHitbox();
+    WindowSettings settings = NeonEngine.getSettings().windowSettings;
+    int x = (int) Math.round(hitbox.getLowerXBound() * settings.width);
+    int y = (int) Math.round(settings.height - hitbox.getHigherYBound() * settings.height);
+    int width = (int) Math.round(hitbox.getWidth() * settings.width);
+    int height = (int) Math.round(hitbox.getHeight() * settings.height);
+    if (width <= 0 || height <= 0) {
+      return;
+    }
+
+    graphics.drawImage(getScaledSprite(imgObj.getSprite(), width, height), x, y, null);
+  }
+
+  /**
+   * Returns a copy of a sprite scaled to a size, creating it if it is not cached.
+   *
+   * @param sprite the sprite
+   * @param width the width in pixels
+   * @param height the height in pixels
+   * @return the scaled copy
+   */
+  public Image getScaledSprite(BufferedImage sprite, int width, int height) {
+    Entry first = entries.get(sprite);
+    Entry entry = first;
+    while (entry != null && (entry.width != width || entry.height != height)) {
+      entry = entry.nextSize;
+    }
+
+    if (entry == null) {
+      entry = new Entry(sprite, width, height, scale(sprite, width, height));
+      entry.nextSize = first;
+      entries.put(sprite, entry);
+      memoryUsage += entry.getSize();
+    } else {
+      unlink(entry);
+    }
+    pushFront(entry);
+    evict();
+    return entry.getImage();
+  }
+
+  /** Discards every scaled copy. */
+  public void clear() {
+    while (tail != null) {
+      remove(tail);
+    }
+  }
+
+  private static BufferedImage scale(BufferedImage sprite, int width, int height) {
+    BufferedImage image =
+        GeneralUtils.createCompatibleImage(width, height, sprite.getTransparency());
+    Graphics2D graphics = image.createGraphics();
+    graphics.setRenderingHint(
+        RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+    graphics.drawImage(sprite, 0, 0, width, height, null);
+    graphics.dispose();
+    return image;
+  }
+
+  /** Discards the least recently drawn copies, keeping at least the most recently drawn one. */
+  private void evict() {
+    while (memoryUsage > memoryBudget && tail != head) {
+      remove(tail);
+    }
+  }
+
+  private void remove(Entry entry) {
+    unlink(entry);
+    Entry first = entries.get(entry.sprite);
+    if (first == entry) {
+      if (entry.nextSize == null) {
+        entries.remove(entry.sprite);
+      } else {
+        entries.put(entry.sprite, entry.nextSize);
+      }
+    } else {
+      while (first.nextSize != entry) {
+        first = first.nextSize;
+      }
+      first.nextSize = entry.nextSize;
+    }
+
+    memoryUsage -= entry.getSize();
+    if (entry.volatileImage != null) {
+      entry.volatileImage.flush();
+    }
+  }
+
+  private void pushFront(Entry entry) {
+    entry.next = head;
+    if (head != null) {
+      head.previous = entry;
+    }
+    head = entry;
+    if (tail == null) {
+      tail = entry;
+    }
+  }
+
+  private void unlink(Entry entry) {
+    if (entry.previous != null) {
+      entry.previous.next = entry.next;
+    } else if (head == entry) {
+      head = entry.next;
+    }
+    if (entry.next != null) {
+      entry.next.previous = entry.previous;
+    } else if (tail == entry) {
+      tail = entry.previous;
+    }
+    entry.previous = null;
+    entry.next = null;
+  }
+
+  private class Entry {
+    private final BufferedImage sprite;
+    private final int width;
+    private final int height;
+    private final BufferedImage image;
+    private VolatileImage volatileImage;
+    private Entry nextSize;
+    private Entry previous;
+    private Entry next;
+
+    private Entry(BufferedImage sprite, int width, int height, BufferedImage image) {
+      this.sprite = sprite;
+      this.width = width;
+      this.height = height;
+      this.image = image;
+    }
+
+    /**
+     * @return the number of bytes used by the copy, assuming 4 bytes per pixel. Volatile images
+     *     count twice, since the scaled copy is kept to restore them.
+     */
+    private long getSize() {
+      return (long) width * height * (doUseVolatileImages ? 8 : 4);
+    }
+
+    private Image getImage() {
+      if (!doUseVolatileImages) {
+        return image;
+      }
+
+      int status =
+          volatileImage == null
+              ? VolatileImage.IMAGE_INCOMPATIBLE
+              : volatileImage.validate(configuration);
+      if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+        if (volatileImage != null) {
+          volatileImage.flush();
+        }
+        volatileImage =
+            configuration.createCompatibleVolatileImage(width, height, image.getTransparency());
+        restore();
+      } else if (status == VolatileImage.IMAGE_RESTORED) {
+        restore();
+      }
+
+      // Fall back to the scaled copy if the contents were lost again while being restored
+      return volatileImage.contentsLost() ? image : volatileImage;
+    }
+
+    private void restore() {
+      Graphics2D graphics = volatileImage.createGraphics();
+      graphics.setComposite(AlphaComposite.Src);
+      graphics.drawImage(image, 0, 0, null);
+      graphics.dispose();
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package neon.rendering;
+
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import neon.utils.GeneralUtils;
+
+/**
+ * A class used to pack many images into a few large images, called atlases. Drawing regions of a
+ * few atlases instead of many separate images means fewer image switches, and the regions are
+ * computed once instead of creating subimages every frame.<br>
+ * The images are packed with the skyline algorithm, which places each image as low as possible on
+ * top of the images already packed. The tallest images are packed first.
+ */
+public class TextureAtlas {
+  /** The number of empty pixels around each packed image, which stops neighbors bleeding in. */
+  private static final int PADDING = 1;
+
+  /**
+   * Packs images into atlases.
+   *
+   * @param images the images
+   * @param atlasSize the width and height of each atlas in pixels
+   * @return the regions of the atlases containing each image, in the same order as the images,
+   *     which is empty if there are no images
+   * @throws IllegalArgumentException if an image is larger than an atlas
+   */
+  public static AtlasRegion[] pack(BufferedImage[] images, int atlasSize)
+      throws IllegalArgumentException {
+    if (images.length == 0) {
+      return new AtlasRegion[0];
+    }
+
+    Integer[] order = new Integer[images.length];
+    for (int i = 0; i < images.length; i++) {
+      order[i] = i;
+      if (images[i].getWidth() + PADDING * 2 > atlasSize
+          || images[i].getHeight() + PADDING * 2 > atlasSize) {
+        throw new IllegalArgumentException("An image is larger than an atlas.");
+      }
+    }
+    Arrays.sort(
+        order,
+        Comparator.comparingInt((Integer i) -> images[i].getHeight())
+            .thenComparingInt(i -> images[i].getWidth())
+            .reversed());
+
+    // Place every image first, so each atlas can be created once at its final size
+    int[] pages = new int[images.length];
+    int[] positionsX = new int[images.length];
+    int[] positionsY = new int[images.length];
+    int[] pageHeights = new int[images.length];
+    Skyline skyline = new Skyline(atlasSize);
+    int page = 0;
+    for (int index : order) {
+      int width = images[index].getWidth() + PADDING * 2;
+      int height = images[index].getHeight() + PADDING * 2;
+      if (!skyline.place(width, height)) {
+        skyline = new Skyline(atlasSize);
+        page++;
+        skyline.place(width, height);
+      }
+      pages[index] = page;
+      positionsX[index] = skyline.placedX + PADDING;
+      positionsY[index] = skyline.placedY + PADDING;
+      pageHeights[page] = Math.max(pageHeights[page], skyline.placedY + height);
+    }
+
+    BufferedImage[] atlases = new BufferedImage[page + 1];
+    Graphics2D[] graphics = new Graphics2D[page + 1];
+    for (int i = 0; i <= page; i++) {
+      atlases[i] =
+          GeneralUtils.createCompatibleImage(atlasSize, pageHeights[i], Transparency.TRANSLUCENT);
+      graphics[i] = atlases[i].createGraphics();
+    }
+
+    AtlasRegion[] regions = new AtlasRegion[images.length];
+    for (int i = 0; i < images.length; i++) {
+      BufferedImage image = images[i];
+      graphics[pages[i]].drawImage(image, positionsX[i], positionsY[i], null);
+      regions[i] =
+          new AtlasRegion(
+              atlases[pages[i]], positionsX[i], positionsY[i], image.getWidth(), image.getHeight());
+    }
+    for (Graphics2D atlasGraphics : graphics) {
+      atlasGraphics.dispose();
+    }
+    return regions;
+  }
+
+  /**
+   * Loads images from files and packs them into atlases.
+   *
+   * @param paths the paths of the image files
+   * @param atlasSize the width and height of each atlas in pixels
+   * @return the regions of the atlases containing each image, in the same order as the paths, or
+   *     null if an image could not be loaded
+   * @throws IllegalArgumentException if an image is larger than an atlas
+   */
+  public static AtlasRegion[] pack(String[] paths, int atlasSize) throws IllegalArgumentException {
+    BufferedImage[] images = new BufferedImage[paths.length];
+    for (int i = 0; i < paths.length; i++) {
+      images[i] = GeneralUtils.loadImage(paths[i]);
+      if (images[i] == null) {
+        return null;
+      }
+    }
+    return pack(images, atlasSize);
+  }
+
+  /** The top edge of the packed images, stored as horizontal segments from left to right. */
+  private static class Skyline {
+    private final int size;
+    private int[] segmentX = new int[16];
+    private int[] segmentY = new int[16];
+    private int[] segmentWidth = new int[16];
+    private int segmentCount = 1;
+    private int placedX;
+    private int placedY;
+
+    private Skyline(int size) {
+      this.size = size;
+      segmentWidth[0] = size;
+    }
+
+    /** @return whether there was room for the rectangle, in which case its position is stored */
+    private boolean place(int width, int height) {
+      int bestSegment = -1;
+      int bestY = Integer.MAX_VALUE;
+      for (int i = 0; i < segmentCount; i++) {
+        int x = segmentX[i];
+        if (x + width > size) {
+          break;
+        }
+
+        // The rectangle rests on the highest segment under it
+        int y = 0;
+        for (int j = i; j < segmentCount && segmentX[j] < x + width; j++) {
+          y = Math.max(y, segmentY[j]);
+        }
+        if (y + height <= size && y < bestY) {
+          bestY = y;
+          bestSegment = i;
+        }
+      }
+
+      if (bestSegment == -1) {
+        return false;
+      }
+
+      placedX = segmentX[bestSegment];
+      placedY = bestY;
+      addSegment(bestSegment, placedX, placedY + height, width);
+      return true;
+    }
+
+    /** Replaces the segments under a new segment with it, shortening the last one it covers. */
+    private void addSegment(int index, int x, int y, int width) {
+      int end = x + width;
+      int last = index;
+      while (last < segmentCount && segmentX[last] + segmentWidth[last] <= end) {
+        last++;
+      }
+
+      // The segments from index to last - 1 are covered entirely, and last is covered partially
+      int removedCount = last - index;
+      if (last < segmentCount && segmentX[last] < end) {
+        segmentWidth[last] -= end - segmentX[last];
+        segmentX[last] = end;
+      }
+      if (removedCount == 0) {
+        ensureCapacity(segmentCount + 1);
+        System.arraycopy(segmentX, index, segmentX, index + 1, segmentCount - index);
+        System.arraycopy(segmentY, index, segmentY, index + 1, segmentCount - index);
+        System.arraycopy(segmentWidth, index, segmentWidth, index + 1, segmentCount - index);
+        segmentCount++;
+      } else if (removedCount > 1) {
+        int shift = removedCount - 1;
+        System.arraycopy(segmentX, last, segmentX, index + 1, segmentCount - last);
+        System.arraycopy(segmentY, last, segmentY, index + 1, segmentCount - last);
+        System.arraycopy(segmentWidth, last, segmentWidth, index + 1, segmentCount - last);
+        segmentCount -= shift;
+      }
+      segmentX[index] = x;
+      segmentY[index] = y;
+      segmentWidth[index] = width;
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity > segmentX.length) {
+        segmentX = Arrays.copyOf(segmentX, capacity * 2);
+        segmentY = Arrays.copyOf(segmentY, capacity * 2);
+        segmentWidth = Arrays.copyOf(segmentWidth, capacity * 2);
+      }
+    }
+  }
+}
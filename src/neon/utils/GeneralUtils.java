@@ -1,6 +1,10 @@
 package neon.utils;
 
 import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
@@ -86,6 +90,79 @@ public class GeneralUtils {
     }
   }
 
+  /**
+   * Loads an image from a file and converts it to a format that can be drawn quickly.
+   *
+   * @param path the path of the image file
+   * @return a BufferedImage object or null if an exception is thrown
+   */
+  public static BufferedImage loadCompatibleImage(String path) {
+    BufferedImage image = loadImage(path);
+    return image == null ? null : toCompatibleImage(image);
+  }
+
+  /**
+   * @return the graphics configuration of the default screen, or null if the environment is
+   *     headless
+   */
+  public static GraphicsConfiguration getGraphicsConfiguration() {
+    if (GraphicsEnvironment.isHeadless()) {
+      return null;
+    }
+    return GraphicsEnvironment.getLocalGraphicsEnvironment()
+        .getDefaultScreenDevice()
+        .getDefaultConfiguration();
+  }
+
+  /**
+   * Creates an empty image in the format of the screen, which Java2D can draw without converting
+   * each pixel. In a headless environment, an integer RGB or premultiplied ARGB image is created.
+   *
+   * @param width the width of the image
+   * @param height the height of the image
+   * @param transparency the transparency of the image, as defined by {@link Transparency}
+   * @return the image
+   */
+  public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+    GraphicsConfiguration configuration = getGraphicsConfiguration();
+    if (configuration != null) {
+      return configuration.createCompatibleImage(width, height, transparency);
+    }
+    return new BufferedImage(width, height, getHeadlessImageType(transparency));
+  }
+
+  /**
+   * Converts an image to the format of the screen. Images loaded with {@link ImageIO} are often in
+   * formats that Java2D has to convert every time they are drawn.
+   *
+   * @param image the image
+   * @return the converted image, or the image itself if it is already in the format of the screen
+   */
+  public static BufferedImage toCompatibleImage(BufferedImage image) {
+    int transparency = image.getTransparency();
+    GraphicsConfiguration configuration = getGraphicsConfiguration();
+    boolean isCompatible =
+        configuration != null
+            ? configuration.getColorModel(transparency).equals(image.getColorModel())
+            : image.getType() == getHeadlessImageType(transparency);
+    if (isCompatible) {
+      return image;
+    }
+
+    BufferedImage compatibleImage =
+        createCompatibleImage(image.getWidth(), image.getHeight(), transparency);
+    Graphics2D graphics = compatibleImage.createGraphics();
+    graphics.drawImage(image, 0, 0, null);
+    graphics.dispose();
+    return compatibleImage;
+  }
+
+  private static int getHeadlessImageType(int transparency) {
+    return transparency == Transparency.OPAQUE
+        ? BufferedImage.TYPE_INT_RGB
+        : BufferedImage.TYPE_INT_ARGB_PRE;
+  }
+
   /**
    * Reads lines of text from a file.
    *
@@ -0,0 +1,122 @@
+package neon.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds with log-linear buckets, similar to an HDR histogram.
+ * Recording a value never allocates after the first value has been recorded, and every value up to
+ * about 18 minutes is stored with a relative error of at most 1/16, about 6%.
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+  private static final int MAX_VALUE_BITS = 40;
+  private static final int BUCKET_COUNT =
+      (MAX_VALUE_BITS - SUB_BUCKET_BITS) * HALF_SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+  private volatile AtomicLongArray counts;
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong totalValue = new AtomicLong();
+  private final AtomicLong maxValue = new AtomicLong();
+
+  /**
+   * Records a value.
+   *
+   * @param value the value in nanoseconds
+   */
+  public void record(long value) {
+    value = Math.max(value, 0);
+    getCounts().incrementAndGet(getIndex(Math.min(value, (1L << MAX_VALUE_BITS) - 1)));
+    totalCount.incrementAndGet();
+    totalValue.addAndGet(value);
+    long max;
+    while (value > (max = maxValue.get()) && !maxValue.compareAndSet(max, value)) {
+      Thread.onSpinWait();
+    }
+  }
+
+  /** @return the number of recorded values */
+  public long getCount() {
+    return totalCount.get();
+  }
+
+  /** @return the mean of the recorded values in nanoseconds or NaN if there are none */
+  public double getMean() {
+    long count = totalCount.get();
+    return count == 0 ? Double.NaN : (double) totalValue.get() / count;
+  }
+
+  /** @return the largest recorded value in nanoseconds */
+  public long getMax() {
+    return maxValue.get();
+  }
+
+  /**
+   * @param percentile the percentile, between 0 and 100
+   * @return the value in nanoseconds below which the specified percentage of recorded values fall
+   */
+  public long getPercentile(double percentile) {
+    long count = totalCount.get();
+    AtomicLongArray counts = this.counts;
+    if (count == 0 || counts == null) {
+      return 0;
+    }
+
+    long targetCount = Math.max((long) Math.ceil(percentile / 100 * count), 1);
+    long cumulativeCount = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      cumulativeCount += counts.get(i);
+      if (cumulativeCount >= targetCount) {
+        return Math.min(getHighestValue(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /** Clears all recorded values. */
+  public void reset() {
+    AtomicLongArray counts = this.counts;
+    if (counts != null) {
+      for (int i = 0; i < counts.length(); i++) {
+        counts.set(i, 0);
+      }
+    }
+    totalCount.set(0);
+    totalValue.set(0);
+    maxValue.set(0);
+  }
+
+  private AtomicLongArray getCounts() {
+    // The buckets are allocated lazily so that unused histograms stay small
+    AtomicLongArray counts = this.counts;
+    if (counts == null) {
+      synchronized (this) {
+        counts = this.counts;
+        if (counts == null) {
+          this.counts = counts = new AtomicLongArray(BUCKET_COUNT);
+        }
+      }
+    }
+    return counts;
+  }
+
+  private static int getIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+
+    int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return shift * HALF_SUB_BUCKET_COUNT + (int) (value >>> shift);
+  }
+
+  private static long getHighestValue(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+
+    int shift = index / HALF_SUB_BUCKET_COUNT - 1;
+    long subBucket = index - (long) shift * HALF_SUB_BUCKET_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
@@ -2,11 +2,19 @@ package neon.utils;
 
 import java.awt.image.BufferedImage;
 
-/** A class used to load sprites from sprite sheets. */
+import neon.rendering.AtlasRegion;
+
+/**
+ * A class used to load sprites from sprite sheets. Each sprite is cropped the first time it is
+ * requested and cached, so later requests don't create new subimages.
+ */
 public class SpriteSheet {
   private final BufferedImage image;
   private final int width;
   private final int height;
+  private final int columnCount;
+  private final BufferedImage[] sprites;
+  private final AtlasRegion[] regions;
 
   /**
    * @param image the image
@@ -17,6 +25,10 @@ public class SpriteSheet {
     this.image = image;
     this.width = width;
     this.height = height;
+    columnCount = image.getWidth() / width;
+    int frameCount = columnCount * (image.getHeight() / height);
+    sprites = new BufferedImage[frameCount];
+    regions = new AtlasRegion[frameCount];
   }
 
   /**
@@ -36,6 +48,47 @@ public class SpriteSheet {
    * @return the sprite
    */
   public BufferedImage getSprite(int x, int y) {
-    return image.getSubimage(x * width, y * height, width, height);
+    int index = getIndex(x, y);
+    BufferedImage sprite = sprites[index];
+    if (sprite == null) {
+      sprite = image.getSubimage(x * width, y * height, width, height);
+      sprites[index] = sprite;
+    }
+    return sprite;
+  }
+
+  /**
+   * Returns the region of the sprite sheet containing a sprite. Drawing the region with {@link
+   * neon.rendering.RenderSystem#drawRegion} draws straight from the sprite sheet.
+   *
+   * @param x the x value of the sprite on the grid
+   * @param y the y value of the sprite on the grid
+   * @return the region containing the sprite
+   */
+  public AtlasRegion getRegion(int x, int y) {
+    int index = getIndex(x, y);
+    AtlasRegion region = regions[index];
+    if (region == null) {
+      region = new AtlasRegion(image, x * width, y * height, width, height);
+      regions[index] = region;
+    }
+    return region;
+  }
+
+  /** @return the number of sprites in each row of the sprite sheet */
+  public int getColumnCount() {
+    return columnCount;
+  }
+
+  /** @return the number of sprites in each column of the sprite sheet */
+  public int getRowCount() {
+    return sprites.length / Math.max(columnCount, 1);
+  }
+
+  private int getIndex(int x, int y) {
+    if (x < 0 || x >= columnCount || y < 0 || y >= getRowCount()) {
+      throw new IndexOutOfBoundsException("The sprite is outside the sprite sheet.");
+    }
+    return y * columnCount + x;
   }
 }
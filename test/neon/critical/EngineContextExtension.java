@@ -0,0 +1,25 @@
+package neon.critical;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * A JUnit extension that makes a context with a 1280 by 720 window the default context during each
+ * test. Since the window is wider than it is tall, width and height units differ, which is what
+ * most unit conversion bugs need in order to show. The context has no game and is never run.
+ */
+public class EngineContextExtension implements BeforeEachCallback, AfterEachCallback {
+  @Override
+  public void beforeEach(ExtensionContext extensionContext) {
+    WindowSettings windowSettings =
+        new WindowSettings("Test", WindowOption.NONE, 2, 1280, 720, true);
+    EngineContext.setDefault(
+        new EngineContext(null, new GameSettings(windowSettings, 60, 60, true)));
+  }
+
+  @Override
+  public void afterEach(ExtensionContext extensionContext) {
+    EngineContext.setDefault(null);
+  }
+}
@@ -0,0 +1,41 @@
+package neon.critical;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+class EngineMetricsTest {
+  @Test
+  void metricsOfEachContextCanBeRegistered() throws Exception {
+    EngineMetrics first = new EngineMetrics();
+    EngineMetrics second = new EngineMetrics();
+    try {
+      assertTrue(first.registerMBean());
+      assertTrue(second.registerMBean());
+      assertFalse(first.registerMBean());
+    } finally {
+      first.unregisterMBean();
+      second.unregisterMBean();
+    }
+  }
+
+  @Test
+  void unregisteredNamesCanBeReused() throws Exception {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName("neon:type=EngineMetrics,name=\"test\"");
+    EngineMetrics first = new EngineMetrics();
+    EngineMetrics second = new EngineMetrics();
+    assertTrue(first.registerMBean("test"));
+    assertTrue(server.isRegistered(name));
+    assertTrue(first.unregisterMBean());
+    assertFalse(server.isRegistered(name));
+    assertFalse(first.unregisterMBean());
+
+    assertTrue(second.registerMBean("test"));
+    assertTrue(second.unregisterMBean());
+  }
+}
@@ -0,0 +1,19 @@
+package neon.critical;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FramePacerTest {
+  @Test
+  void waitUntilReturnsAfterTheDeadline() {
+    for (PacingStrategy strategy : PacingStrategy.values()) {
+      FramePacer pacer = new FramePacer(strategy);
+      for (int i = 0; i < 20; i++) {
+        long deadline = System.nanoTime() + 2_000_000;
+        pacer.waitUntil(deadline);
+        assertTrue(System.nanoTime() >= deadline, strategy + " returned before the deadline");
+      }
+    }
+  }
+}
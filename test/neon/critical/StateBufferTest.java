@@ -0,0 +1,77 @@
+package neon.critical;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class StateBufferTest {
+  @Test
+  void getReadStateReturnsTheLastPublishedState() {
+    StateBuffer<int[]> buffer = new StateBuffer<>(() -> new int[1]);
+    int[] first = buffer.getWriteState();
+    first[0] = 1;
+    buffer.publish();
+    assertSame(first, buffer.getReadState());
+
+    int[] second = buffer.getWriteState();
+    assertNotSame(first, second);
+    second[0] = 2;
+    buffer.publish();
+    int[] third = buffer.getWriteState();
+    third[0] = 3;
+    buffer.publish();
+    // Only the most recent state is read, and the skipped one is reused for writing
+    assertSame(third, buffer.getReadState());
+    assertSame(third, buffer.getReadState());
+  }
+
+  @Test
+  void writeStateIsNeverTheReadState() {
+    StateBuffer<int[]> buffer = new StateBuffer<>(() -> new int[1]);
+    for (int i = 0; i < 100; i++) {
+      if (i % 3 != 0) {
+        buffer.publish();
+      }
+      if (i % 2 == 0) {
+        buffer.getReadState();
+      }
+      assertNotSame(buffer.getWriteState(), buffer.getReadState());
+    }
+  }
+
+  @Test
+  void readerSeesCompleteStatesInOrder() throws InterruptedException {
+    // Each state holds a tick and its negation, so a torn state would not sum to 0
+    StateBuffer<long[]> buffer = new StateBuffer<>(() -> new long[2]);
+    int tickCount = 200_000;
+    AtomicReference<String> failure = new AtomicReference<>();
+    Thread reader =
+        new Thread(
+            () -> {
+              long previousTick = 0;
+              while (previousTick < tickCount) {
+                long[] state = buffer.getReadState();
+                long tick = state[0];
+                if (tick + state[1] != 0 || tick < previousTick) {
+                  failure.set("Read tick " + tick + " after tick " + previousTick);
+                  return;
+                }
+                previousTick = tick;
+              }
+            });
+    reader.start();
+    for (long tick = 1; tick <= tickCount; tick++) {
+      long[] state = buffer.getWriteState();
+      state[0] = tick;
+      state[1] = -tick;
+      buffer.publish();
+    }
+    reader.join(10_000);
+    assertTrue(!reader.isAlive(), "The reader never saw the last tick");
+    assertEquals(null, failure.get());
+  }
+}
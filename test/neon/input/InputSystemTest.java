@@ -0,0 +1,24 @@
+package neon.input;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import neon.physics.Vector2D;
+import org.junit.jupiter.api.Test;
+
+class InputSystemTest {
+  @Test
+  void staticMethodsWorkWithoutAContext() {
+    InputSystem.update();
+    InputSystem.setMousePosition(new Vector2D(0.5, 0.5));
+    InputSystem.setRawMousePosition(new Vector2D(640, 360));
+    assertNull(InputSystem.getKeyPresses());
+    assertNull(InputSystem.getKeysHeld());
+    assertNull(InputSystem.getMousePosition());
+    assertNull(InputSystem.getRawMousePosition());
+    assertNull(InputSystem.getMousePresses());
+    assertFalse(InputSystem.isLeftMouseButtonHeld());
+    assertFalse(InputSystem.isKeyHeld('a'));
+    assertFalse(InputSystem.isKeyHeld(65));
+  }
+}
@@ -0,0 +1,106 @@
+package neon.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BodyTest {
+  private static final double EPSILON = 1e-9;
+
+  @Test
+  void bodySleepsAfterEnoughSlowUpdates() {
+    Body body = new Body(new RectangularHitbox(new Vector2D(0.5, 0.5), 0.1, 0.1), false, 1e-3, 3);
+    body.setVelocity(5e-4, 0);
+    body.update();
+    body.update();
+    assertFalse(body.isSleeping());
+    body.update();
+    assertTrue(body.isSleeping());
+    assertFalse(body.isActive());
+    assertEquals(0.5015, body.getHitbox().getCenter().getX(), EPSILON);
+
+    // Sleeping bodies do not move
+    body.update();
+    assertEquals(0.5015, body.getHitbox().getCenter().getX(), EPSILON);
+  }
+
+  @Test
+  void fastUpdatesResetTheSleepCount() {
+    Body body = new Body(new RectangularHitbox(new Vector2D(0.5, 0.5), 0.1, 0.1), false, 1e-3, 2);
+    body.update();
+    body.setVelocity(0.01, 0);
+    body.update();
+    body.getVelocity().set(0, 0);
+    body.update();
+    assertFalse(body.isSleeping());
+    body.update();
+    assertTrue(body.isSleeping());
+  }
+
+  @Test
+  void settingTheVelocityWakesTheBody() {
+    Body body = new Body(new RectangularHitbox(new Vector2D(0.5, 0.5), 0.1, 0.1), false, 1e-3, 1);
+    body.update();
+    assertTrue(body.isSleeping());
+    body.setVelocity(0.01, 0);
+    assertFalse(body.isSleeping());
+    body.update();
+    assertEquals(0.51, body.getHitbox().getCenter().getX(), EPSILON);
+  }
+
+  @Test
+  void movingTheBodyCachesItsBoundsAndWakesIt() {
+    Body body = new Body(new RectangularHitbox(new Vector2D(0.5, 0.5), 0.1, 0.2), false, 1e-3, 1);
+    assertTrue(body.isDirty());
+    body.clearDirty();
+    body.update();
+    assertTrue(body.isSleeping());
+    body.clearDirty();
+
+    body.move(0.1, -0.1);
+    assertTrue(body.isDirty());
+    assertFalse(body.isSleeping());
+    assertEquals(0.55, body.getLowerXBound(), EPSILON);
+    assertEquals(0.65, body.getHigherXBound(), EPSILON);
+    assertEquals(0.3, body.getLowerYBound(), EPSILON);
+    assertEquals(0.5, body.getHigherYBound(), EPSILON);
+
+    // Bounds are only cached, so direct changes to the hitbox need markMoved()
+    body.clearDirty();
+    body.getHitbox().getCenter().setX(0.2);
+    assertEquals(0.55, body.getLowerXBound(), EPSILON);
+    body.markMoved();
+    assertTrue(body.isDirty());
+    assertEquals(0.15, body.getLowerXBound(), EPSILON);
+  }
+
+  @Test
+  void staticBodiesNeverMove() {
+    Body body = new Body(new RectangularHitbox(new Vector2D(0.5, 0.5), 0.1, 0.1), true);
+    body.setVelocity(0.01, 0);
+    body.update();
+    assertFalse(body.isActive());
+    assertEquals(0.5, body.getHitbox().getCenter().getX(), EPSILON);
+  }
+
+  @Test
+  void onlyBodiesWithAnActiveSideIntersect() {
+    Body first = new Body(new RectangularHitbox(new Vector2D(0.5, 0.5), 0.125, 0.125), true);
+    Body second = new Body(new RectangularHitbox(new Vector2D(0.5625, 0.5), 0.125, 0.125), true);
+    assertFalse(first.doesIntersectBody(second));
+    assertFalse(second.preventIntersection(first));
+
+    Body third =
+        new Body(new RectangularHitbox(new Vector2D(0.59375, 0.5), 0.125, 0.125), false);
+    third.clearDirty();
+    assertTrue(third.doesIntersectBody(first));
+    assertTrue(first.doesIntersectBody(third));
+    assertTrue(third.preventIntersection(first));
+    assertTrue(third.isDirty());
+    assertEquals(0.625, third.getHitbox().getCenter().getX());
+    assertEquals(0.5625, third.getLowerXBound());
+    assertFalse(third.doesIntersectBody(first));
+  }
+}
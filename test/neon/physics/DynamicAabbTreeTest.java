@@ -0,0 +1,209 @@
+package neon.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import neon.critical.EngineContextExtension;
+import neon.rendering.UnitConverter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(EngineContextExtension.class)
+class DynamicAabbTreeTest {
+  private static final double EPSILON = 1e-9;
+
+  @Test
+  void queriesMatchBruteForce() {
+    Random random = new Random(14);
+    DynamicAabbTree tree = new DynamicAabbTree(0.01, 0.01);
+    List<Hitbox> hitboxes = new ArrayList<>();
+    List<Integer> proxies = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      Hitbox hitbox = createHitbox(random);
+      hitboxes.add(hitbox);
+      proxies.add(tree.add(hitbox));
+    }
+    for (int i = 0; i < 1000; i++) {
+      int index = random.nextInt(hitboxes.size());
+      if (random.nextInt(5) == 0) {
+        tree.remove(proxies.get(index));
+        hitboxes.set(index, createHitbox(random));
+        proxies.set(index, tree.add(hitboxes.get(index)));
+      } else {
+        hitboxes.get(index).getCenter().add(random.nextDouble() * 0.1 - 0.05, 0.01);
+        tree.update(proxies.get(index));
+      }
+    }
+    assertEquals(300, tree.size());
+
+    int[] result = new int[hitboxes.size()];
+    for (int i = 0; i < 100; i++) {
+      Hitbox region = createHitbox(random);
+      Set<Integer> expected = new HashSet<>();
+      for (int j = 0; j < hitboxes.size(); j++) {
+        if (doBoundsOverlap(region, hitboxes.get(j))) {
+          expected.add(proxies.get(j));
+        }
+      }
+      assertEquals(expected, toSet(result, tree.query(region, result)));
+
+      Vector2D point = new Vector2D(random.nextDouble(), random.nextDouble());
+      expected.clear();
+      for (int j = 0; j < hitboxes.size(); j++) {
+        if (hitboxes.get(j).doesContainVector(point)) {
+          expected.add(proxies.get(j));
+        }
+      }
+      assertEquals(expected, toSet(result, tree.queryPoint(point, result)));
+    }
+  }
+
+  @Test
+  void findNearestMatchesBruteForce() {
+    Random random = new Random(15);
+    DynamicAabbTree tree = new DynamicAabbTree(0.02, 0.02);
+    assertEquals(-1, tree.findNearest(new Vector2D(0.5, 0.5)));
+    List<Hitbox> hitboxes = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      Hitbox hitbox = createHitbox(random);
+      hitboxes.add(hitbox);
+      tree.add(hitbox);
+    }
+
+    for (int i = 0; i < 200; i++) {
+      Vector2D point = new Vector2D(random.nextDouble() * 2 - 0.5, random.nextDouble() * 2 - 0.5);
+      double expected = Double.POSITIVE_INFINITY;
+      for (Hitbox hitbox : hitboxes) {
+        expected = Math.min(expected, getDistance(point, hitbox));
+      }
+      int proxy = tree.findNearest(point);
+      assertEquals(expected, getDistance(point, tree.getHitbox(proxy)), EPSILON);
+    }
+  }
+
+  @Test
+  void raycastMatchesBruteForce() {
+    Random random = new Random(16);
+    DynamicAabbTree tree = new DynamicAabbTree(0.01, 0.01);
+    List<Hitbox> hitboxes = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Hitbox hitbox = createHitbox(random);
+      hitboxes.add(hitbox);
+      tree.add(hitbox);
+    }
+
+    Vector2D hitPoint = new Vector2D(0, 0);
+    for (int i = 0; i < 500; i++) {
+      Vector2D start = new Vector2D(random.nextDouble() * 2 - 0.5, random.nextDouble() * 2 - 0.5);
+      Vector2D end = new Vector2D(random.nextDouble() * 2 - 0.5, random.nextDouble() * 2 - 0.5);
+      double expected = -1;
+      for (Hitbox hitbox : hitboxes) {
+        double fraction = getSegmentFraction(start, end, hitbox);
+        if (fraction >= 0 && (expected < 0 || fraction < expected)) {
+          expected = fraction;
+        }
+      }
+
+      int proxy = tree.raycast(start, end, hitPoint);
+      if (expected < 0) {
+        assertEquals(-1, proxy);
+        continue;
+      }
+      assertEquals(expected, getSegmentFraction(start, end, tree.getHitbox(proxy)), EPSILON);
+      assertEquals(
+          start.getX() + (end.getX() - start.getX()) * expected, hitPoint.getX(), EPSILON);
+      assertEquals(
+          start.getY() + (end.getY() - start.getY()) * expected, hitPoint.getY(), EPSILON);
+    }
+  }
+
+  @Test
+  void raycastMeasuresCirclesInWidthUnits() {
+    DynamicAabbTree tree = new DynamicAabbTree(0, 0);
+    int proxy = tree.add(new CircularHitbox(new Vector2D(0.5, 0.5), 0.05));
+    tree.add(new RectangularHitbox(new Vector2D(0.1, 0.1), 0.05, 0.05));
+    Vector2D hitPoint = new Vector2D(0, 0);
+    assertEquals(proxy, tree.raycast(new Vector2D(0.5, 0.2), new Vector2D(0.5, 0.8), hitPoint));
+    assertEquals(0.5, hitPoint.getX(), EPSILON);
+    assertEquals(0.5 - UnitConverter.toHeight(0.05), hitPoint.getY(), EPSILON);
+
+    // Passes below the circle, which is narrower in height units than in width units
+    double y = 0.5 + UnitConverter.toHeight(0.06);
+    assertEquals(-1, tree.raycast(new Vector2D(0.3, y), new Vector2D(0.7, y), null));
+  }
+
+  @Test
+  void updateOnlyReinsertsHitboxesThatLeaveTheirMargin() {
+    DynamicAabbTree tree = new DynamicAabbTree(0.05, 0.05);
+    Hitbox hitbox = new RectangularHitbox(new Vector2D(0.5, 0.5), 0.1, 0.1);
+    int proxy = tree.add(hitbox);
+    hitbox.getCenter().add(0.01, -0.01);
+    assertFalse(tree.update(proxy));
+    hitbox.getCenter().add(0.1, 0);
+    assertTrue(tree.update(proxy));
+    assertEquals(1, tree.query(0.6, 0.65, 0.45, 0.5, new int[1]));
+  }
+
+  @Test
+  void treeStaysBalanced() {
+    DynamicAabbTree tree = new DynamicAabbTree(0, 0);
+    // Sorted insertions would make an unbalanced tree as deep as it is large
+    for (int i = 0; i < 1024; i++) {
+      tree.add(new RectangularHitbox(new Vector2D(i * 0.01, 0.5), 0.005, 0.005));
+    }
+    assertTrue(tree.getHeight() <= 20, "The height was " + tree.getHeight());
+  }
+
+  private static Hitbox createHitbox(Random random) {
+    Vector2D center = new Vector2D(random.nextDouble(), random.nextDouble());
+    return new RectangularHitbox(center, random.nextDouble() * 0.1, random.nextDouble() * 0.1);
+  }
+
+  private static boolean doBoundsOverlap(Hitbox a, Hitbox b) {
+    return a.getLowerXBound() < b.getHigherXBound()
+        && a.getHigherXBound() > b.getLowerXBound()
+        && a.getLowerYBound() < b.getHigherYBound()
+        && a.getHigherYBound() > b.getLowerYBound();
+  }
+
+  private static double getDistance(Vector2D point, Hitbox hitbox) {
+    double x = point.getX();
+    double y = point.getY();
+    double differenceX =
+        Math.max(Math.max(hitbox.getLowerXBound() - x, x - hitbox.getHigherXBound()), 0);
+    double differenceY =
+        Math.max(Math.max(hitbox.getLowerYBound() - y, y - hitbox.getHigherYBound()), 0);
+    return Math.sqrt(differenceX * differenceX + differenceY * differenceY);
+  }
+
+  /** @return the fraction where the segment enters the hitbox's bounds, or -1 if it misses */
+  private static double getSegmentFraction(Vector2D start, Vector2D end, Hitbox hitbox) {
+    double[] starts = {start.getX(), start.getY()};
+    double[] directions = {end.getX() - start.getX(), end.getY() - start.getY()};
+    double[] lows = {hitbox.getLowerXBound(), hitbox.getLowerYBound()};
+    double[] highs = {hitbox.getHigherXBound(), hitbox.getHigherYBound()};
+    double entry = 0;
+    double exit = 1;
+    for (int axis = 0; axis < 2; axis++) {
+      double first = (lows[axis] - starts[axis]) / directions[axis];
+      double second = (highs[axis] - starts[axis]) / directions[axis];
+      entry = Math.max(entry, Math.min(first, second));
+      exit = Math.min(exit, Math.max(first, second));
+    }
+    return entry <= exit ? entry : -1;
+  }
+
+  private static Set<Integer> toSet(int[] result, int count) {
+    Set<Integer> set = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      set.add(result[i]);
+    }
+    return set;
+  }
+}
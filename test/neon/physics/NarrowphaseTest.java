@@ -0,0 +1,119 @@
+package neon.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import neon.critical.EngineContextExtension;
+import neon.rendering.UnitConverter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(EngineContextExtension.class)
+class NarrowphaseTest {
+  private static final double EPSILON = 1e-9;
+
+  @Test
+  void rectanglesCollideAlongTheAxisTheCentersAreFurthestApartOn() {
+    RectangularHitbox first = new RectangularHitbox(new Vector2D(0.5, 0.5), 0.2, 0.2);
+    RectangularHitbox second = new RectangularHitbox(new Vector2D(0.65, 0.52), 0.2, 0.2);
+    Contact contact = new Contact();
+    assertTrue(Narrowphase.collide(first, second, contact));
+    assertContact(1, 0, 0.05, contact);
+
+    second.getCenter().set(0.52, 0.35);
+    assertTrue(Narrowphase.collide(first, second, contact));
+    assertContact(0, -1, 0.05, contact);
+
+    // Touching rectangles do not intersect
+    RectangularHitbox left = new RectangularHitbox(new Vector2D(0.5, 0.5), 0.25, 0.25);
+    RectangularHitbox right = new RectangularHitbox(new Vector2D(0.75, 0.5), 0.25, 0.25);
+    assertFalse(Narrowphase.collide(left, right, contact));
+  }
+
+  @Test
+  void circlesCollideAlongTheLineBetweenTheirCenters() {
+    CircularHitbox first = new CircularHitbox(new Vector2D(0.5, 0.5), 0.05);
+    CircularHitbox second = new CircularHitbox(new Vector2D(0.58, 0.5), 0.05);
+    Contact contact = new Contact();
+    assertTrue(Narrowphase.collide(first, second, contact));
+    assertContact(1, 0, 0.02, contact);
+    assertTrue(Narrowphase.collide(second, first, contact));
+    assertContact(-1, 0, 0.02, contact);
+
+    second.getCenter().setX(0.61);
+    assertFalse(Narrowphase.collide(first, second, contact));
+  }
+
+  @Test
+  void circleAndRectangleContactsPointFromTheFirstHitbox() {
+    CircularHitbox circle = new CircularHitbox(new Vector2D(0.37, 0.5), 0.05);
+    RectangularHitbox rectangle = new RectangularHitbox(new Vector2D(0.5, 0.5), 0.2, 0.2);
+    Contact contact = new Contact();
+    assertTrue(Narrowphase.collide(circle, rectangle, contact));
+    assertContact(1, 0, 0.02, contact);
+    assertTrue(Narrowphase.collide(rectangle, circle, contact));
+    assertContact(-1, 0, 0.02, contact);
+
+    // A center inside the rectangle is pushed out through the closest side
+    circle.getCenter().setX(0.42);
+    assertTrue(Narrowphase.collide(circle, rectangle, contact));
+    assertContact(1, 0, 0.07, contact);
+
+    circle.getCenter().setX(0.34);
+    assertFalse(Narrowphase.collide(circle, rectangle, contact));
+    assertFalse(Narrowphase.collide(rectangle, circle, null));
+  }
+
+  @Test
+  void separateMovesTheFirstHitboxOut() {
+    RectangularHitbox first = new RectangularHitbox(new Vector2D(0.625, 0.53125), 0.25, 0.25);
+    RectangularHitbox second = new RectangularHitbox(new Vector2D(0.5, 0.5), 0.25, 0.25);
+    assertTrue(Narrowphase.separate(first, second));
+    assertEquals(0.75, first.getCenter().getX());
+    assertEquals(0.53125, first.getCenter().getY());
+    assertEquals(0.5, second.getCenter().getX());
+    assertFalse(Narrowphase.collide(first, second, null));
+    assertFalse(Narrowphase.separate(first, second));
+  }
+
+  @Test
+  void collideMeasuresCirclesInWidthUnits() {
+    // 0.084 width units apart vertically, which is about 0.149 height units
+    CircularHitbox first = new CircularHitbox(new Vector2D(0.5, 0.5), 0.05);
+    CircularHitbox second =
+        new CircularHitbox(new Vector2D(0.5, 0.5 + UnitConverter.toHeight(0.084)), 0.05);
+    assertTrue(Narrowphase.collide(first, second, null));
+    assertTrue(first.doesIntersectHitbox(second));
+
+    second.getCenter().set(0.5, 0.5 + UnitConverter.toHeight(0.11));
+    assertFalse(Narrowphase.collide(first, second, null));
+  }
+
+  @Test
+  void separateMovesCirclesApartInWidthUnits() {
+    CircularHitbox first = new CircularHitbox(new Vector2D(0.5, 0.5), 0.05);
+    CircularHitbox second =
+        new CircularHitbox(new Vector2D(0.53, 0.5 + UnitConverter.toHeight(0.04)), 0.05);
+    assertTrue(Narrowphase.separate(first, second));
+    assertEquals(0.1, first.getCenter().getDistanceBetween(second.getCenter()), EPSILON);
+  }
+
+  @Test
+  void separateMovesCircleOutOfRectangleInWidthUnits() {
+    RectangularHitbox rectangle = new RectangularHitbox(new Vector2D(0.5, 0.5), 0.2, 0.2);
+    double top = rectangle.getLowerYBound();
+    CircularHitbox circle =
+        new CircularHitbox(new Vector2D(0.5, top - UnitConverter.toHeight(0.03)), 0.05);
+    assertTrue(Narrowphase.collide(circle, rectangle, null));
+    assertTrue(Narrowphase.separate(circle, rectangle));
+    assertEquals(0.05, UnitConverter.toWidth(top - circle.getCenter().getY()), EPSILON);
+  }
+
+  private static void assertContact(
+      double normalX, double normalY, double depth, Contact contact) {
+    assertEquals(normalX, contact.getNormal().getX(), EPSILON);
+    assertEquals(normalY, contact.getNormal().getY(), EPSILON);
+    assertEquals(depth, contact.getDepth(), EPSILON);
+  }
+}
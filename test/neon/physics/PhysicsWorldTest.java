@@ -0,0 +1,129 @@
+package neon.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import neon.critical.EngineContextExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(EngineContextExtension.class)
+class PhysicsWorldTest {
+  private static final double EPSILON = 1e-9;
+
+  @Test
+  void staticHitboxesDoNotJoinIslands() {
+    PhysicsWorld world = new PhysicsWorld(0.1, 0.1);
+    int wall = world.add(new RectangularHitbox(new Vector2D(0.5, 0.5), 0.2, 0.2), true);
+    int left = world.add(new RectangularHitbox(new Vector2D(0.35, 0.5), 0.2, 0.2), false);
+    int right = world.add(new RectangularHitbox(new Vector2D(0.65, 0.5), 0.2, 0.2), false);
+    int first = world.add(new RectangularHitbox(new Vector2D(0.1, 0.1), 0.1, 0.1), false);
+    int second = world.add(new RectangularHitbox(new Vector2D(0.15, 0.1), 0.1, 0.1), false);
+    world.step();
+    assertEquals(3, world.getIslandCount());
+
+    assertEquals(0.5, world.getHitbox(wall).getCenter().getX(), EPSILON);
+    assertEquals(0.3, world.getHitbox(left).getCenter().getX(), EPSILON);
+    assertEquals(0.7, world.getHitbox(right).getCenter().getX(), EPSILON);
+    // Two dynamic hitboxes are each moved by half of their overlap
+    assertEquals(0.075, world.getHitbox(first).getCenter().getX(), EPSILON);
+    assertEquals(0.175, world.getHitbox(second).getCenter().getX(), EPSILON);
+    assertFalse(world.getHitbox(first).doesIntersectHitbox(world.getHitbox(second)));
+
+    world.step();
+    assertEquals(0, world.getIslandCount());
+  }
+
+  @Test
+  void pushedSleepingBodiesWakeUp() {
+    PhysicsWorld world = new PhysicsWorld(0.1, 0.1);
+    Body sleeper =
+        new Body(new RectangularHitbox(new Vector2D(0.5, 0.5), 0.1, 0.1), false, 1e-4, 1);
+    Body mover = new Body(new RectangularHitbox(new Vector2D(0.37, 0.5), 0.1, 0.1), false);
+    world.add(sleeper);
+    world.add(mover);
+    mover.setVelocity(0.02, 0);
+    world.step();
+    assertTrue(sleeper.isSleeping());
+    assertEquals(0, world.getIslandCount());
+
+    world.step();
+    assertEquals(1, world.getIslandCount());
+    assertFalse(sleeper.isSleeping());
+    assertEquals(0.505, sleeper.getHitbox().getCenter().getX(), EPSILON);
+    assertEquals(0.405, mover.getHitbox().getCenter().getX(), EPSILON);
+  }
+
+  @Test
+  void sleepingBodiesAreNotChecked() {
+    PhysicsWorld world = new PhysicsWorld(0.1, 0.1);
+    Body first =
+        new Body(new RectangularHitbox(new Vector2D(0.5, 0.5), 0.1, 0.1), false, 1e-4, 1);
+    Body second =
+        new Body(new RectangularHitbox(new Vector2D(0.55, 0.5), 0.1, 0.1), false, 1e-4, 1);
+    world.add(first);
+    world.add(second);
+    world.step();
+    assertEquals(0, world.getIslandCount());
+    assertEquals(0.5, first.getHitbox().getCenter().getX(), EPSILON);
+
+    first.setVelocity(0.001, 0);
+    world.step();
+    assertEquals(1, world.getIslandCount());
+    assertEquals(
+        0.1, second.getHitbox().getCenter().getX() - first.getHitbox().getCenter().getX(), EPSILON);
+  }
+
+  @Test
+  void resultsDoNotDependOnThePool() {
+    ForkJoinPool singlePool = new ForkJoinPool(1);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      List<Hitbox> expected = createClusters();
+      PhysicsWorld singleWorld = new PhysicsWorld(0.05, 0.05, 4, singlePool);
+      expected.forEach(hitbox -> singleWorld.add(hitbox, false));
+      List<Hitbox> actual = createClusters();
+      PhysicsWorld world = new PhysicsWorld(0.05, 0.05, 4, pool);
+      actual.forEach(hitbox -> world.add(hitbox, false));
+
+      for (int step = 0; step < 5; step++) {
+        singleWorld.step();
+        world.step();
+        assertEquals(singleWorld.getIslandCount(), world.getIslandCount());
+        for (int i = 0; i < expected.size(); i++) {
+          Vector2D expectedCenter = expected.get(i).getCenter();
+          Vector2D actualCenter = actual.get(i).getCenter();
+          assertEquals(expectedCenter.getX(), actualCenter.getX());
+          assertEquals(expectedCenter.getY(), actualCenter.getY());
+        }
+      }
+    } finally {
+      singlePool.shutdown();
+      pool.shutdown();
+    }
+  }
+
+  /** @return 50 separate clusters of 10 overlapping hitboxes, which have 2250 pairs in total */
+  private static List<Hitbox> createClusters() {
+    Random random = new Random(17);
+    List<Hitbox> hitboxes = new ArrayList<>();
+    for (int cluster = 0; cluster < 50; cluster++) {
+      double x = 0.1 + cluster % 10 * 0.2;
+      double y = 0.1 + cluster / 10 * 0.2;
+      for (int i = 0; i < 10; i++) {
+        Vector2D center =
+            new Vector2D(x + random.nextDouble() * 0.01, y + random.nextDouble() * 0.01);
+        hitboxes.add(
+            i % 3 == 0
+                ? new CircularHitbox(center, 0.02)
+                : new RectangularHitbox(center, 0.03, 0.03));
+      }
+    }
+    return hitboxes;
+  }
+}
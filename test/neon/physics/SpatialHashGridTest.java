@@ -0,0 +1,160 @@
+package neon.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class SpatialHashGridTest {
+  @Test
+  void findPairsMatchesBruteForce() {
+    Random random = new Random(13);
+    SpatialHashGrid grid = new SpatialHashGrid(0.1, 0.1);
+    List<Hitbox> hitboxes = new ArrayList<>();
+    List<Integer> proxies = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      Hitbox hitbox = createHitbox(random);
+      hitboxes.add(hitbox);
+      proxies.add(grid.add(hitbox));
+    }
+    assertEquals(300, grid.size());
+    assertPairsMatch(grid, hitboxes, proxies);
+
+    for (int i = 0; i < 10; i++) {
+      for (int j = 0; j < hitboxes.size(); j++) {
+        if (random.nextInt(4) == 0) {
+          hitboxes.get(j).getCenter().add(random.nextDouble() * 0.2 - 0.1, 0);
+          grid.update(proxies.get(j));
+        }
+      }
+      assertPairsMatch(grid, hitboxes, proxies);
+    }
+
+    for (Hitbox hitbox : hitboxes) {
+      hitbox.getCenter().add(0, random.nextDouble() * 0.4 - 0.2);
+    }
+    grid.updateAll();
+    assertPairsMatch(grid, hitboxes, proxies);
+  }
+
+  @Test
+  void removedProxiesAreReusedWithoutStalePairs() {
+    Random random = new Random(14);
+    SpatialHashGrid grid = new SpatialHashGrid(0.05, 0.2);
+    List<Hitbox> hitboxes = new ArrayList<>();
+    List<Integer> proxies = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      Hitbox hitbox = createHitbox(random);
+      hitboxes.add(hitbox);
+      proxies.add(grid.add(hitbox));
+    }
+    for (int i = 0; i < 500; i++) {
+      int index = random.nextInt(hitboxes.size());
+      grid.remove(proxies.get(index));
+      Hitbox hitbox = createHitbox(random);
+      hitboxes.set(index, hitbox);
+      proxies.set(index, grid.add(hitbox));
+    }
+    assertEquals(200, grid.size());
+    for (int i = 0; i < hitboxes.size(); i++) {
+      assertEquals(hitboxes.get(i), grid.getHitbox(proxies.get(i)));
+    }
+    assertPairsMatch(grid, hitboxes, proxies);
+  }
+
+  @Test
+  void queryMatchesBruteForce() {
+    Random random = new Random(15);
+    SpatialHashGrid grid = new SpatialHashGrid(0.1, 0.1);
+    List<Hitbox> hitboxes = new ArrayList<>();
+    List<Integer> proxies = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      Hitbox hitbox = createHitbox(random);
+      hitboxes.add(hitbox);
+      proxies.add(grid.add(hitbox));
+    }
+
+    int[] result = new int[hitboxes.size()];
+    for (int i = 0; i < 100; i++) {
+      Hitbox region = createHitbox(random);
+      Set<Integer> expected = new HashSet<>();
+      for (int j = 0; j < hitboxes.size(); j++) {
+        if (doBoundsOverlap(region, hitboxes.get(j))) {
+          expected.add(proxies.get(j));
+        }
+      }
+      int count = grid.query(region, result);
+      Set<Integer> actual = new HashSet<>();
+      for (int j = 0; j < count; j++) {
+        actual.add(result[j]);
+      }
+      assertEquals(expected.size(), count);
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  void queryReportsTheFullCountWhenTheResultIsTooSmall() {
+    SpatialHashGrid grid = new SpatialHashGrid(0.1, 0.1);
+    for (int i = 0; i < 5; i++) {
+      grid.add(new RectangularHitbox(new Vector2D(0.5, 0.5), 0.2, 0.2));
+    }
+    int[] result = new int[2];
+    assertEquals(5, grid.query(0, 1, 0, 1, result));
+    assertEquals(10, grid.findPairs(new int[4]));
+  }
+
+  @Test
+  void touchingHitboxesDoNotOverlap() {
+    SpatialHashGrid grid = new SpatialHashGrid(0.1, 0.1);
+    grid.add(new RectangularHitbox(new Vector2D(0.5, 0.5), 0.2, 0.2));
+    grid.add(new RectangularHitbox(new Vector2D(0.7, 0.5), 0.2, 0.2));
+    assertEquals(0, grid.findPairs(new int[2]));
+    assertEquals(1, grid.query(0.6, 0.8, 0.4, 0.6, new int[2]));
+  }
+
+  private static Hitbox createHitbox(Random random) {
+    // Some hitboxes have negative coordinates or span many cells
+    double width = random.nextInt(8) == 0 ? random.nextDouble() * 0.5 : random.nextDouble() * 0.08;
+    double height = random.nextDouble() * 0.08;
+    double x = random.nextDouble() * 1.4 - 0.2;
+    double y = random.nextDouble() * 1.4 - 0.2;
+    return new RectangularHitbox(new Vector2D(x, y), width, height);
+  }
+
+  private static boolean doBoundsOverlap(Hitbox a, Hitbox b) {
+    return a.getLowerXBound() < b.getHigherXBound()
+        && a.getHigherXBound() > b.getLowerXBound()
+        && a.getLowerYBound() < b.getHigherYBound()
+        && a.getHigherYBound() > b.getLowerYBound();
+  }
+
+  private static void assertPairsMatch(
+      SpatialHashGrid grid, List<Hitbox> hitboxes, List<Integer> proxies) {
+    Set<Long> expected = new HashSet<>();
+    for (int i = 0; i < hitboxes.size(); i++) {
+      for (int j = i + 1; j < hitboxes.size(); j++) {
+        if (doBoundsOverlap(hitboxes.get(i), hitboxes.get(j))) {
+          expected.add(toKey(proxies.get(i), proxies.get(j)));
+        }
+      }
+    }
+
+    int[] pairs = new int[hitboxes.size() * hitboxes.size()];
+    int pairCount = grid.findPairs(pairs);
+    Set<Long> actual = new HashSet<>();
+    for (int i = 0; i < pairCount; i++) {
+      assertTrue(actual.add(toKey(pairs[2 * i], pairs[2 * i + 1])), "Duplicate pair");
+    }
+    assertEquals(expected, actual);
+  }
+
+  private static long toKey(int a, int b) {
+    return (long) Math.min(a, b) << 32 | Math.max(a, b);
+  }
+}
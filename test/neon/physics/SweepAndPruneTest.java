@@ -0,0 +1,125 @@
+package neon.physics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class SweepAndPruneTest {
+  @Test
+  void updateHandlesHitboxesWithNoWidth() {
+    SweepAndPrune sweepAndPrune = new SweepAndPrune(null);
+    sweepAndPrune.add(new RectangularHitbox(new Vector2D(0.5, 0.5), 0, 0.1));
+    sweepAndPrune.add(new RectangularHitbox(new Vector2D(0.5, 0.5), 0.2, 0));
+    sweepAndPrune.add(new RectangularHitbox(new Vector2D(0.6, 0.5), 0, 0.1));
+    sweepAndPrune.update();
+    assertEquals(1, sweepAndPrune.getPairCount());
+
+    sweepAndPrune.add(new RectangularHitbox(new Vector2D(0.5, 0.5), 0.2, 0.2));
+    sweepAndPrune.update();
+    int[] pairs = new int[8];
+    assertEquals(3, sweepAndPrune.getPairs(pairs));
+    assertArrayEquals(new int[] {0, 1, 0, 3, 1, 3, 0, 0}, pairs);
+  }
+
+  @Test
+  void updateMatchesBruteForceWithSharedBounds() {
+    // Bounds are multiples of 1/8, so many of them are equal and some hitboxes have no width
+    SplittableRandom random = new SplittableRandom(0);
+    List<RectangularHitbox> hitboxes = new ArrayList<>();
+    SweepAndPrune sweepAndPrune = new SweepAndPrune(null);
+    for (int i = 0; i < 40; i++) {
+      RectangularHitbox hitbox =
+          new RectangularHitbox(new Vector2D(0, 0), random.nextInt(3) / 4.0, 0.25);
+      moveRandomly(hitbox, random);
+      hitboxes.add(hitbox);
+      sweepAndPrune.add(hitbox);
+    }
+
+    for (int update = 0; update < 50; update++) {
+      for (RectangularHitbox hitbox : hitboxes) {
+        if (random.nextInt(4) == 0) {
+          moveRandomly(hitbox, random);
+        }
+      }
+      sweepAndPrune.update();
+
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < hitboxes.size(); i++) {
+        for (int j = i + 1; j < hitboxes.size(); j++) {
+          if (doBoundsIntersect(hitboxes.get(i), hitboxes.get(j))) {
+            expected.add(i);
+            expected.add(j);
+          }
+        }
+      }
+      int[] pairs = new int[expected.size()];
+      assertEquals(expected.size() / 2, sweepAndPrune.getPairs(pairs));
+      assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), pairs);
+    }
+  }
+
+  @Test
+  void listenerIsNotifiedWhenOverlapsBeginAndEnd() {
+    List<String> events = new ArrayList<>();
+    SweepAndPrune sweepAndPrune =
+        new SweepAndPrune(
+            new SweepAndPrune.OverlapListener() {
+              @Override
+              public void onOverlapBegin(int first, int second) {
+                events.add("begin " + first + " " + second);
+              }
+
+              @Override
+              public void onOverlapEnd(int first, int second) {
+                events.add("end " + first + " " + second);
+              }
+            });
+    RectangularHitbox first = new RectangularHitbox(new Vector2D(0.2, 0.5), 0.2, 0.2);
+    RectangularHitbox second = new RectangularHitbox(new Vector2D(0.8, 0.5), 0.2, 0.2);
+    RectangularHitbox third = new RectangularHitbox(new Vector2D(0.5, 0.5), 0.2, 0.2);
+    sweepAndPrune.add(first);
+    sweepAndPrune.add(second);
+    int thirdProxy = sweepAndPrune.add(third);
+    sweepAndPrune.update();
+    assertEquals(List.of(), events);
+
+    first.getCenter().setX(0.4);
+    second.getCenter().setX(0.55);
+    sweepAndPrune.update();
+    assertEquals(List.of("begin 0 1", "begin 0 2", "begin 1 2"), sorted(events));
+    sweepAndPrune.update();
+    assertEquals(3, events.size());
+
+    events.clear();
+    sweepAndPrune.remove(thirdProxy);
+    assertEquals(List.of("end 0 2", "end 1 2"), sorted(events));
+    assertEquals(1, sweepAndPrune.getPairCount());
+
+    events.clear();
+    second.getCenter().setX(0.9);
+    sweepAndPrune.update();
+    assertEquals(List.of("end 0 1"), events);
+    assertEquals(0, sweepAndPrune.getPairCount());
+  }
+
+  private static void moveRandomly(RectangularHitbox hitbox, SplittableRandom random) {
+    hitbox.getCenter().set(random.nextInt(9) / 8.0, random.nextInt(9) / 8.0);
+  }
+
+  private static boolean doBoundsIntersect(Hitbox first, Hitbox second) {
+    return first.getLowerXBound() < second.getHigherXBound()
+        && first.getHigherXBound() > second.getLowerXBound()
+        && first.getLowerYBound() < second.getHigherYBound()
+        && first.getHigherYBound() > second.getLowerYBound();
+  }
+
+  private static List<String> sorted(List<String> events) {
+    List<String> sorted = new ArrayList<>(events);
+    sorted.sort(null);
+    return sorted;
+  }
+}
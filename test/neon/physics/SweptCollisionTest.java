@@ -0,0 +1,136 @@
+package neon.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Recording;
+import neon.critical.EngineContext;
+import neon.critical.EngineContextExtension;
+import neon.profiling.HitboxQueryEvent;
+import neon.rendering.UnitConverter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(EngineContextExtension.class)
+class SweptCollisionTest {
+  private static final double EPSILON = 1e-9;
+
+  @Test
+  void getTimeOfImpactFindsWhenRectanglesFirstTouch() {
+    RectangularHitbox moving = new RectangularHitbox(new Vector2D(0.2, 0.5), 0.1, 0.1);
+    RectangularHitbox other = new RectangularHitbox(new Vector2D(0.6, 0.5), 0.1, 0.1);
+    Contact contact = new Contact();
+    double time = SweptCollision.getTimeOfImpact(moving, new Vector2D(0.5, 0), other, contact);
+    assertEquals(0.6, time, EPSILON);
+    assertEquals(1, contact.getNormal().getX(), EPSILON);
+    assertEquals(0, contact.getNormal().getY(), EPSILON);
+
+    // The axis that is entered last is the one that is hit
+    moving.getCenter().set(0.2, 0.2);
+    other.getCenter().set(0.6, 0.6);
+    time = SweptCollision.getTimeOfImpact(moving, new Vector2D(0.5, 0.4), other, contact);
+    assertEquals(0.75, time, EPSILON);
+    assertEquals(0, contact.getNormal().getX(), EPSILON);
+    assertEquals(1, contact.getNormal().getY(), EPSILON);
+  }
+
+  @Test
+  void getTimeOfImpactCountsOneQuery() {
+    RectangularHitbox moving = new RectangularHitbox(new Vector2D(0.2, 0.5), 0.1, 0.1);
+    RectangularHitbox other = new RectangularHitbox(new Vector2D(0.6, 0.5), 0.1, 0.1);
+    LongAdder queryCount = EngineContext.current().getHitboxQueryCount();
+    try (Recording recording = new Recording()) {
+      recording.enable(HitboxQueryEvent.class);
+      recording.start();
+      queryCount.reset();
+      SweptCollision.getTimeOfImpact(moving, new Vector2D(0.5, 0), other, null);
+      assertEquals(1, queryCount.sum());
+    }
+  }
+
+  @Test
+  void getTimeOfImpactMissesHitboxesOutOfReach() {
+    RectangularHitbox moving = new RectangularHitbox(new Vector2D(0.2, 0.5), 0.1, 0.1);
+    RectangularHitbox other = new RectangularHitbox(new Vector2D(0.6, 0.5), 0.1, 0.1);
+    assertEquals(-1, SweptCollision.getTimeOfImpact(moving, new Vector2D(-0.5, 0), other, null));
+    assertEquals(-1, SweptCollision.getTimeOfImpact(moving, new Vector2D(0.2, 0), other, null));
+    assertEquals(-1, SweptCollision.getTimeOfImpact(moving, new Vector2D(0.5, 0.2), other, null));
+  }
+
+  @Test
+  void getTimeOfImpactIsZeroForIntersectingHitboxes() {
+    RectangularHitbox moving = new RectangularHitbox(new Vector2D(0.58, 0.5), 0.1, 0.1);
+    RectangularHitbox other = new RectangularHitbox(new Vector2D(0.6, 0.5), 0.1, 0.1);
+    assertEquals(0, SweptCollision.getTimeOfImpact(moving, new Vector2D(-0.5, 0), other, null));
+  }
+
+  @Test
+  void getTimeOfImpactSweepsCirclesAndMixedShapes() {
+    CircularHitbox moving = new CircularHitbox(new Vector2D(0.2, 0.5), 0.05);
+    CircularHitbox other = new CircularHitbox(new Vector2D(0.6, 0.5), 0.05);
+    Contact contact = new Contact();
+    double time = SweptCollision.getTimeOfImpact(moving, new Vector2D(0.5, 0), other, contact);
+    assertEquals(0.6, time, EPSILON);
+    assertEquals(1, contact.getNormal().getX(), EPSILON);
+    assertEquals(0, contact.getNormal().getY(), EPSILON);
+
+    RectangularHitbox rectangle = new RectangularHitbox(new Vector2D(0.6, 0.5), 0.1, 0.1);
+    time = SweptCollision.getTimeOfImpact(moving, new Vector2D(0.5, 0), rectangle, contact);
+    assertEquals(0.6, time, EPSILON);
+    assertEquals(1, contact.getNormal().getX(), EPSILON);
+
+    RectangularHitbox movingRectangle = new RectangularHitbox(new Vector2D(0.2, 0.5), 0.1, 0.1);
+    time = SweptCollision.getTimeOfImpact(movingRectangle, new Vector2D(0.5, 0), other, contact);
+    assertEquals(0.6, time, EPSILON);
+    assertEquals(1, contact.getNormal().getX(), EPSILON);
+    assertEquals(0, contact.getNormal().getY(), EPSILON);
+  }
+
+  @Test
+  void getTimeOfImpactMeasuresCirclesInWidthUnits() {
+    CircularHitbox moving = new CircularHitbox(new Vector2D(0.5, 0.2), 0.05);
+    CircularHitbox other = new CircularHitbox(new Vector2D(0.5, 0.8), 0.05);
+    Contact contact = new Contact();
+    double time = SweptCollision.getTimeOfImpact(moving, new Vector2D(0, 1), other, contact);
+    assertEquals(0.6 - UnitConverter.toHeight(0.1), time, EPSILON);
+    assertEquals(0, contact.getNormal().getX(), EPSILON);
+    assertEquals(1, contact.getNormal().getY(), EPSILON);
+  }
+
+  @Test
+  void getTimeOfImpactMeasuresCircleAgainstRectangleInWidthUnits() {
+    CircularHitbox moving = new CircularHitbox(new Vector2D(0.5, 0.2), 0.05);
+    RectangularHitbox other = new RectangularHitbox(new Vector2D(0.5, 0.9), 0.4, 0.2);
+    double time = SweptCollision.getTimeOfImpact(moving, new Vector2D(0, 1), other, null);
+    assertEquals(0.6 - UnitConverter.toHeight(0.05), time, EPSILON);
+
+    // Moving diagonally towards a corner, which is round in width units
+    Vector2D corner = new Vector2D(other.getLowerXBound(), other.getLowerYBound());
+    moving.getCenter().set(corner.getX() - 0.2, corner.getY() - UnitConverter.toHeight(0.2));
+    Vector2D displacement = new Vector2D(0.4, UnitConverter.toHeight(0.4));
+    Contact contact = new Contact();
+    double cornerTime = SweptCollision.getTimeOfImpact(moving, displacement, other, contact);
+    assertEquals((0.2 * Math.sqrt(2) - 0.05) / (0.4 * Math.sqrt(2)), cornerTime, EPSILON);
+    Vector2D normal = contact.getNormal();
+    assertEquals(normal.getX(), UnitConverter.toWidth(normal.getY()), EPSILON);
+  }
+
+  @Test
+  void getSweptBoundsContainsTheWholeMove() {
+    RectangularHitbox hitbox = new RectangularHitbox(new Vector2D(0.5, 0.5), 0.1, 0.2);
+    RectangularHitbox bounds = SweptCollision.getSweptBounds(hitbox, new Vector2D(0.2, -0.1), null);
+    assertEquals(0.45, bounds.getLowerXBound(), EPSILON);
+    assertEquals(0.75, bounds.getHigherXBound(), EPSILON);
+    assertEquals(0.3, bounds.getLowerYBound(), EPSILON);
+    assertEquals(0.6, bounds.getHigherYBound(), EPSILON);
+
+    CircularHitbox circle = new CircularHitbox(new Vector2D(0.5, 0.5), 0.05);
+    Vector2D displacement = new Vector2D(0, 0.1);
+    assertSame(bounds, SweptCollision.getSweptBounds(circle, displacement, bounds));
+    assertEquals(circle.getLowerXBound(), bounds.getLowerXBound(), EPSILON);
+    assertEquals(circle.getHigherXBound(), bounds.getHigherXBound(), EPSILON);
+    assertEquals(circle.getLowerYBound(), bounds.getLowerYBound(), EPSILON);
+    assertEquals(circle.getHigherYBound() + 0.1, bounds.getHigherYBound(), EPSILON);
+  }
+}
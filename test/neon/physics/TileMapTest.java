@@ -0,0 +1,143 @@
+package neon.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TileMapTest {
+  private static final double EPSILON = 1e-9;
+
+  @Test
+  void setSolidMatchesABooleanGrid() {
+    // 13 by 11 tiles span three longs, so rows cross the boundaries between them
+    Random random = new Random(20);
+    TileMap map = new TileMap(13, 11, 0.1, 0.1);
+    boolean[][] expected = new boolean[13][11];
+    for (int i = 0; i < 1000; i++) {
+      int column = random.nextInt(13);
+      int row = random.nextInt(11);
+      boolean isSolid = random.nextBoolean();
+      map.setSolid(column, row, isSolid);
+      expected[column][row] = isSolid;
+    }
+    for (int column = 0; column < 13; column++) {
+      for (int row = 0; row < 11; row++) {
+        assertEquals(expected[column][row], map.isSolid(column, row));
+      }
+    }
+  }
+
+  @Test
+  void tilesOutsideOfTheMapAreEmpty() {
+    TileMap map = new TileMap(4, 4, 0.25, 0.25);
+    for (int column = 0; column < 4; column++) {
+      for (int row = 0; row < 4; row++) {
+        map.setSolid(column, row, true);
+      }
+    }
+    assertFalse(map.isSolid(-1, 0));
+    assertFalse(map.isSolid(4, 0));
+    assertFalse(map.isSolid(0, -1));
+    assertFalse(map.isSolid(0, 4));
+    assertThrows(IndexOutOfBoundsException.class, () -> map.setSolid(4, 0, true));
+    assertThrows(IndexOutOfBoundsException.class, () -> map.setSolid(0, -1, true));
+    assertEquals(-1, map.getColumn(-0.01));
+    assertEquals(3, map.getRow(0.99));
+  }
+
+  @Test
+  void hitboxesTouchingATileDoNotIntersectIt() {
+    TileMap map = new TileMap(8, 8, 0.125, 0.125);
+    map.setSolid(2, 2, true);
+    RectangularHitbox hitbox = new RectangularHitbox(new Vector2D(0.4375, 0.3125), 0.125, 0.125);
+    assertFalse(map.doesIntersectHitbox(hitbox));
+    hitbox.getCenter().setX(0.43);
+    assertTrue(map.doesIntersectHitbox(hitbox));
+    hitbox.getCenter().setY(0.45);
+    assertFalse(map.doesIntersectHitbox(hitbox));
+  }
+
+  @Test
+  void preventIntersectionPushesHitboxesUpOutOfTheFloor() {
+    // The hitbox overlaps the edges of two tiles, which would push it sideways if resolved first
+    TileMap map = new TileMap(8, 8, 0.125, 0.125);
+    for (int column = 0; column < 8; column++) {
+      map.setSolid(column, 0, true);
+    }
+    RectangularHitbox hitbox = new RectangularHitbox(new Vector2D(0.5, 0.15625), 0.3125, 0.125);
+    assertTrue(map.preventIntersection(hitbox));
+    assertEquals(0.5, hitbox.getCenter().getX());
+    assertEquals(0.125, hitbox.getLowerYBound());
+    assertFalse(map.doesIntersectHitbox(hitbox));
+    assertFalse(map.preventIntersection(hitbox));
+  }
+
+  @Test
+  void raycastMatchesBruteForce() {
+    Random random = new Random(21);
+    TileMap map = new TileMap(16, 16, 0.0625, 0.0625);
+    for (int column = 0; column < 16; column++) {
+      for (int row = 0; row < 16; row++) {
+        map.setSolid(column, row, random.nextInt(5) == 0);
+      }
+    }
+
+    Vector2D hitPoint = new Vector2D(0, 0);
+    for (int i = 0; i < 1000; i++) {
+      Vector2D start = new Vector2D(random.nextDouble(), random.nextDouble());
+      Vector2D end = new Vector2D(random.nextDouble() * 1.2 - 0.1, random.nextDouble() * 1.2 - 0.1);
+      double expected = -1;
+      for (int column = 0; column < 16; column++) {
+        for (int row = 0; row < 16; row++) {
+          if (map.isSolid(column, row)) {
+            double fraction = getSegmentFraction(start, end, column * 0.0625, row * 0.0625);
+            if (fraction >= 0 && (expected < 0 || fraction < expected)) {
+              expected = fraction;
+            }
+          }
+        }
+      }
+
+      double fraction = map.raycast(start, end, hitPoint);
+      assertEquals(expected, fraction, EPSILON);
+      if (fraction >= 0) {
+        assertEquals(
+            start.getX() + (end.getX() - start.getX()) * fraction, hitPoint.getX(), EPSILON);
+        assertEquals(
+            start.getY() + (end.getY() - start.getY()) * fraction, hitPoint.getY(), EPSILON);
+      }
+    }
+  }
+
+  @Test
+  void raycastStartingInASolidTileHitsImmediately() {
+    TileMap map = new TileMap(4, 4, 0.25, 0.25);
+    map.setSolid(1, 1, true);
+    Vector2D start = new Vector2D(0.3, 0.4);
+    Vector2D hitPoint = new Vector2D(0, 0);
+    assertEquals(0, map.raycast(start, new Vector2D(0.9, 0.9), hitPoint));
+    assertEquals(0.3, hitPoint.getX());
+    assertEquals(0.4, hitPoint.getY());
+    assertEquals(-1, map.raycast(new Vector2D(0.1, 0.9), new Vector2D(0.9, 0.9), null));
+  }
+
+  /** @return the fraction where the segment enters the tile, or -1 if it misses it */
+  private static double getSegmentFraction(Vector2D start, Vector2D end, double lowX, double lowY) {
+    double[] starts = {start.getX(), start.getY()};
+    double[] directions = {end.getX() - start.getX(), end.getY() - start.getY()};
+    double[] lows = {lowX, lowY};
+    double entry = 0;
+    double exit = 1;
+    for (int axis = 0; axis < 2; axis++) {
+      double first = (lows[axis] - starts[axis]) / directions[axis];
+      double second = (lows[axis] + 0.0625 - starts[axis]) / directions[axis];
+      entry = Math.max(entry, Math.min(first, second));
+      exit = Math.min(exit, Math.max(first, second));
+    }
+    return entry <= exit ? entry : -1;
+  }
+}
@@ -0,0 +1,123 @@
+package neon.rendering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Rectangle;
+import java.util.HashSet;
+import java.util.Set;
+import neon.physics.RectangularHitbox;
+import neon.physics.Vector2D;
+import org.junit.jupiter.api.Test;
+
+class DirtyRegionTrackerTest {
+  @Test
+  void firstFrameIsFullyDirty() {
+    DirtyRegionTracker tracker = new DirtyRegionTracker(100, 100);
+    assertTrue(tracker.update());
+    assertEquals(10_000, tracker.getDirtyArea());
+    assertFalse(tracker.update());
+    assertEquals(0, tracker.getRectangleCount());
+    assertEquals(0, tracker.getDirtyArea());
+  }
+
+  @Test
+  void rectanglesAreMergedWhenNoAreaIsWasted() {
+    DirtyRegionTracker tracker = new DirtyRegionTracker(100, 100);
+    tracker.update();
+    tracker.markDirty(0, 0, 10, 10);
+    tracker.markDirty(10, 0, 10, 10);
+    tracker.markDirty(50, 50, 10, 10);
+    tracker.markDirty(52, 52, 2, 2);
+    assertTrue(tracker.update());
+    assertEquals(
+        Set.of(new Rectangle(0, 0, 20, 10), new Rectangle(50, 50, 10, 10)), getRegion(tracker));
+    assertEquals(300, tracker.getDirtyArea());
+  }
+
+  @Test
+  void closestRectanglesAreMergedWhenFull() {
+    DirtyRegionTracker tracker = new DirtyRegionTracker(100, 100, 2);
+    tracker.update();
+    tracker.markDirty(0, 0, 10, 10);
+    tracker.markDirty(80, 80, 10, 10);
+    tracker.markDirty(15, 0, 10, 10);
+    tracker.update();
+    assertEquals(
+        Set.of(new Rectangle(0, 0, 25, 10), new Rectangle(80, 80, 10, 10)), getRegion(tracker));
+  }
+
+  @Test
+  void rectanglesAreClampedToTheScreen() {
+    DirtyRegionTracker tracker = new DirtyRegionTracker(100, 100);
+    tracker.update();
+    tracker.markDirty(-5, -5, 10, 10);
+    tracker.markDirty(95, 95, 10, 10);
+    tracker.markDirty(200, 200, 5, 5);
+    tracker.update();
+    assertEquals(
+        Set.of(new Rectangle(0, 0, 5, 5), new Rectangle(95, 95, 5, 5)), getRegion(tracker));
+  }
+
+  @Test
+  void movingHitboxesDirtyTheirOldAndNewBounds() {
+    DirtyRegionTracker tracker = new DirtyRegionTracker(100, 100);
+    RectangularHitbox hitbox = new RectangularHitbox(new Vector2D(0.2, 0.8), 0.1, 0.1);
+    tracker.track(hitbox);
+    tracker.update();
+    assertFalse(tracker.update());
+
+    // The screen bounds of a hitbox are padded by a pixel before and two pixels after
+    hitbox.getCenter().setX(0.6);
+    assertTrue(tracker.update());
+    assertEquals(
+        Set.of(new Rectangle(14, 14, 13, 13), new Rectangle(54, 14, 13, 13)), getRegion(tracker));
+    assertTrue(tracker.isDirty(hitbox));
+    assertFalse(tracker.isDirty(new RectangularHitbox(new Vector2D(0.4, 0.2), 0.1, 0.1)));
+  }
+
+  @Test
+  void invalidatedAndUntrackedObjectsAreDirty() {
+    DirtyRegionTracker tracker = new DirtyRegionTracker(100, 100);
+    RectangularHitbox hitbox = new RectangularHitbox(new Vector2D(0.2, 0.8), 0.1, 0.1);
+    tracker.track(hitbox);
+    tracker.update();
+    tracker.invalidate(hitbox);
+    assertTrue(tracker.update());
+    assertEquals(Set.of(new Rectangle(14, 14, 13, 13)), getRegion(tracker));
+
+    tracker.untrack(hitbox);
+    assertEquals(0, tracker.size());
+    assertTrue(tracker.update());
+    assertEquals(Set.of(new Rectangle(14, 14, 13, 13)), getRegion(tracker));
+    assertFalse(tracker.update());
+  }
+
+  @Test
+  void olderBuffersCatchUpOnEarlierFrames() {
+    DirtyRegionTracker tracker = new DirtyRegionTracker(100, 100);
+    tracker.setBufferAge(2);
+    tracker.update();
+    assertTrue(tracker.update());
+    assertEquals(10_000, tracker.getDirtyArea());
+
+    tracker.markDirty(0, 0, 10, 10);
+    tracker.update();
+    tracker.markDirty(50, 50, 10, 10);
+    tracker.update();
+    assertEquals(
+        Set.of(new Rectangle(0, 0, 10, 10), new Rectangle(50, 50, 10, 10)), getRegion(tracker));
+    tracker.update();
+    assertEquals(Set.of(new Rectangle(50, 50, 10, 10)), getRegion(tracker));
+    assertFalse(tracker.update());
+  }
+
+  private static Set<Rectangle> getRegion(DirtyRegionTracker tracker) {
+    Set<Rectangle> rectangles = new HashSet<>();
+    for (int i = 0; i < tracker.getRectangleCount(); i++) {
+      rectangles.add(tracker.getRectangle(i));
+    }
+    return rectangles;
+  }
+}
@@ -0,0 +1,111 @@
+package neon.rendering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import neon.critical.EngineContextExtension;
+import neon.physics.RectangularHitbox;
+import neon.physics.Vector2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(EngineContextExtension.class)
+class RenderQueueTest {
+  private BufferedImage image;
+  private Graphics graphics;
+
+  @BeforeEach
+  void createGraphics() {
+    image = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_RGB);
+    graphics = image.getGraphics();
+    graphics.setColor(Color.BLACK);
+  }
+
+  @Test
+  void higherLayersAreDrawnOnTop() {
+    RenderQueue queue = new RenderQueue();
+    queue.drawRectangle(1, 0, createSquare(Color.RED));
+    queue.drawRectangle(0, 5, createSquare(Color.BLUE));
+    queue.flush(graphics);
+    assertEquals(Color.RED.getRGB(), image.getRGB(640, 360));
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  void higherZValuesAreDrawnOnTopWithinALayer() {
+    RenderQueue queue = new RenderQueue();
+    queue.drawRectangle(0, 2, createSquare(Color.RED));
+    queue.drawRectangle(0, 1, createSquare(Color.BLUE));
+    BufferedImage sprite = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+    sprite.getGraphics().fillRect(0, 0, 4, 4);
+    queue.drawImage(0, 1, new ImageObject(createHitbox(), sprite));
+    queue.flush(graphics);
+    assertEquals(Color.RED.getRGB(), image.getRGB(640, 360));
+  }
+
+  @Test
+  void commandsAreGroupedByColor() {
+    RenderQueue queue = new RenderQueue(1);
+    for (int i = 0; i < 10; i++) {
+      queue.drawRectangle(0, 0, createSquare(i % 2 == 0 ? Color.RED : Color.BLUE));
+    }
+    assertEquals(10, queue.size());
+    queue.flush(graphics);
+    assertEquals(2, queue.getStateChangeCount());
+  }
+
+  @Test
+  void missingColorsUseTheColorOfTheGraphics() {
+    RenderQueue queue = new RenderQueue();
+    graphics.setColor(Color.GREEN);
+    queue.drawCircle(0, 0, new DrawableShape(createHitbox(), null, true));
+    queue.flush(graphics);
+    assertEquals(Color.GREEN.getRGB(), image.getRGB(640, 360));
+    assertEquals(0, queue.getStateChangeCount());
+  }
+
+  @Test
+  void textWithoutAColorUsesTheColorOfTheGraphics() {
+    RenderQueue queue = new RenderQueue();
+    graphics.setColor(Color.GREEN);
+    Font font = new Font(Font.MONOSPACED, Font.BOLD, 200);
+    queue.drawText(0, 0, new TextObject(graphics, new Vector2D(0, 0.5), "\u2588", font, null));
+    queue.flush(graphics);
+    assertTrue(containsColor(Color.GREEN));
+  }
+
+  @Test
+  void layersAndZValuesMustBeInRange() {
+    RenderQueue queue = new RenderQueue();
+    DrawableShape square = createSquare(Color.RED);
+    assertThrows(IllegalArgumentException.class, () -> queue.drawRectangle(256, 0, square));
+    assertThrows(IllegalArgumentException.class, () -> queue.drawRectangle(0, -1, square));
+    assertThrows(IllegalArgumentException.class, () -> queue.drawRectangle(0, 65536, square));
+    assertEquals(0, queue.size());
+  }
+
+  private boolean containsColor(Color color) {
+    for (int x = 0; x < image.getWidth(); x++) {
+      for (int y = 0; y < image.getHeight(); y++) {
+        if (image.getRGB(x, y) == color.getRGB()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static RectangularHitbox createHitbox() {
+    return new RectangularHitbox(new Vector2D(0.5, 0.5), 0.1, 0.1);
+  }
+
+  private static DrawableShape createSquare(Color color) {
+    return new DrawableShape(createHitbox(), color, true);
+  }
+}
@@ -0,0 +1,25 @@
+package neon.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.image.BufferedImage;
+import org.junit.jupiter.api.Test;
+
+class GeneralUtilsTest {
+  @Test
+  void compatibleImagesAreNotConverted() {
+    BufferedImage image = GeneralUtils.createCompatibleImage(4, 4, BufferedImage.TRANSLUCENT);
+    assertSame(image, GeneralUtils.toCompatibleImage(image));
+  }
+
+  @Test
+  void incompatibleImagesAreConverted() {
+    BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_3BYTE_BGR);
+    image.setRGB(1, 2, 0xff123456);
+    BufferedImage compatibleImage = GeneralUtils.toCompatibleImage(image);
+    assertNotSame(image, compatibleImage);
+    assertEquals(0xff123456, compatibleImage.getRGB(1, 2));
+  }
+}
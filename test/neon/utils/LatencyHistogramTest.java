@@ -0,0 +1,82 @@
+package neon.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+  @Test
+  void emptyHistogramHasNoValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getCount());
+    assertTrue(Double.isNaN(histogram.getMean()));
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getPercentile(99));
+  }
+
+  @Test
+  void smallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int value = 1; value <= 31; value++) {
+      histogram.record(value);
+    }
+    assertEquals(31, histogram.getCount());
+    assertEquals(16, histogram.getMean());
+    assertEquals(31, histogram.getMax());
+    assertEquals(1, histogram.getPercentile(0));
+    assertEquals(16, histogram.getPercentile(50));
+    assertEquals(28, histogram.getPercentile(90));
+    assertEquals(31, histogram.getPercentile(100));
+  }
+
+  @Test
+  void percentilesAreWithinOneSixteenth() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 100_000; value++) {
+      histogram.record(value * 1_000);
+    }
+    assertEquals(100_000, histogram.getCount());
+    assertEquals(50_000_500.0, histogram.getMean());
+    assertEquals(100_000_000, histogram.getMax());
+    for (double percentile : new double[] {1, 10, 50, 90, 99, 99.9}) {
+      long expected = (long) (percentile * 1_000) * 1_000;
+      long actual = histogram.getPercentile(percentile);
+      assertTrue(
+          actual >= expected && actual <= expected + expected / 16,
+          "p" + percentile + " was " + actual + " instead of " + expected);
+    }
+    assertEquals(100_000_000, histogram.getPercentile(100));
+  }
+
+  @Test
+  void percentileNeverExceedsTheMax() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(1_000_001);
+    // The bucket of the value ends above it, but the max is exact
+    assertEquals(1_000_001, histogram.getPercentile(50));
+  }
+
+  @Test
+  void negativeValuesAreRecordedAsZero() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    assertEquals(1, histogram.getCount());
+    assertEquals(0, histogram.getPercentile(100));
+    assertEquals(0, histogram.getMean());
+  }
+
+  @Test
+  void resetClearsEveryValue() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(1_000);
+    histogram.record(2_000_000);
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getPercentile(100));
+
+    histogram.record(7);
+    assertEquals(7, histogram.getPercentile(50));
+  }
+}